@@ -20,6 +20,7 @@ from slowapi import Limiter, _rate_limit_exceeded_handler
 from slowapi.util import get_remote_address
 from slowapi.errors import RateLimitExceeded
 from starlette.requests import Request
+from starlette.middleware.gzip import GZipMiddleware
 
 logger = logging.getLogger(__name__)
 
@@ -71,6 +72,9 @@ app = FastAPI(
 app.state.limiter = limiter
 app.add_exception_handler(RateLimitExceeded, _rate_limit_exceeded_handler)
 
+# Bar payloads are large and highly repetitive JSON; small responses go out as-is
+app.add_middleware(GZipMiddleware, minimum_size=1024)
+
 # ─── Health check (no auth required) ─────────────────────────────────────────────
 @app.get("/health", include_in_schema=False)
 def health_check():
@@ -114,6 +118,10 @@ class SimplifiedTrade(BaseModel):
     )
 
 
+class LatestTrades(BaseModel):
+    trades: dict[str, SimplifiedTrade]
+
+
 class BarData(BaseModel):
     symbol: str
     start_date: datetime
@@ -145,6 +153,10 @@ class StockSearchResult(BaseModel):
     suggestions: list[StockSuggestion]
 
 
+class AssetCatalog(BaseModel):
+    assets: list[StockSuggestion]
+
+
 # ─── Endpoints ─────────────────────────────────────────────────────────────────
 @api_router.get("/")
 @limiter.limit("30/minute")
@@ -184,6 +196,51 @@ def get_latest_trade(symbol: str, request: Request):
         )
 
 
+MAX_BATCH_SYMBOLS = 100
+
+
+@api_router.get("/latest-trades", response_model=LatestTrades, response_model_by_alias=False)
+@limiter.limit("30/minute")
+def get_latest_trades(symbols: str, request: Request):
+    """Get the latest trade for several symbols in one call.
+
+    - symbols: comma-separated list, e.g. AAPL,MSFT,NVDA
+    - symbols Alpaca has no trade for are omitted from the result
+    """
+    requested = sorted({s.strip().upper() for s in symbols.split(",") if s.strip()})
+    if not requested:
+        raise HTTPException(status_code=400, detail="At least one symbol is required")
+    if len(requested) > MAX_BATCH_SYMBOLS:
+        raise HTTPException(
+            status_code=400,
+            detail=f"At most {MAX_BATCH_SYMBOLS} symbols per request"
+        )
+
+    url = "https://data.alpaca.markets/v2/stocks/trades/latest"
+    headers = {
+        "accept": "application/json",
+        "APCA-API-KEY-ID": KEY,
+        "APCA-API-SECRET-KEY": SECRET
+    }
+    params = {"symbols": ",".join(requested), "feed": "iex", "currency": "USD"}
+
+    try:
+        response = http_session.get(url, headers=headers, params=params, timeout=10)
+        if response.status_code != 200:
+            raise HTTPException(
+                status_code=response.status_code,
+                detail="Failed to fetch data from Alpaca"
+            )
+
+        return {"trades": response.json().get("trades", {})}
+    except requests.exceptions.RequestException as e:
+        logger.exception("Error fetching latest trades for %s: %s", requested, str(e))
+        raise HTTPException(
+            status_code=503,
+            detail="Alpaca API temporarily unavailable"
+        )
+
+
 @api_router.get("/bars/{symbol}", response_model=BarData)
 @limiter.limit("20/minute")
 def get_stock_bars(
@@ -375,6 +432,51 @@ def search_stocks(query: str, request: Request, limit: int = 10):
         )
 
 
+@api_router.get("/assets", response_model=AssetCatalog)
+@limiter.limit("5/minute")
+def list_assets(request: Request):
+    """All active, tradable US equities.
+
+    Lets clients build their own symbol search index instead of calling /search per keystroke.
+    """
+    url = f"{ALPACA_TRADING_BASE_URL}/v2/assets"
+    headers = {
+        "accept": "application/json",
+        "APCA-API-KEY-ID": KEY,
+        "APCA-API-SECRET-KEY": SECRET,
+    }
+    params = {
+        "status": "active",
+        "asset_class": "us_equity",
+    }
+
+    try:
+        resp = http_session.get(url, headers=headers, params=params, timeout=15)
+        if resp.status_code != 200:
+            raise HTTPException(
+                status_code=resp.status_code,
+                detail="Failed to fetch assets from Alpaca"
+            )
+
+        assets = [
+            {
+                "symbol": asset.get("symbol") or "",
+                "name": asset.get("name") or "",
+                "exchange": asset.get("exchange") or "",
+            }
+            for asset in resp.json()
+            if asset.get("tradable", False)
+        ]
+        return {"assets": assets}
+
+    except requests.exceptions.RequestException as e:
+        logger.exception("Error listing assets: %s", str(e))
+        raise HTTPException(
+            status_code=503,
+            detail="Alpaca API temporarily unavailable"
+        )
+
+
 @api_router.get("/validate/{symbol}")
 @limiter.limit("30/minute")
 def validate_symbol(symbol: str, request: Request):
@@ -0,0 +1,103 @@
+"""
+Generates the NYSE trading calendar consumed by the Spring API
+(TradingSandboxAPI/src/main/resources/calendar/nyse-calendar.csv).
+
+Only exceptions are written: full-day closures and early (13:00 ET) closes.
+Weekends are implied. Re-run this when the exchange announces a new closure
+or to extend the covered years:
+
+    python src/gen_calendar.py 2020 2030 > ../TradingSandboxAPI/src/main/resources/calendar/nyse-calendar.csv
+"""
+import sys
+from datetime import date, timedelta
+
+EARLY_CLOSE_TIME = "13:00"
+
+# One-off closures that no rule can derive
+SPECIAL_CLOSURES = {
+    date(2025, 1, 9): "National Day of Mourning (Jimmy Carter)",
+}
+
+
+def easter(year):
+    # Anonymous Gregorian algorithm
+    a = year % 19
+    b, c = divmod(year, 100)
+    d, e = divmod(b, 4)
+    f = (b + 8) // 25
+    g = (b - f + 1) // 3
+    h = (19 * a + b - d - g + 15) % 30
+    i, k = divmod(c, 4)
+    l = (32 + 2 * e + 2 * i - h - k) % 7
+    m = (a + 11 * h + 22 * l) // 451
+    month, day = divmod(h + l - 7 * m + 114, 31)
+    return date(year, month, day + 1)
+
+
+def nth_weekday(year, month, weekday, n):
+    d = date(year, month, 1)
+    d += timedelta(days=(weekday - d.weekday()) % 7)
+    return d + timedelta(weeks=n - 1)
+
+
+def last_weekday(year, month, weekday):
+    d = date(year, month + 1, 1) - timedelta(days=1) if month < 12 else date(year, 12, 31)
+    return d - timedelta(days=(d.weekday() - weekday) % 7)
+
+
+def observed(d):
+    # Saturday holidays move to Friday, Sunday holidays to Monday
+    if d.weekday() == 5:
+        return d - timedelta(days=1)
+    if d.weekday() == 6:
+        return d + timedelta(days=1)
+    return d
+
+
+def holidays(year):
+    result = {}
+    new_year = date(year, 1, 1)
+    # NYSE does not close on Friday Dec 31 for a Saturday New Year's Day
+    if new_year.weekday() != 5:
+        result[observed(new_year)] = "New Year's Day"
+    result[nth_weekday(year, 1, 0, 3)] = "Martin Luther King Jr. Day"
+    result[nth_weekday(year, 2, 0, 3)] = "Washington's Birthday"
+    result[easter(year) - timedelta(days=2)] = "Good Friday"
+    result[last_weekday(year, 5, 0)] = "Memorial Day"
+    if year >= 2022:
+        result[observed(date(year, 6, 19))] = "Juneteenth"
+    result[observed(date(year, 7, 4))] = "Independence Day"
+    result[nth_weekday(year, 9, 0, 1)] = "Labor Day"
+    result[nth_weekday(year, 11, 3, 4)] = "Thanksgiving Day"
+    result[observed(date(year, 12, 25))] = "Christmas Day"
+    for d, name in SPECIAL_CLOSURES.items():
+        if d.year == year:
+            result[d] = name
+    return result
+
+
+def early_closes(year):
+    result = {}
+    july3 = date(year, 7, 3)
+    if july3.weekday() < 4:
+        result[july3] = "Day before Independence Day"
+    result[nth_weekday(year, 11, 3, 4) + timedelta(days=1)] = "Day after Thanksgiving"
+    dec24 = date(year, 12, 24)
+    if dec24.weekday() < 4:
+        result[dec24] = "Christmas Eve"
+    return result
+
+
+def main(start_year, end_year):
+    print("date,status,close_time,description")
+    for year in range(start_year, end_year + 1):
+        rows = [(d, "CLOSED", "", name) for d, name in holidays(year).items()]
+        rows += [(d, "EARLY_CLOSE", EARLY_CLOSE_TIME, name) for d, name in early_closes(year).items()]
+        for d, status, close_time, name in sorted(rows):
+            print(f"{d.isoformat()},{status},{close_time},{name}")
+
+
+if __name__ == "__main__":
+    if len(sys.argv) != 3:
+        sys.exit("usage: gen_calendar.py <start_year> <end_year>")
+    main(int(sys.argv[1]), int(sys.argv[2]))
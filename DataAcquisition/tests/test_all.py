@@ -227,6 +227,137 @@ class TestLatestTrade:
             assert resp.status_code == 200
 
 
+# ===========================================================================
+# 3b. Batch latest trades endpoint
+# ===========================================================================
+
+SAMPLE_TRADES_PAYLOAD = {
+    "trades": {
+        "AAPL": SAMPLE_TRADE_PAYLOAD["trade"],
+        "MSFT": {**SAMPLE_TRADE_PAYLOAD["trade"], "p": 410.5},
+    }
+}
+
+
+class TestLatestTrades:
+    def test_success(self, monkeypatch):
+        captured = {}
+
+        def fake_get(url, headers, params=None, timeout=None):
+            captured["params"] = params
+            return DummyResponse(SAMPLE_TRADES_PAYLOAD, 200)
+
+        monkeypatch.setattr(api_module.http_session, "get", fake_get)
+        resp = client.get("/latest-trades?symbols=msft,AAPL,aapl", headers=AUTH_HEADER)
+        assert resp.status_code == 200
+
+        trades = resp.json()["trades"]
+        assert trades["AAPL"]["price"] == 150.25
+        assert trades["MSFT"]["price"] == 410.5
+        # de-duplicated, upper-cased, single upstream call
+        assert captured["params"]["symbols"] == "AAPL,MSFT"
+
+    def test_empty_symbols_returns_400(self):
+        resp = client.get("/latest-trades?symbols=,", headers=AUTH_HEADER)
+        assert resp.status_code == 400
+
+    def test_too_many_symbols_returns_400(self):
+        symbols = ",".join(f"S{i}" for i in range(api_module.MAX_BATCH_SYMBOLS + 1))
+        resp = client.get(f"/latest-trades?symbols={symbols}", headers=AUTH_HEADER)
+        assert resp.status_code == 400
+
+    def test_api_failure_non_200(self, monkeypatch):
+        monkeypatch.setattr(
+            api_module.http_session, "get",
+            lambda url, headers, params=None, timeout=None: DummyResponse({}, 500),
+        )
+        resp = client.get("/latest-trades?symbols=AAPL", headers=AUTH_HEADER)
+        assert resp.status_code == 500
+
+    def test_request_exception_returns_503(self, monkeypatch):
+        def exploding_get(*args, **kwargs):
+            raise requests.exceptions.ConnectionError("boom")
+
+        monkeypatch.setattr(api_module.http_session, "get", exploding_get)
+        resp = client.get("/latest-trades?symbols=AAPL", headers=AUTH_HEADER)
+        assert resp.status_code == 503
+
+    def test_requires_auth(self):
+        resp = client.get("/latest-trades?symbols=AAPL")
+        assert resp.status_code == 403
+
+
+# ===========================================================================
+# 3c. Asset catalog endpoint
+# ===========================================================================
+
+SAMPLE_ASSETS_PAYLOAD = [
+    {"symbol": "AAPL", "name": "Apple Inc. Common Stock", "exchange": "NASDAQ", "tradable": True},
+    {"symbol": "BRK.B", "name": None, "exchange": "NYSE", "tradable": True},
+    {"symbol": "ZZZZ", "name": "Delisted Corp", "exchange": "OTC", "tradable": False},
+]
+
+
+class TestAssets:
+    @pytest.fixture(autouse=True)
+    def _fresh_rate_limit(self):
+        """The route allows 5 calls a minute; don't let other tests use them up, or leave none behind."""
+        api_module.limiter.reset()
+        yield
+        api_module.limiter.reset()
+
+    def test_success(self, monkeypatch):
+        captured = {}
+
+        def fake_get(url, headers, params=None, timeout=None):
+            captured["url"] = url
+            captured["params"] = params
+            return DummyResponse(SAMPLE_ASSETS_PAYLOAD, 200)
+
+        monkeypatch.setattr(api_module.http_session, "get", fake_get)
+        resp = client.get("/assets", headers=AUTH_HEADER)
+        assert resp.status_code == 200
+
+        # only tradable assets, each with exactly these three string fields
+        assert resp.json() == {
+            "assets": [
+                {"symbol": "AAPL", "name": "Apple Inc. Common Stock", "exchange": "NASDAQ"},
+                {"symbol": "BRK.B", "name": "", "exchange": "NYSE"},
+            ]
+        }
+        assert captured["url"].endswith("/v2/assets")
+        assert captured["params"] == {"status": "active", "asset_class": "us_equity"}
+
+    def test_rate_limited_to_5_per_minute(self, monkeypatch):
+        monkeypatch.setattr(
+            api_module.http_session, "get",
+            lambda url, headers, params=None, timeout=None: DummyResponse([], 200),
+        )
+        for _ in range(5):
+            assert client.get("/assets", headers=AUTH_HEADER).status_code == 200
+        assert client.get("/assets", headers=AUTH_HEADER).status_code == 429
+
+    def test_api_failure_non_200(self, monkeypatch):
+        monkeypatch.setattr(
+            api_module.http_session, "get",
+            lambda url, headers, params=None, timeout=None: DummyResponse({}, 500),
+        )
+        resp = client.get("/assets", headers=AUTH_HEADER)
+        assert resp.status_code == 500
+
+    def test_request_exception_returns_503(self, monkeypatch):
+        def exploding_get(*args, **kwargs):
+            raise requests.exceptions.ConnectionError("boom")
+
+        monkeypatch.setattr(api_module.http_session, "get", exploding_get)
+        resp = client.get("/assets", headers=AUTH_HEADER)
+        assert resp.status_code == 503
+
+    def test_requires_auth(self):
+        resp = client.get("/assets")
+        assert resp.status_code == 403
+
+
 # ===========================================================================
 # 4. API key authentication
 # ===========================================================================
@@ -163,7 +163,7 @@ export async function fetchPortfolio(): Promise<PortfolioData> {
 }
 
 export async function fetchTradeHistory(): Promise<TradeHistoryItem[]> {
-    return fetchApi<TradeHistoryItem[]>('/api/trade/history');
+    return fetchApi<TradeHistoryItem[]>('/api/trade/history?limit=10');
 }
 
 export async function fetchMarketStatus(): Promise<MarketStatus> {
@@ -1,14 +1,113 @@
 package org.bhargavguntupalli.tradingsandboxapi.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.util.Map;
+
 @Configuration
 public class WebClientConfig {
+
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
     }
+
+    /**
+     * Pooled keep-alive client for the FastAPI data service. Compression is on by
+     * default in HttpClient 5 (it sends Accept-Encoding and inflates responses).
+     */
+    @Bean
+    public CloseableHttpClient marketDataHttpClient(
+            MeterRegistry registry,
+            @Value("${market-data.http.max-connections:50}") int maxConnections,
+            @Value("${market-data.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+            @Value("${market-data.http.pool-wait-ms:500}") long poolWaitMs,
+            @Value("${market-data.http.idle-evict-ms:30000}") long idleEvictMs) {
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                // every request goes to the same host, so the route gets the whole pool
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(pool, "fastapi").bindTo(registry);
+
+        return HttpClients.custom()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    /** RestTemplate for FastAPI with a response timeout per route (first path segment). */
+    @Bean
+    public RestTemplate marketDataRestTemplate(
+            RestTemplateBuilder builder,
+            @Qualifier("marketDataHttpClient") CloseableHttpClient httpClient,
+            @Value("${market-data.http.pool-wait-ms:500}") long poolWaitMs,
+            @Value("${market-data.http.timeouts.default-ms:5000}") long defaultTimeoutMs,
+            @Value("${market-data.http.timeouts.latest-trade-ms:2000}") long latestTradeMs,
+            @Value("${market-data.http.timeouts.bars-ms:10000}") long barsMs,
+            @Value("${market-data.http.timeouts.search-ms:3000}") long searchMs,
+            @Value("${market-data.http.timeouts.validate-ms:3000}") long validateMs,
+            @Value("${market-data.http.timeouts.market-status-ms:2000}") long marketStatusMs,
+            @Value("${market-data.http.timeouts.assets-ms:20000}") long assetsMs) {
+        Map<String, RequestConfig> routes = Map.of(
+                "latest-trade", requestConfig(poolWaitMs, latestTradeMs),
+                "latest-trades", requestConfig(poolWaitMs, latestTradeMs),
+                "bars", requestConfig(poolWaitMs, barsMs),
+                "search", requestConfig(poolWaitMs, searchMs),
+                "validate", requestConfig(poolWaitMs, validateMs),
+                "market-status", requestConfig(poolWaitMs, marketStatusMs),
+                "assets", requestConfig(poolWaitMs, assetsMs));
+        RequestConfig fallback = requestConfig(poolWaitMs, defaultTimeoutMs);
+
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(routes.getOrDefault(route(uri), fallback));
+            return context;
+        });
+        return builder.requestFactory(() -> factory).build();
+    }
+
+    private static RequestConfig requestConfig(long poolWaitMs, long responseTimeoutMs) {
+        // a per-request config replaces the client default rather than merging with it
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                .build();
+    }
+
+    private static String route(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.length() < 2) {
+            return "";
+        }
+        int slash = path.indexOf('/', 1);
+        return slash < 0 ? path.substring(1) : path.substring(1, slash);
+    }
 }
@@ -7,20 +7,29 @@ import org.bhargavguntupalli.tradingsandboxapi.dto.StockSearchResultDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.StockValidationDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TimePeriod;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
 import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/prices")
 public class DailyPriceController {
 
+    // widest chart the frontend draws; more points than pixels is wasted payload
+    private static final int MAX_CHART_POINTS = 2000;
+
     private final DailyPriceService svc;
-    public DailyPriceController(DailyPriceService svc) {
+    private final QuoteStreamHub quoteStream;
+    public DailyPriceController(DailyPriceService svc, QuoteStreamHub quoteStream) {
         this.svc = svc;
+        this.quoteStream = quoteStream;
     }
 
     @GetMapping("/{symbol}/{date}")
@@ -59,22 +68,46 @@ public class DailyPriceController {
         return ResponseEntity.ok(trade);
     }
 
+    @GetMapping("/latest-trades")
+    public ResponseEntity<Map<String, TradeResponseDto>> latestTrades(@RequestParam List<String> symbols) {
+        if (symbols.isEmpty() || symbols.size() > DailyPriceService.MAX_BATCH_SYMBOLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(svc.getLatestTrades(symbols));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(@RequestParam List<String> symbols) {
+        if (symbols.isEmpty() || symbols.size() > DailyPriceService.MAX_BATCH_SYMBOLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        SseEmitter emitter = quoteStream.subscribe(symbols);
+        if (emitter == null) {
+            return ResponseEntity.status(503).build(); // too many open streams
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/market-status")
     public ResponseEntity<MarketStatusDto> getMarketStatus() {
-        MarketStatusDto dto = svc.fetchMarketStatus();
+        MarketStatusDto dto = svc.getMarketStatus();
         return ResponseEntity.ok(dto);
      }
 
     @GetMapping("/{symbol}/period/{period}")
     public ResponseEntity<List<PriceDataDto>> getByPeriod(
             @PathVariable String symbol,
-            @PathVariable String period
+            @PathVariable String period,
+            @RequestParam(required = false) Integer maxPoints
     ) {
         TimePeriod timePeriod = TimePeriod.fromLabel(period);
-        if (timePeriod == null) {
+        if (timePeriod == null || (maxPoints != null && (maxPoints < 3 || maxPoints > MAX_CHART_POINTS))) {
             return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.ok(svc.findByPeriod(symbol, timePeriod));
+        if (maxPoints == null) {
+            return ResponseEntity.ok(svc.findByPeriod(symbol, timePeriod));
+        }
+        return ResponseEntity.ok(svc.findByPeriod(symbol, timePeriod, maxPoints));
     }
 
     @GetMapping("/search/{query}")
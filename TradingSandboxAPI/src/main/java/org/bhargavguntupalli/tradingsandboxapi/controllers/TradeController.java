@@ -1,14 +1,24 @@
 package org.bhargavguntupalli.tradingsandboxapi.controllers;
 
 import jakarta.validation.Valid;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketRequestDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderRequestDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryCursor;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryPageDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeRequestDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.portfolio.PortfolioStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.services.OrderService;
 import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -16,17 +26,56 @@ import java.util.List;
 @RequestMapping("/api/trade")
 public class TradeController {
 
+    private static final int MAX_IDEMPOTENCY_KEY = 64;
+    private static final int DEFAULT_HISTORY_PAGE = 50;
+    private static final int MAX_HISTORY_PAGE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TradingService tradingService;
+    private final OrderService orderService;
+    private final PortfolioStreamHub portfolioStream;
 
-    public TradeController(TradingService tradingService) {
+    public TradeController(TradingService tradingService, OrderService orderService,
+                           PortfolioStreamHub portfolioStream) {
         this.tradingService = tradingService;
+        this.orderService = orderService;
+        this.portfolioStream = portfolioStream;
     }
 
     @PostMapping("/execute")
     public ResponseEntity<TradeResultDto> executeTrade(
             Authentication auth,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @Valid @RequestBody TradeRequestDto request) {
-        return ResponseEntity.ok(tradingService.executeTrade(auth.getName(), request));
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tradingService.executeTrade(auth.getName(), request, idempotencyKey));
+    }
+
+    @PostMapping("/basket")
+    public ResponseEntity<BasketResultDto> executeBasket(
+            Authentication auth,
+            @Valid @RequestBody BasketRequestDto request) {
+        return ResponseEntity.ok(tradingService.executeBasket(auth.getName(), request));
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<OrderDto> placeOrder(
+            Authentication auth,
+            @Valid @RequestBody OrderRequestDto request) {
+        // accepted now, executed later by the order engine
+        return ResponseEntity.accepted().body(orderService.placeOrder(auth.getName(), request));
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<List<OrderDto>> getOrders(Authentication auth) {
+        return ResponseEntity.ok(orderService.getOrders(auth.getName()));
+    }
+
+    @DeleteMapping("/orders/{orderId}")
+    public ResponseEntity<OrderDto> cancelOrder(Authentication auth, @PathVariable Long orderId) {
+        return ResponseEntity.ok(orderService.cancelOrder(auth.getName(), orderId));
     }
 
     @GetMapping("/portfolio")
@@ -34,8 +83,35 @@ public class TradeController {
         return ResponseEntity.ok(tradingService.getPortfolio(auth.getName()));
     }
 
+    @GetMapping(value = "/portfolio/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPortfolio(Authentication auth) {
+        SseEmitter emitter = portfolioStream.subscribe(auth.getName());
+        if (emitter == null) {
+            return ResponseEntity.status(503).build(); // too many open streams
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/history")
-    public ResponseEntity<List<TradeHistoryDto>> getTradeHistory(Authentication auth) {
-        return ResponseEntity.ok(tradingService.getTradeHistory(auth.getName()));
+    public ResponseEntity<List<TradeHistoryDto>> getTradeHistory(
+            Authentication auth,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String before) {
+        if (limit == null && before == null) {
+            // callers that don't page still get the whole history in one list
+            return ResponseEntity.ok(tradingService.getTradeHistory(auth.getName()));
+        }
+        int pageSize = limit != null ? limit : DEFAULT_HISTORY_PAGE;
+        TradeHistoryCursor cursor = before != null ? TradeHistoryCursor.parse(before) : null;
+        if (pageSize < 1 || pageSize > MAX_HISTORY_PAGE || (before != null && cursor == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        TradeHistoryPageDto page = tradingService.getTradeHistory(auth.getName(), pageSize, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.next() != null) {
+            // pass back as ?before= for the next page
+            response.header(NEXT_CURSOR_HEADER, page.next().encode());
+        }
+        return response.body(page.trades());
     }
 }
@@ -0,0 +1,16 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetCatalogDto {
+    private List<StockSuggestionDto> assets;
+}
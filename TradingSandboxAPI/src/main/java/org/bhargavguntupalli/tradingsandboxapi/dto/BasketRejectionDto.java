@@ -0,0 +1,15 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketRejectionDto {
+    private int index;      // position in the request's trades list
+    private String symbol;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+import org.bhargavguntupalli.tradingsandboxapi.models.BasketMode;
+
+import java.util.List;
+
+@Getter @Setter
+public class BasketRequestDto {
+
+    @NotEmpty(message = "trades is required")
+    @Size(max = 100, message = "a basket holds at most 100 trades")
+    private List<@Valid TradeRequestDto> trades;
+
+    // defaults to ALL_OR_NOTHING
+    private BasketMode mode;
+}
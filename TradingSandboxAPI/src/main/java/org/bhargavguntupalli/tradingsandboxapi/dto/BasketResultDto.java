@@ -0,0 +1,15 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter @Setter
+public class BasketResultDto {
+    private String mode;
+    private List<TradeResultDto> executed;
+    private List<BasketRejectionDto> rejected;
+    private BigDecimal remainingCashBalance;
+}
@@ -0,0 +1,22 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+/**
+ * JSON comes in as:
+ *   "trades": { "AAPL": { "price": ..., "timestamp": ..., "volume": ... }, ... }
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LatestTradesDto {
+    private Map<String, TradeResponseDto> trades;
+}
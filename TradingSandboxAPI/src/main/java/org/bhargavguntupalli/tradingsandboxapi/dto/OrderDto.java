@@ -0,0 +1,24 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+public class OrderDto {
+    private Long id;
+    private String symbol;
+    private String side;
+    private String orderType;
+    private BigDecimal quantity;
+    private BigDecimal limitPrice;
+    private BigDecimal stopPrice;
+    private boolean stopTriggered;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime closedAt;
+    private Long tradeId;
+    private String rejectReason;
+}
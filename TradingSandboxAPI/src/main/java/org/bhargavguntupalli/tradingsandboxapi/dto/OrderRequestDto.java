@@ -0,0 +1,35 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+public class OrderRequestDto {
+
+    @NotBlank(message = "symbol is required")
+    private String symbol;
+
+    @NotNull(message = "quantity is required")
+    @DecimalMin(value = "0.01", message = "quantity must be at least 0.01")
+    @Digits(integer = 10, fraction = 2, message = "quantity allows up to 2 decimal places")
+    private BigDecimal quantity;
+
+    @NotNull(message = "side is required")
+    private TradeType side;
+
+    @NotNull(message = "orderType is required")
+    private OrderType orderType;
+
+    @DecimalMin(value = "0.0001", message = "limitPrice must be positive")
+    @Digits(integer = 15, fraction = 4, message = "limitPrice allows up to 4 decimal places")
+    private BigDecimal limitPrice;
+
+    @DecimalMin(value = "0.0001", message = "stopPrice must be positive")
+    @Digits(integer = 15, fraction = 4, message = "stopPrice allows up to 4 decimal places")
+    private BigDecimal stopPrice;
+}
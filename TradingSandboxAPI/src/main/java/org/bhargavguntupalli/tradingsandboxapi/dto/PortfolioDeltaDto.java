@@ -0,0 +1,18 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Positions that changed since the last push, plus the portfolio totals after them. */
+@Getter @Setter
+public class PortfolioDeltaDto {
+    private List<HoldingDto> holdings;
+    private List<String> removed;
+    private BigDecimal cashBalance;
+    private BigDecimal holdingsValue;
+    private BigDecimal totalPortfolioValue;
+    private BigDecimal totalGainLoss;
+}
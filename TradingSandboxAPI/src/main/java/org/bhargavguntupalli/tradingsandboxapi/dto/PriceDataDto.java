@@ -8,6 +8,7 @@ public class PriceDataDto {
     private Instant timestamp;
     private String dateLabel;
     private BigDecimal closingPrice;
+    private boolean stale;
 
     public PriceDataDto() {}
 
@@ -49,4 +50,12 @@ public class PriceDataDto {
     public void setClosingPrice(BigDecimal closingPrice) {
         this.closingPrice = closingPrice;
     }
+
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
 }
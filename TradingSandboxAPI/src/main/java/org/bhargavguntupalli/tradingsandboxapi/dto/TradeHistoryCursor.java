@@ -0,0 +1,31 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a user's trade history: the {@code (executedAt, id)} of the last
+ * trade a page returned. Handed to clients as an opaque token.
+ */
+public record TradeHistoryCursor(LocalDateTime executedAt, long id) {
+
+    public String encode() {
+        String raw = executedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Reads a token produced by {@link #encode()}; {@code null} if it isn't one. */
+    public static TradeHistoryCursor parse(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int bar = raw.indexOf('|');
+            if (bar < 0) {
+                return null;
+            }
+            return new TradeHistoryCursor(LocalDateTime.parse(raw.substring(0, bar)), Long.parseLong(raw.substring(bar + 1)));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
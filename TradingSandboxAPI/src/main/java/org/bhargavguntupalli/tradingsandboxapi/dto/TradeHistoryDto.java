@@ -1,12 +1,15 @@
 package org.bhargavguntupalli.tradingsandboxapi.dto;
 
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter @Setter
+@NoArgsConstructor
 public class TradeHistoryDto {
     private Long id;
     private String symbol;
@@ -15,4 +18,16 @@ public class TradeHistoryDto {
     private BigDecimal pricePerShare;
     private BigDecimal totalCost;
     private LocalDateTime executedAt;
+
+    // used by the history query's constructor projection
+    public TradeHistoryDto(Long id, String symbol, TradeType type, BigDecimal quantity,
+                           BigDecimal pricePerShare, BigDecimal totalCost, LocalDateTime executedAt) {
+        this.id = id;
+        this.symbol = symbol;
+        this.type = type.name();
+        this.quantity = quantity;
+        this.pricePerShare = pricePerShare;
+        this.totalCost = totalCost;
+        this.executedAt = executedAt;
+    }
 }
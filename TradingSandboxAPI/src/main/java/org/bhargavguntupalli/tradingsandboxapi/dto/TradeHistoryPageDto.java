@@ -0,0 +1,6 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import java.util.List;
+
+/** One page of trade history, newest first; {@code next} is null on the last page. */
+public record TradeHistoryPageDto(List<TradeHistoryDto> trades, TradeHistoryCursor next) {}
@@ -15,4 +15,8 @@ public class TradeResponseDto {
 
     @JsonProperty("volume")
     private int volume;
+
+    // set when served from the last known quote because upstream is unavailable
+    @JsonProperty("stale")
+    private boolean stale;
 }
@@ -0,0 +1,71 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.util.Arrays;
+
+/**
+ * Rolls a finer {@link BarSeries} up into coarser buckets in a single pass:
+ * first open, max high, min low, last close, summed volume and trade count,
+ * and volume-weighted VWAP.
+ */
+public final class BarAggregator {
+
+    private BarAggregator() {}
+
+    /** Rolls {@code src}, made of {@code source}-sized bars, up into {@code target} buckets. */
+    public static BarSeries rollUp(BarSeries src, BarTimeframe source, BarTimeframe target) {
+        if (!source.rollsUpInto(target)) {
+            // a bar would straddle two target buckets
+            throw new IllegalArgumentException(source.getLabel() + " bars can't be rolled up into " + target.getLabel());
+        }
+        int n = src.size;
+        long[] ts = new long[n];
+        double[] open = new double[n];
+        double[] high = new double[n];
+        double[] low = new double[n];
+        double[] close = new double[n];
+        double[] volume = new double[n];
+        double[] trades = new double[n];
+        double[] vwap = new double[n];
+
+        int out = -1;
+        long bucketEnd = Long.MIN_VALUE;
+        double pv = 0;  // sum of vwap * volume for the current bucket
+
+        for (int i = 0; i < n; i++) {
+            // input is sorted, so a bar either falls in the current bucket or opens the next one
+            if (out < 0 || src.timestamps[i] >= bucketEnd) {
+                if (out >= 0) {
+                    vwap[out] = volumeWeighted(pv, volume[out], close[out]);
+                }
+                long bucket = target.bucketStart(src.timestamps[i]);
+                out++;
+                bucketEnd = target.bucketEnd(bucket);
+                pv = 0;
+                ts[out] = bucket;
+                open[out] = src.open[i];
+                high[out] = src.high[i];
+                low[out] = src.low[i];
+            } else {
+                high[out] = Math.max(high[out], src.high[i]);
+                low[out] = Math.min(low[out], src.low[i]);
+            }
+            close[out] = src.close[i];
+            volume[out] += src.volume[i];
+            trades[out] += src.tradeCount[i];
+            pv += src.vwap[i] * src.volume[i];
+        }
+        if (out >= 0) {
+            vwap[out] = volumeWeighted(pv, volume[out], close[out]);
+        }
+
+        int size = out + 1;
+        return new BarSeries(Arrays.copyOf(ts, size), Arrays.copyOf(open, size), Arrays.copyOf(high, size),
+                Arrays.copyOf(low, size), Arrays.copyOf(close, size), Arrays.copyOf(volume, size),
+                Arrays.copyOf(trades, size), Arrays.copyOf(vwap, size), size);
+    }
+
+    private static double volumeWeighted(double priceVolume, double volume, double fallback) {
+        // a bucket with no volume has no meaningful VWAP; use its close
+        return volume > 0 ? priceVolume / volume : fallback;
+    }
+}
@@ -0,0 +1,88 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Column-oriented bar series: one primitive array per field, oldest bar first.
+ * Keeps aggregation free of per-bar allocations; {@link BarDto}s only appear at
+ * the edges when reading from or writing to the wire and the store.
+ */
+public final class BarSeries {
+
+    final long[] timestamps;
+    final double[] open;
+    final double[] high;
+    final double[] low;
+    final double[] close;
+    final double[] volume;
+    final double[] tradeCount;
+    final double[] vwap;
+    final int size;
+
+    BarSeries(long[] timestamps, double[] open, double[] high, double[] low, double[] close,
+              double[] volume, double[] tradeCount, double[] vwap, int size) {
+        this.timestamps = timestamps;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.tradeCount = tradeCount;
+        this.vwap = vwap;
+        this.size = size;
+    }
+
+    public static BarSeries of(List<BarDto> bars) {
+        List<BarDto> sorted = new ArrayList<>(bars);
+        sorted.sort(Comparator.comparing(BarDto::getTimestamp));
+
+        int n = sorted.size();
+        BarSeries s = new BarSeries(new long[n], new double[n], new double[n], new double[n], new double[n],
+                new double[n], new double[n], new double[n], n);
+        for (int i = 0; i < n; i++) {
+            BarDto b = sorted.get(i);
+            s.timestamps[i] = b.getTimestamp().toEpochMilli();
+            s.open[i] = b.getOpen();
+            s.high[i] = b.getHigh();
+            s.low[i] = b.getLow();
+            s.close[i] = b.getClose();
+            s.volume[i] = b.getVolume();
+            s.tradeCount[i] = b.getTradeCount();
+            s.vwap[i] = b.getVwap();
+        }
+        return s;
+    }
+
+    public List<BarDto> toBars(String symbol) {
+        List<BarDto> bars = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BarDto b = new BarDto();
+            b.setSymbol(symbol);
+            b.setTimestamp(timestamp(i));
+            b.setOpen(open[i]);
+            b.setHigh(high[i]);
+            b.setLow(low[i]);
+            b.setClose(close[i]);
+            b.setVolume(volume[i]);
+            b.setTradeCount(tradeCount[i]);
+            b.setVwap(vwap[i]);
+            bars.add(b);
+        }
+        return bars;
+    }
+
+    public int size() { return size; }
+    public Instant timestamp(int i) { return Instant.ofEpochMilli(timestamps[i]); }
+    public double open(int i) { return open[i]; }
+    public double high(int i) { return high[i]; }
+    public double low(int i) { return low[i]; }
+    public double close(int i) { return close[i]; }
+    public double volume(int i) { return volume[i]; }
+    public double tradeCount(int i) { return tradeCount[i]; }
+    public double vwap(int i) { return vwap[i]; }
+}
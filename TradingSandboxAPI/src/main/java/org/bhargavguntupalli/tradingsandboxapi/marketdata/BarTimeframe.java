@@ -0,0 +1,67 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.time.Instant;
+
+/** Bar sizes understood by FastAPI's /bars route, with their bucket boundaries. */
+public enum BarTimeframe {
+    ONE_MIN("1Min", 60_000L),
+    FIVE_MIN("5Min", 5 * 60_000L),
+    FIFTEEN_MIN("15Min", 15 * 60_000L),
+    ONE_HOUR("1Hour", 60 * 60_000L),
+    // sized by the exchange calendar day rather than a fixed length
+    ONE_DAY("1Day", 24 * 60 * 60_000L);
+
+    private final String label;
+    private final long millis;
+
+    BarTimeframe(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /** Start of the bucket {@code epochMillis} falls in. */
+    public long bucketStart(long epochMillis) {
+        if (this == ONE_DAY) {
+            // daily bars start at midnight exchange time
+            return Instant.ofEpochMilli(epochMillis).atZone(TradingCalendar.EXCHANGE_ZONE)
+                    .toLocalDate()
+                    .atStartOfDay(TradingCalendar.EXCHANGE_ZONE)
+                    .toInstant()
+                    .toEpochMilli();
+        }
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+
+    /** Exclusive end of the bucket starting at {@code bucketStart}. */
+    public long bucketEnd(long bucketStart) {
+        if (this == ONE_DAY) {
+            return Instant.ofEpochMilli(bucketStart).atZone(TradingCalendar.EXCHANGE_ZONE)
+                    .plusDays(1)
+                    .toInstant()
+                    .toEpochMilli();
+        }
+        return bucketStart + millis;
+    }
+
+    /** True if bars of this size can be rolled up exactly into {@code coarser}. */
+    public boolean rollsUpInto(BarTimeframe coarser) {
+        return coarser == ONE_DAY || coarser.millis % millis == 0;
+    }
+
+    public boolean isFinerThan(BarTimeframe other) {
+        return millis < other.millis;
+    }
+
+    public static BarTimeframe fromLabel(String label) {
+        for (BarTimeframe t : values()) {
+            if (t.label.equalsIgnoreCase(label)) {
+                return t;
+            }
+        }
+        return null;
+    }
+}
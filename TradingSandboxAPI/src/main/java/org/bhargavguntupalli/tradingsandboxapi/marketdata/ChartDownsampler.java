@@ -0,0 +1,72 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.util.stream.IntStream;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for line charts. Keeps the first
+ * and last points and, from each bucket in between, the point forming the
+ * largest triangle with the previously kept point and the next bucket's
+ * average, which preserves peaks and troughs far better than striding.
+ */
+public final class ChartDownsampler {
+
+    private ChartDownsampler() {}
+
+    /**
+     * Indices of the points to keep, ascending. {@code x} must be sorted; when
+     * there are no more than {@code maxPoints} points (or fewer than three are
+     * asked for) every index is returned.
+     */
+    public static int[] lttb(long[] x, double[] y, int maxPoints) {
+        int n = x.length;
+        if (maxPoints >= n || maxPoints < 3) {
+            return IntStream.range(0, n).toArray();
+        }
+
+        int[] kept = new int[maxPoints];
+        long x0 = x[0];  // work relative to the first timestamp to keep products small
+        int a = 0;
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            // average of the next bucket (the last point when this is the final bucket)
+            int avgStart = bucketStart(bucket + 1, n, maxPoints);
+            int avgEnd = Math.min(bucketStart(bucket + 2, n, maxPoints), n);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += x[j] - x0;
+                avgY += y[j];
+            }
+            int avgLen = avgEnd - avgStart;
+            avgX /= avgLen;
+            avgY /= avgLen;
+
+            int from = bucketStart(bucket, n, maxPoints);
+            int to = avgStart;
+            double ax = x[a] - x0;
+            double ay = y[a];
+            double maxArea = -1;
+            int next = from;
+            for (int j = from; j < to; j++) {
+                // twice the triangle area; only the comparison matters
+                double area = Math.abs((ax - avgX) * (y[j] - ay) - (ax - (x[j] - x0)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+            kept[bucket + 1] = next;
+            a = next;
+        }
+
+        kept[0] = 0;
+        kept[maxPoints - 1] = n - 1;
+        return kept;
+    }
+
+    /** First index of {@code bucket} when the n - 2 inner points are split into maxPoints - 2 buckets. */
+    private static int bucketStart(int bucket, int n, int maxPoints) {
+        // integer arithmetic so the last bucket ends exactly before the final point
+        return (int) ((long) bucket * (n - 2) / (maxPoints - 2)) + 1;
+    }
+}
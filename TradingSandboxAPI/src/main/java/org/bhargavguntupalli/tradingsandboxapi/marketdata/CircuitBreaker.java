@@ -0,0 +1,62 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.time.Clock;
+
+/**
+ * Consecutive-failure circuit breaker for one upstream route. After
+ * {@code failureThreshold} failures in a row calls are rejected for
+ * {@code openMs}; then a single probe is let through, and its outcome either
+ * closes the circuit again or re-opens it for another interval.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    CircuitBreaker(int failureThreshold, long openMs, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    /** Whether a call may go upstream now; in half-open state only the first caller gets to probe. */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (clock.millis() - openedAt >= openMs) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // a probe is already in flight
+                return false;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+            failures = 0;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+}
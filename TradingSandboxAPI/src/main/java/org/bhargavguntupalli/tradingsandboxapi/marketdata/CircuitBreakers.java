@@ -0,0 +1,83 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * One {@link CircuitBreaker} per FastAPI route, so a failing bars endpoint
+ * doesn't also cut off quotes. Client errors other than 429 mean upstream is
+ * healthy and answered, so they don't count as failures.
+ */
+@Component
+public class CircuitBreakers {
+
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final MeterRegistry registry;
+    private final int failureThreshold;
+    private final long openMs;
+    private final Clock clock;
+
+    @Autowired
+    public CircuitBreakers(MeterRegistry registry,
+                           @Value("${market-data.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${market-data.circuit-breaker.open-ms:30000}") long openMs) {
+        this(registry, failureThreshold, openMs, Clock.systemUTC());
+    }
+
+    CircuitBreakers(MeterRegistry registry, int failureThreshold, long openMs, Clock clock) {
+        this.registry = registry;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    /** Runs {@code call} through the breaker for {@code route}, or throws {@link CircuitOpenException}. */
+    public <T> T call(String route, Supplier<T> call) {
+        CircuitBreaker breaker = breaker(route);
+        if (!breaker.tryAcquire()) {
+            Counter.builder("market.data.circuit.rejected").tag("route", route).register(registry).increment();
+            throw new CircuitOpenException(route);
+        }
+        try {
+            T result = call.get();
+            breaker.onSuccess();
+            return result;
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            // an Error has to count too, or a half-open probe would hold its slot for good
+            breaker.onFailure();
+            throw e;
+        }
+    }
+
+    public boolean isOpen(String route) {
+        return breaker(route).state() != CircuitBreaker.State.CLOSED;
+    }
+
+    private CircuitBreaker breaker(String route) {
+        return breakers.computeIfAbsent(route, r -> {
+            CircuitBreaker breaker = new CircuitBreaker(failureThreshold, openMs, clock);
+            Gauge.builder("market.data.circuit.open", breaker, b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                    .tag("route", r)
+                    .register(registry);
+            return breaker;
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+/** Thrown instead of calling upstream while the route's circuit is open. */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String route) {
+        super("Upstream route '" + route + "' is unavailable");
+    }
+}
@@ -0,0 +1,73 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBar;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBarId;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayCoverage;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayBarRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayCoverageRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Local store of intraday bars. A session only counts as stored once all of its
+ * bars for a timeframe were saved after it closed, so partial days are never
+ * served from here.
+ */
+@Component
+public class IntradayBarStore {
+
+    private final IntradayBarRepository barRepo;
+    private final IntradayCoverageRepository coverageRepo;
+
+    public IntradayBarStore(IntradayBarRepository barRepo, IntradayCoverageRepository coverageRepo) {
+        this.barRepo = barRepo;
+        this.coverageRepo = coverageRepo;
+    }
+
+    public Set<LocalDate> coveredSessions(String symbol, String timeframe, LocalDate start, LocalDate end) {
+        return coverageRepo.findBySymbolAndTimeframeAndSessionDateBetween(symbol, timeframe, start, end).stream()
+                .map(IntradayCoverage::getSessionDate)
+                .collect(Collectors.toSet());
+    }
+
+    /** Stored bars with {@code start <= timestamp < end}, oldest first. */
+    public List<IntradayBar> load(String symbol, String timeframe, Instant start, Instant end) {
+        return barRepo.findByIdSymbolAndIdTimeframeAndIdTimestampGreaterThanEqualAndIdTimestampLessThanOrderByIdTimestampAsc(
+                symbol, timeframe, start, end);
+    }
+
+    /** Saves the bars of completed sessions and marks those sessions as covered. */
+    @Transactional
+    public void saveSessions(String symbol, String timeframe, Map<LocalDate, List<BarDto>> barsBySession) {
+        List<IntradayBar> bars = new ArrayList<>();
+        List<IntradayCoverage> coverage = new ArrayList<>();
+        barsBySession.forEach((session, sessionBars) -> {
+            sessionBars.forEach(b -> bars.add(toEntity(symbol, timeframe, b)));
+            coverage.add(new IntradayCoverage(symbol, timeframe, session));
+        });
+        barRepo.saveAll(bars);
+        coverageRepo.saveAll(coverage);
+    }
+
+    private static IntradayBar toEntity(String symbol, String timeframe, BarDto b) {
+        return new IntradayBar(
+                new IntradayBarId(symbol, timeframe, b.getTimestamp()),
+                BigDecimal.valueOf(b.getOpen()),
+                BigDecimal.valueOf(b.getHigh()),
+                BigDecimal.valueOf(b.getLow()),
+                BigDecimal.valueOf(b.getClose()),
+                Math.round(b.getVolume()),
+                Math.round(b.getTradeCount()),
+                BigDecimal.valueOf(b.getVwap()));
+    }
+}
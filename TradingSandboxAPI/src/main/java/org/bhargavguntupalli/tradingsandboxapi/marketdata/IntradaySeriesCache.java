@@ -0,0 +1,138 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bars of the session in progress, per (symbol, timeframe). A refresh only asks
+ * upstream for bars from the last one we hold onward (that bar may still be
+ * forming), concurrent viewers share one refresh, and a series is dropped as
+ * soon as it is asked for a different session.
+ */
+@Component
+public class IntradaySeriesCache {
+
+    private final ConcurrentHashMap<String, Series> series = new ConcurrentHashMap<>();
+
+    private final long refreshMs;
+    private final int maxSeries;
+    private final Clock clock;
+
+    @Autowired
+    public IntradaySeriesCache(@Value("${market-data.intraday-series.refresh-ms:10000}") long refreshMs,
+                               @Value("${market-data.intraday-series.max-series:500}") int maxSeries) {
+        this(refreshMs, maxSeries, Clock.systemUTC());
+    }
+
+    IntradaySeriesCache(long refreshMs, int maxSeries, Clock clock) {
+        this.refreshMs = refreshMs;
+        this.maxSeries = maxSeries;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the bars of {@code session} for (symbol, timeframe), oldest first.
+     * When due for a refresh, {@code tailLoader} is called with the timestamp of the
+     * last bar held ({@code null} for an empty series) and must return the bars from
+     * there on, or {@code null} on failure, in which case the current bars are kept.
+     */
+    public List<BarDto> get(String symbol, String timeframe, LocalDate session,
+                            Function<Instant, List<BarDto>> tailLoader) {
+        String key = symbol + "|" + timeframe;
+        Series s = series.compute(key, (k, existing) ->
+                existing != null && existing.session.equals(session) ? existing : new Series(session));
+        s.lastAccess = clock.millis();
+        if (series.size() > maxSeries) {
+            evictLeastRecentlyUsed();
+        }
+
+        if (clock.millis() - s.lastRefresh < refreshMs) {
+            return s.snapshot();
+        }
+
+        CompletableFuture<List<BarDto>> mine = new CompletableFuture<>();
+        CompletableFuture<List<BarDto>> running;
+        synchronized (s) {
+            if (clock.millis() - s.lastRefresh < refreshMs) {
+                // someone else refreshed while we were checking
+                return s.snapshot();
+            }
+            running = s.refreshing;
+            if (running == null) {
+                s.refreshing = mine;
+            }
+        }
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            List<BarDto> tail = tailLoader.apply(s.lastTimestamp());
+            if (tail != null) {
+                s.append(tail);
+            }
+            // a failed refresh also waits out the interval rather than hammering upstream
+            s.lastRefresh = clock.millis();
+            List<BarDto> result = s.snapshot();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.complete(s.snapshot());
+            throw e;
+        } finally {
+            synchronized (s) {
+                s.refreshing = null;
+            }
+        }
+    }
+
+    public int size() {
+        return series.size();
+    }
+
+    private synchronized void evictLeastRecentlyUsed() {
+        while (series.size() > maxSeries) {
+            series.entrySet().stream()
+                    .min(Comparator.comparingLong((Map.Entry<String, Series> e) -> e.getValue().lastAccess))
+                    .ifPresent(e -> series.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private static final class Series {
+        final LocalDate session;
+        private final TreeMap<Instant, BarDto> bars = new TreeMap<>();
+        volatile long lastRefresh = Long.MIN_VALUE / 2;
+        volatile long lastAccess;
+        CompletableFuture<List<BarDto>> refreshing;
+
+        Series(LocalDate session) {
+            this.session = session;
+        }
+
+        synchronized Instant lastTimestamp() {
+            return bars.isEmpty() ? null : bars.lastKey();
+        }
+
+        synchronized void append(List<BarDto> tail) {
+            // a re-sent bar replaces the partial one we already had
+            tail.forEach(b -> bars.put(b.getTimestamp(), b));
+        }
+
+        synchronized List<BarDto> snapshot() {
+            return List.copyOf(bars.values());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of the last value successfully served per key, kept around so it
+ * can be handed out (flagged stale) while upstream is unavailable.
+ */
+public class LastKnownGood<V> {
+
+    private final Map<String, V> values;
+
+    public LastKnownGood(int maxEntries) {
+        this.values = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized void put(String key, V value) {
+        values.put(key, value);
+    }
+
+    /** The last good value for {@code key}, or {@code null} if there never was one. */
+    public synchronized V get(String key) {
+        return values.get(key);
+    }
+}
@@ -0,0 +1,73 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.OffsetDateTime;
+
+/**
+ * In-memory market clock. Holds the last status fetched from upstream and
+ * derives open/closed locally, flipping exactly at {@code nextOpen}/{@code nextClose}
+ * so callers don't need a remote round trip to know whether the market is open.
+ */
+@Component
+public class MarketClock {
+
+    private final Clock clock;
+
+    private volatile MarketStatusDto snapshot;
+
+    @Autowired
+    public MarketClock() {
+        this(Clock.systemUTC());
+    }
+
+    MarketClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void update(MarketStatusDto status) {
+        this.snapshot = status;
+    }
+
+    /** Status as of now, or {@code null} if nothing has been loaded yet. */
+    public MarketStatusDto current() {
+        return at(clock.millis());
+    }
+
+    /** True until the first load, and again once the boundary the snapshot was waiting on has passed. */
+    public boolean needsRefresh() {
+        MarketStatusDto s = snapshot;
+        if (s == null) {
+            return true;
+        }
+        OffsetDateTime boundary = s.isOpen() ? s.getNextClose() : s.getNextOpen();
+        return boundary != null && clock.millis() >= millis(boundary);
+    }
+
+    MarketStatusDto at(long now) {
+        MarketStatusDto s = snapshot;
+        if (s == null) {
+            return null;
+        }
+
+        boolean open;
+        if (s.isOpen()) {
+            open = s.getNextClose() == null || now < millis(s.getNextClose());
+        } else {
+            open = s.getNextOpen() != null && now >= millis(s.getNextOpen())
+                    && (s.getNextClose() == null || now < millis(s.getNextClose()));
+        }
+
+        if (open == s.isOpen()) {
+            return s;
+        }
+        return new MarketStatusDto(open, s.getNextOpen(), s.getNextClose());
+    }
+
+    private static long millis(OffsetDateTime t) {
+        return t.toInstant().toEpochMilli();
+    }
+}
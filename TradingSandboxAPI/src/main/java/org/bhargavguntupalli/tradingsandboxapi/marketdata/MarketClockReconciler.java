@@ -0,0 +1,34 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically re-reads the upstream market status so the in-memory
+ * {@link MarketClock} picks up unscheduled halts and calendar changes.
+ */
+@Component
+public class MarketClockReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketClockReconciler.class);
+
+    private final DailyPriceService dailyPriceService;
+
+    public MarketClockReconciler(DailyPriceService dailyPriceService) {
+        this.dailyPriceService = dailyPriceService;
+    }
+
+    @Scheduled(initialDelayString = "${market-data.market-clock.reconcile-ms:300000}",
+               fixedDelayString = "${market-data.market-clock.reconcile-ms:300000}")
+    public void reconcile() {
+        try {
+            // background work: only spends budget the interactive classes leave over
+            UpstreamPriority.PREFETCH.call(dailyPriceService::fetchMarketStatus);
+        } catch (RuntimeException e) {
+            log.warn("Market status reconciliation failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor reserved for outbound market-data calls, so a slow upstream
+ * can never eat into Tomcat's request threads. Runs on virtual threads when the
+ * JVM supports them (21+), otherwise on a small pool of daemon platform threads.
+ */
+@Component
+public class MarketDataExecutor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataExecutor.class);
+
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter shed;
+    private final Counter timedOut;
+
+    public MarketDataExecutor(MeterRegistry registry,
+                              @Value("${market-data.executor.max-concurrency:16}") int maxConcurrency,
+                              @Value("${market-data.executor.queue-capacity:256}") int queueCapacity) {
+        this.pool = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory(),
+                // a full queue sheds the call rather than running it on the request thread
+                new ThreadPoolExecutor.AbortPolicy());
+        this.pool.allowCoreThreadTimeOut(true);
+        this.executor = ExecutorServiceMetrics.monitor(registry, pool, "market-data", Tags.empty());
+        this.shed = Counter.builder("market.data.executor.shed").register(registry);
+        this.timedOut = Counter.builder("market.data.executor.timeouts").register(registry);
+    }
+
+    /**
+     * Runs {@code task} on the market-data pool. If it has not finished within
+     * {@code deadlineMs}, or it fails, the future completes with {@code fallback};
+     * a task still running at the deadline is interrupted. When the pool's queue
+     * is full the task isn't run at all and the fallback comes back straight away.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task, long deadlineMs, T fallback) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            return CompletableFuture.completedFuture(fallback);
+        }
+        return result
+                .orTimeout(deadlineMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    if (e instanceof TimeoutException) {
+                        // free the pool thread instead of letting it finish a call nobody is waiting for
+                        timedOut.increment();
+                        running.cancel(true);
+                    }
+                    return fallback;
+                });
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    private static ThreadFactory threadFactory() {
+        if (Runtime.version().feature() >= 21) {
+            try {
+                // Thread.ofVirtual().name("market-data-", 0).factory(), without compiling against 21
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "market-data-", 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.warn("Virtual threads unavailable, falling back to platform threads", e);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "market-data-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
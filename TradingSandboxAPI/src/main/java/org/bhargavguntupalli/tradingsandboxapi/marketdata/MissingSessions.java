@@ -0,0 +1,85 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tracks which sessions of a window still need a bar, as a bitset over the
+ * window's sorted session list, and coalesces them into contiguous date ranges
+ * so only the holes are requested upstream.
+ */
+public class MissingSessions {
+
+    public record Range(LocalDate start, LocalDate end) {}
+
+    private final List<LocalDate> sessions;
+    private final BitSet missing;
+
+    /** All of {@code sessions} (sorted ascending) start out missing. */
+    public MissingSessions(List<LocalDate> sessions) {
+        this.sessions = sessions;
+        this.missing = new BitSet(sessions.size());
+        this.missing.set(0, sessions.size());
+    }
+
+    public void markPresent(Collection<LocalDate> dates) {
+        dates.forEach(this::markPresent);
+    }
+
+    /** Returns {@code true} if {@code date} was still missing. */
+    public boolean markPresent(LocalDate date) {
+        int i = Collections.binarySearch(sessions, date);
+        if (i < 0 || !missing.get(i)) {
+            return false;
+        }
+        missing.clear(i);
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return missing.isEmpty();
+    }
+
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>(missing.cardinality());
+        for (int i = missing.nextSetBit(0); i >= 0; i = missing.nextSetBit(i + 1)) {
+            dates.add(sessions.get(i));
+        }
+        return dates;
+    }
+
+    /**
+     * Contiguous runs of missing sessions. When there are more than {@code maxRanges},
+     * the runs separated by the fewest already-present sessions are merged, trading a
+     * little extra payload for fewer upstream requests.
+     */
+    public List<Range> ranges(int maxRanges) {
+        List<int[]> runs = new ArrayList<>();
+        for (int from = missing.nextSetBit(0); from >= 0; ) {
+            int to = missing.nextClearBit(from);
+            runs.add(new int[]{from, to - 1});
+            from = missing.nextSetBit(to);
+        }
+
+        while (runs.size() > Math.max(1, maxRanges)) {
+            int best = 0;
+            int bestGap = Integer.MAX_VALUE;
+            for (int i = 0; i + 1 < runs.size(); i++) {
+                int gap = runs.get(i + 1)[0] - runs.get(i)[1];
+                if (gap < bestGap) {
+                    bestGap = gap;
+                    best = i;
+                }
+            }
+            runs.get(best)[1] = runs.remove(best + 1)[1];
+        }
+
+        return runs.stream()
+                .map(r -> new Range(sessions.get(r[0]), sessions.get(r[1])))
+                .toList();
+    }
+}
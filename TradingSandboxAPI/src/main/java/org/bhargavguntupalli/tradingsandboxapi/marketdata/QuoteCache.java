@@ -0,0 +1,185 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of latest-trade quotes keyed by symbol.
+ * Concurrent misses for the same symbol share one in-flight upstream load,
+ * and quotes live longer while the market is closed.
+ */
+@Component
+public class QuoteCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<TradeResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final long openTtlMs;
+    private final long closedTtlMs;
+    private final Clock clock;
+    private final MarketClock marketClock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer loadTimer;
+
+    @Autowired
+    public QuoteCache(MeterRegistry registry,
+                      MarketClock marketClock,
+                      @Value("${market-data.quote-cache.max-entries:5000}") int maxEntries,
+                      @Value("${market-data.quote-cache.open-ttl-ms:5000}") long openTtlMs,
+                      @Value("${market-data.quote-cache.closed-ttl-ms:600000}") long closedTtlMs) {
+        this(registry, marketClock, maxEntries, openTtlMs, closedTtlMs, Clock.systemUTC());
+    }
+
+    QuoteCache(MeterRegistry registry, MarketClock marketClock,
+               int maxEntries, long openTtlMs, long closedTtlMs, Clock clock) {
+        this.marketClock = marketClock;
+        this.maxEntries = maxEntries;
+        this.openTtlMs = openTtlMs;
+        this.closedTtlMs = closedTtlMs;
+        this.clock = clock;
+
+        this.hits = Counter.builder("quote.cache.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("quote.cache.requests").tag("result", "miss").register(registry);
+        this.loadTimer = Timer.builder("quote.cache.load").register(registry);
+        Gauge.builder("quote.cache.size", entries, Map::size).register(registry);
+    }
+
+    /**
+     * Returns the cached quote for {@code symbol}, loading it with {@code loader} on a miss.
+     * A {@code null} result from the loader is handed back to every waiter but never cached.
+     */
+    public TradeResponseDto get(String symbol, Function<String, TradeResponseDto> loader) {
+        Entry cached = entries.get(symbol);
+        if (cached != null && cached.expiresAt > clock.millis()) {
+            hits.increment();
+            return cached.quote;
+        }
+        misses.increment();
+
+        CompletableFuture<TradeResponseDto> mine = new CompletableFuture<>();
+        CompletableFuture<TradeResponseDto> existing = inFlight.putIfAbsent(symbol, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            // another load may have finished between our miss and winning the slot
+            Entry loaded = entries.get(symbol);
+            if (loaded != null && loaded.expiresAt > clock.millis()) {
+                mine.complete(loaded.quote);
+                return loaded.quote;
+            }
+            long start = System.nanoTime();
+            TradeResponseDto quote = loader.apply(symbol);
+            loadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (quote != null) {
+                put(symbol, quote);
+            }
+            mine.complete(quote);
+            return quote;
+        } catch (Throwable e) {
+            // an Error too, or the waiters joined on this load would never wake
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(symbol, mine);
+        }
+    }
+
+    /** Returns the cached quote for {@code symbol}, or {@code null} if absent or expired. */
+    public TradeResponseDto getIfPresent(String symbol) {
+        Entry cached = entries.get(symbol);
+        if (cached != null && cached.expiresAt > clock.millis()) {
+            hits.increment();
+            return cached.quote;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String symbol, TradeResponseDto quote) {
+        long now = clock.millis();
+        entries.put(symbol, new Entry(quote, expiresAt(now)));
+        if (entries.size() > maxEntries) {
+            evict(now);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private long expiresAt(long now) {
+        // quotes live longer outside market hours
+        MarketStatusDto status = marketClock.at(now);
+        if (status == null || status.isOpen()) {
+            return now + openTtlMs;
+        }
+        long expires = now + closedTtlMs;
+        if (status.getNextOpen() != null) {
+            // never carry a closed-market quote past the opening bell
+            expires = Math.min(expires, status.getNextOpen().toInstant().toEpochMilli());
+        }
+        return Math.max(expires, now + openTtlMs);
+    }
+
+    private synchronized void evict(long now) {
+        entries.values().removeIf(e -> e.expiresAt <= now);
+        while (entries.size() > maxEntries) {
+            String oldest = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().expiresAt < oldestExpiry) {
+                    oldestExpiry = e.getValue().expiresAt;
+                    oldest = e.getKey();
+                }
+            }
+            if (oldest == null) {
+                return;
+            }
+            entries.remove(oldest);
+        }
+    }
+
+    private static TradeResponseDto await(CompletableFuture<TradeResponseDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            if (e.getCause() instanceof Error err) {
+                throw err;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final TradeResponseDto quote;
+        final long expiresAt;
+
+        Entry(TradeResponseDto quote, long expiresAt) {
+            this.quote = quote;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
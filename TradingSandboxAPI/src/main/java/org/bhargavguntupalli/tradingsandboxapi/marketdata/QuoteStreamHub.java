@@ -0,0 +1,250 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live quotes over Server-Sent Events. A single poller refreshes the union of
+ * every subscriber's symbols in batch calls each tick and fans the result
+ * out, so upstream load follows distinct symbols rather than open tabs. Each
+ * subscriber only ever has the latest quote per symbol queued: a slow client
+ * skips intermediate ticks instead of building a backlog.
+ */
+@Component
+public class QuoteStreamHub implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(QuoteStreamHub.class);
+
+    private final DailyPriceService dailyPriceService;
+    private final Executor sender;
+    private final ExecutorService ownedSender;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long heartbeatMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Counter dropped;
+
+    @Autowired
+    public QuoteStreamHub(DailyPriceService dailyPriceService,
+                          MeterRegistry registry,
+                          @Value("${market-data.quote-stream.max-subscribers:1000}") int maxSubscribers,
+                          @Value("${market-data.quote-stream.timeout-ms:1800000}") long timeoutMs,
+                          @Value("${market-data.quote-stream.heartbeat-ms:15000}") long heartbeatMs,
+                          @Value("${market-data.quote-stream.sender-threads:4}") int senderThreads) {
+        this(dailyPriceService, registry, maxSubscribers, timeoutMs, heartbeatMs, newSender(senderThreads));
+    }
+
+    QuoteStreamHub(DailyPriceService dailyPriceService, MeterRegistry registry,
+                   int maxSubscribers, long timeoutMs, long heartbeatMs, Executor sender) {
+        this.dailyPriceService = dailyPriceService;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatMs = heartbeatMs;
+        this.sender = sender;
+        this.ownedSender = sender instanceof ExecutorService es ? es : null;
+
+        this.dropped = Counter.builder("quote.stream.dropped").register(registry);
+        Gauge.builder("quote.stream.subscribers", subscribers, Set::size).register(registry);
+    }
+
+    /**
+     * Opens a stream of {@code quote} events for {@code symbols}, or returns
+     * {@code null} if the hub is already at its subscriber limit.
+     */
+    public SseEmitter subscribe(Collection<String> symbols) {
+        if (subscribers.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(symbols, emitter);
+        return emitter;
+    }
+
+    void register(Collection<String> symbols, SseEmitter emitter) {
+        Set<String> normalized = new TreeSet<>();
+        for (String raw : symbols) {
+            if (raw != null && !raw.isBlank()) {
+                normalized.add(raw.trim().toUpperCase());
+            }
+        }
+        Subscriber subscriber = new Subscriber(normalized, emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /** Adds {@code listener}'s symbols to every poll and hands it each tick. */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /** Batched upstream round trips for every symbol anyone is watching, then fan out. */
+    @Scheduled(fixedDelayString = "${market-data.quote-stream.interval-ms:5000}")
+    public void poll() {
+        Set<String> union = new TreeSet<>();
+        subscribers.forEach(s -> union.addAll(s.symbols));
+        listeners.forEach(l -> union.addAll(l.watchedSymbols()));
+        if (union.isEmpty()) {
+            return;
+        }
+
+        // in batches the upstream route accepts; a failed batch only costs its own symbols this tick.
+        // Every tick goes upstream: the quote cache's TTL is as long as the poll interval, and the order
+        // triggers listening here need fresh prices, so we refresh the cache rather than read from it.
+        // Its own priority keeps chart traffic being shed from holding the stream back.
+        Map<String, TradeResponseDto> quotes = new HashMap<>();
+        List<String> symbols = new ArrayList<>(union);
+        for (int from = 0; from < symbols.size(); from += DailyPriceService.MAX_BATCH_SYMBOLS) {
+            List<String> batch = symbols.subList(from, Math.min(from + DailyPriceService.MAX_BATCH_SYMBOLS, symbols.size()));
+            try {
+                quotes.putAll(UpstreamPriority.STREAM.call(() -> dailyPriceService.refreshLatestTrades(batch)));
+            } catch (RuntimeException e) {
+                log.debug("Quote stream poll failed: {}", e.getMessage());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(quotes, now);
+        }
+        for (Listener listener : listeners) {
+            try {
+                listener.onQuotes(quotes);
+            } catch (RuntimeException e) {
+                log.warn("Quote stream listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.forEach(s -> s.emitter.complete());
+        subscribers.clear();
+        if (ownedSender != null) {
+            ownedSender.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newSender(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "quote-stream-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final class Subscriber {
+        final Set<String> symbols;
+        final SseEmitter emitter;
+
+        // latest undelivered quote per symbol; a newer tick overwrites an older one
+        final ConcurrentHashMap<String, TradeResponseDto> pending = new ConcurrentHashMap<>();
+        final Map<String, TradeResponseDto> lastSent = new ConcurrentHashMap<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long lastWriteAt = System.currentTimeMillis();
+        volatile boolean heartbeatDue;
+
+        Subscriber(Set<String> symbols, SseEmitter emitter) {
+            this.symbols = symbols;
+            this.emitter = emitter;
+        }
+
+        void offer(Map<String, TradeResponseDto> quotes, long now) {
+            for (String symbol : symbols) {
+                TradeResponseDto quote = quotes.get(symbol);
+                if (quote == null || Objects.equals(lastSent.get(symbol), quote)) {
+                    continue;
+                }
+                if (pending.put(symbol, quote) != null) {
+                    dropped.increment();
+                }
+            }
+            if (pending.isEmpty() && now - lastWriteAt >= heartbeatMs) {
+                // quiet market: keep proxies from idling the connection out and notice dead clients
+                heartbeatDue = true;
+            }
+            if (!pending.isEmpty() || heartbeatDue) {
+                schedule();
+            }
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                for (String symbol : pending.keySet()) {
+                    TradeResponseDto quote = pending.remove(symbol);
+                    if (quote != null) {
+                        emitter.send(SseEmitter.event().name("quote").id(symbol).data(new QuoteEvent(symbol, quote)));
+                        lastSent.put(symbol, quote);
+                    }
+                }
+                if (heartbeatDue) {
+                    heartbeatDue = false;
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+                lastWriteAt = System.currentTimeMillis();
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // a tick may have landed while we were writing
+            if (!pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    /** Something other than an SSE client that wants the shared poller's ticks. */
+    public interface Listener {
+        Set<String> watchedSymbols();
+
+        void onQuotes(Map<String, TradeResponseDto> quotes);
+    }
+
+    /** Payload of a {@code quote} event. */
+    public record QuoteEvent(String symbol, TradeResponseDto quote) {}
+}
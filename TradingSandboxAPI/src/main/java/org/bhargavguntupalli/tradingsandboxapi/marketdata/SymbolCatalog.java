@@ -0,0 +1,99 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.StockSuggestionDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The tradable-asset catalog and its {@link SymbolIndex}. Refreshed wholesale
+ * from upstream on a schedule; searches read whichever index was built last.
+ * Symbols upstream has confirmed unknown are remembered for a while so repeated
+ * typos don't each cost a round trip.
+ */
+@Component
+public class SymbolCatalog {
+
+    private static final int MAX_UNKNOWN = 10_000;
+
+    private volatile SymbolIndex index = SymbolIndex.EMPTY;
+    private final ConcurrentHashMap<String, Long> unknown = new ConcurrentHashMap<>();
+
+    private final long unknownTtlMs;
+    private final Clock clock;
+
+    @Autowired
+    public SymbolCatalog(@Value("${market-data.symbol-catalog.unknown-ttl-ms:600000}") long unknownTtlMs) {
+        this(unknownTtlMs, Clock.systemUTC());
+    }
+
+    SymbolCatalog(long unknownTtlMs, Clock clock) {
+        this.unknownTtlMs = unknownTtlMs;
+        this.clock = clock;
+    }
+
+    /** Rebuilds the index from a freshly fetched catalog; an empty catalog is ignored. */
+    public void update(List<StockSuggestionDto> assets) {
+        if (assets == null || assets.isEmpty()) {
+            return;
+        }
+        this.index = new SymbolIndex(assets);
+        // a new listing may have been one of them
+        unknown.clear();
+    }
+
+    public boolean isLoaded() {
+        return index.size() > 0;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public List<StockSuggestionDto> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public boolean contains(String symbol) {
+        return index.contains(symbol);
+    }
+
+    /** The catalog entry for exactly {@code symbol}, or {@code null} if it isn't listed. */
+    public StockSuggestionDto get(String symbol) {
+        return index.get(symbol);
+    }
+
+    /** Remembers that upstream doesn't know {@code symbol}. */
+    public void markUnknown(String symbol) {
+        long now = clock.millis();
+        if (unknown.size() >= MAX_UNKNOWN) {
+            unknown.values().removeIf(expiresAt -> expiresAt <= now);
+            if (unknown.size() >= MAX_UNKNOWN) {
+                unknown.clear();
+            }
+        }
+        unknown.put(key(symbol), now + unknownTtlMs);
+    }
+
+    /** Returns {@code true} if upstream recently confirmed {@code symbol} doesn't exist. */
+    public boolean isKnownUnknown(String symbol) {
+        Long expiresAt = unknown.get(key(symbol));
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= clock.millis()) {
+            unknown.remove(key(symbol), expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private static String key(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the {@link SymbolCatalog} at startup and refreshes it periodically;
+ * this is the only path by which symbol search touches upstream.
+ */
+@Component
+public class SymbolCatalogRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(SymbolCatalogRefresher.class);
+
+    private final DailyPriceService dailyPriceService;
+
+    public SymbolCatalogRefresher(DailyPriceService dailyPriceService) {
+        this.dailyPriceService = dailyPriceService;
+    }
+
+    @Scheduled(initialDelayString = "${market-data.symbol-catalog.initial-delay-ms:0}",
+               fixedDelayString = "${market-data.symbol-catalog.refresh-ms:21600000}")
+    public void refresh() {
+        try {
+            int size = UpstreamPriority.PREFETCH.call(dailyPriceService::refreshSymbolCatalog);
+            log.info("Symbol catalog refreshed: {} assets", size);
+        } catch (RuntimeException e) {
+            log.warn("Symbol catalog refresh failed: {}", e.getMessage());
+        }
+    }
+}
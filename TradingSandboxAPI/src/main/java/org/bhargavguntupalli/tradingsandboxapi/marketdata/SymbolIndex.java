@@ -0,0 +1,198 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.StockSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable search index over the tradable-asset catalog. Symbols go into a
+ * prefix trie whose nodes keep their best few entries precomputed; company
+ * names are indexed by word (for word-prefix matches) and by trigram (for
+ * substring matches). Results rank exact symbol, then symbol prefix, then name
+ * word prefix, then any substring, with shorter symbols first within a rank.
+ */
+public final class SymbolIndex {
+
+    /** Upper bound on results per query; also how many entries each trie node keeps. */
+    public static final int MAX_RESULTS = 50;
+
+    public static final SymbolIndex EMPTY = new SymbolIndex(List.of());
+
+    private static final int EXACT = 0;
+    private static final int SYMBOL_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private final StockSuggestionDto[] assets;
+    private final String[] symbols;
+    private final String[] names;
+    private final Map<String, StockSuggestionDto> bySymbol;
+    private final TrieNode root = new TrieNode();
+    private final String[] words;
+    private final int[][] wordPostings;
+    private final Map<String, int[]> trigrams;
+
+    public SymbolIndex(List<StockSuggestionDto> catalog) {
+        // ids are positions in rank order (shorter symbol, then alphabetical), so lower id = better
+        List<StockSuggestionDto> sorted = new ArrayList<>(catalog.stream()
+                .filter(a -> a.getSymbol() != null && !a.getSymbol().isBlank())
+                .toList());
+        sorted.sort(Comparator.comparingInt((StockSuggestionDto a) -> a.getSymbol().length())
+                .thenComparing(StockSuggestionDto::getSymbol));
+
+        int n = sorted.size();
+        this.assets = sorted.toArray(new StockSuggestionDto[0]);
+        this.symbols = new String[n];
+        this.names = new String[n];
+        this.bySymbol = new HashMap<>(n * 2);
+
+        TreeMap<String, List<Integer>> wordIds = new TreeMap<>();
+        Map<String, List<Integer>> trigramIds = new HashMap<>();
+        for (int id = 0; id < n; id++) {
+            symbols[id] = normalize(assets[id].getSymbol());
+            names[id] = assets[id].getName() != null ? normalize(assets[id].getName()) : "";
+
+            bySymbol.putIfAbsent(symbols[id], assets[id]);
+            insert(symbols[id], id);
+            for (String word : names[id].split("[^A-Z0-9]+")) {
+                if (!word.isEmpty()) {
+                    addPosting(wordIds, word, id);
+                }
+            }
+            for (int i = 0; i + 3 <= names[id].length(); i++) {
+                addPosting(trigramIds, names[id].substring(i, i + 3), id);
+            }
+        }
+
+        this.words = wordIds.keySet().toArray(new String[0]);
+        this.wordPostings = wordIds.values().stream().map(SymbolIndex::toArray).toArray(int[][]::new);
+        this.trigrams = new HashMap<>(trigramIds.size() * 2);
+        trigramIds.forEach((k, v) -> trigrams.put(k, toArray(v)));
+    }
+
+    public int size() {
+        return assets.length;
+    }
+
+    /** Returns {@code true} if {@code symbol} is in the catalog. */
+    public boolean contains(String symbol) {
+        return bySymbol.containsKey(normalize(symbol));
+    }
+
+    /** The catalog entry for exactly {@code symbol}, or {@code null} if there is none. */
+    public StockSuggestionDto get(String symbol) {
+        return bySymbol.get(normalize(symbol));
+    }
+
+    public List<StockSuggestionDto> search(String query, int limit) {
+        String q = normalize(query);
+        int max = Math.min(Math.max(limit, 0), MAX_RESULTS);
+        if (q.isEmpty() || max == 0) {
+            return List.of();
+        }
+
+        // best rank seen per id; ids are already ordered by symbol length/alphabet
+        Map<Integer, Integer> ranks = new HashMap<>();
+
+        TrieNode node = find(q);
+        if (node != null) {
+            for (int i = 0; i < node.bestCount; i++) {
+                int id = node.best[i];
+                ranks.merge(id, symbols[id].equals(q) ? EXACT : SYMBOL_PREFIX, Math::min);
+            }
+        }
+
+        // name words starting with the query
+        int from = lowerBound(words, q);
+        for (int w = from; w < words.length && words[w].startsWith(q) && ranks.size() < 4 * MAX_RESULTS; w++) {
+            for (int id : wordPostings[w]) {
+                ranks.merge(id, WORD_PREFIX, Math::min);
+            }
+        }
+
+        // anywhere in the name, via trigram candidates
+        if (q.length() >= 3 && ranks.size() < max) {
+            BitSet candidates = null;
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                int[] posting = trigrams.get(q.substring(i, i + 3));
+                if (posting == null) {
+                    candidates = new BitSet();
+                    break;
+                }
+                BitSet ids = new BitSet();
+                for (int id : posting) {
+                    ids.set(id);
+                }
+                if (candidates == null) {
+                    candidates = ids;
+                } else {
+                    candidates.and(ids);
+                }
+            }
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                if (names[id].contains(q)) {
+                    ranks.merge(id, SUBSTRING, Math::min);
+                }
+            }
+        }
+
+        return ranks.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(max)
+                .map(e -> assets[e.getKey()])
+                .toList();
+    }
+
+    private void insert(String symbol, int id) {
+        TrieNode node = root;
+        for (int i = 0; i < symbol.length(); i++) {
+            node = node.children.computeIfAbsent(symbol.charAt(i), c -> new TrieNode());
+            // ids arrive in rank order, so the first MAX_RESULTS are the best under this prefix
+            if (node.bestCount < MAX_RESULTS) {
+                node.best[node.bestCount++] = id;
+            }
+        }
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private static int lowerBound(String[] sorted, String key) {
+        int i = Arrays.binarySearch(sorted, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static void addPosting(Map<String, List<Integer>> index, String key, int id) {
+        List<Integer> ids = index.computeIfAbsent(key, k -> new ArrayList<>());
+        if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+            ids.add(id);
+        }
+    }
+
+    private static int[] toArray(List<Integer> ids) {
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static final class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>(4);
+        final int[] best = new int[MAX_RESULTS];
+        int bestCount;
+    }
+}
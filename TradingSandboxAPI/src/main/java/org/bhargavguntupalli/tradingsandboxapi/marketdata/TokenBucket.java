@@ -0,0 +1,76 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.time.Clock;
+
+/**
+ * Token bucket for one upstream route with priority-aware acquisition: a
+ * caller only takes a token if that leaves its class's reserved share for
+ * higher classes, and never while a higher class is waiting.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerMs;
+    private final Clock clock;
+    private final int[] waiting = new int[UpstreamPriority.values().length];
+
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerMinute, Clock clock) {
+        this.capacity = capacity;
+        this.refillPerMs = refillPerMinute / 60_000d;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.millis();
+    }
+
+    /** Takes a token, waiting up to {@code maxWaitMs}; {@code false} if none could be had in time. */
+    synchronized boolean tryAcquire(UpstreamPriority priority, long maxWaitMs) throws InterruptedException {
+        long deadline = clock.millis() + maxWaitMs;
+        double floor = capacity * priority.getReservedShare();
+        waiting[priority.ordinal()]++;
+        try {
+            while (true) {
+                refill();
+                if (tokens - 1 >= floor && !higherWaiting(priority)) {
+                    tokens -= 1;
+                    return true;
+                }
+                long remaining = deadline - clock.millis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                long untilToken = (long) Math.ceil((floor + 1 - tokens) / refillPerMs);
+                wait(Math.max(1, Math.min(remaining, untilToken)));
+            }
+        } finally {
+            waiting[priority.ordinal()]--;
+            // let lower classes re-check now that we're no longer ahead of them
+            notifyAll();
+        }
+    }
+
+    synchronized int waiting() {
+        int total = 0;
+        for (int w : waiting) {
+            total += w;
+        }
+        return total;
+    }
+
+    private boolean higherWaiting(UpstreamPriority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refill() {
+        long now = clock.millis();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+        lastRefill = now;
+    }
+}
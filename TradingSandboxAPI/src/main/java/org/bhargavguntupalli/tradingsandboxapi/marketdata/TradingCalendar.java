@@ -0,0 +1,141 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * NYSE trading calendar: weekends plus the holidays and early closes listed in
+ * a CSV generated offline by {@code DataAcquisition/src/gen_calendar.py}.
+ * The file is re-read periodically so it can be updated without a restart.
+ */
+@Component
+public class TradingCalendar {
+
+    public static final ZoneId EXCHANGE_ZONE = ZoneId.of("America/New_York");
+    private static final LocalTime REGULAR_CLOSE = LocalTime.of(16, 0);
+
+    private static final Logger log = LoggerFactory.getLogger(TradingCalendar.class);
+
+    private final Resource location;
+    private final Clock clock;
+
+    private volatile Exceptions exceptions;
+
+    @Autowired
+    public TradingCalendar(
+            @Value("${market-data.trading-calendar.location:classpath:calendar/nyse-calendar.csv}") Resource location) {
+        this(location, Clock.systemUTC());
+    }
+
+    TradingCalendar(Resource location, Clock clock) {
+        this.location = location;
+        this.clock = clock;
+        this.exceptions = load(location);
+    }
+
+    @Scheduled(initialDelayString = "${market-data.trading-calendar.refresh-ms:86400000}",
+               fixedDelayString = "${market-data.trading-calendar.refresh-ms:86400000}")
+    public void reload() {
+        try {
+            this.exceptions = load(location);
+        } catch (IllegalStateException e) {
+            // keep serving the calendar we already have
+            log.warn("Trading calendar reload failed: {}", e.getMessage());
+        }
+    }
+
+    public boolean isTradingDay(LocalDate date) {
+        DayOfWeek dow = date.getDayOfWeek();
+        return dow != DayOfWeek.SATURDAY && dow != DayOfWeek.SUNDAY && !exceptions.closed.contains(date);
+    }
+
+    /** Exchange-local close time for {@code date}, accounting for early closes. */
+    public LocalTime closeTime(LocalDate date) {
+        return exceptions.earlyCloses.getOrDefault(date, REGULAR_CLOSE);
+    }
+
+    /** All trading sessions between {@code start} and {@code end}, inclusive. */
+    public List<LocalDate> sessionsBetween(LocalDate start, LocalDate end) {
+        List<LocalDate> sessions = new ArrayList<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (isTradingDay(d)) {
+                sessions.add(d);
+            }
+        }
+        return sessions;
+    }
+
+    public LocalDate previousSession(LocalDate date) {
+        LocalDate d = date.minusDays(1);
+        while (!isTradingDay(d)) {
+            d = d.minusDays(1);
+        }
+        return d;
+    }
+
+    /** The most recent session whose closing bell has already rung. */
+    public LocalDate lastCompletedSession() {
+        return lastCompletedSession(clock.instant());
+    }
+
+    public LocalDate lastCompletedSession(Instant instant) {
+        ZonedDateTime now = instant.atZone(EXCHANGE_ZONE);
+        LocalDate today = now.toLocalDate();
+        if (isTradingDay(today) && !now.toLocalTime().isBefore(closeTime(today))) {
+            return today;
+        }
+        return previousSession(today);
+    }
+
+    private static Exceptions load(Resource location) {
+        Set<LocalDate> closed = new HashSet<>();
+        Map<LocalDate, LocalTime> earlyCloses = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(location.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // date,status,close_time,description
+                String[] cols = line.split(",", 4);
+                if (line.isBlank() || cols[0].equals("date")) {
+                    continue;
+                }
+                LocalDate date = LocalDate.parse(cols[0].trim());
+                switch (cols[1].trim()) {
+                    case "CLOSED" -> closed.add(date);
+                    case "EARLY_CLOSE" -> earlyCloses.put(date, LocalTime.parse(cols[2].trim()));
+                    default -> throw new IllegalStateException("Unknown calendar status: " + cols[1]);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Failed to load trading calendar from " + location, e);
+        }
+
+        return new Exceptions(Set.copyOf(closed), Map.copyOf(earlyCloses));
+    }
+
+    private record Exceptions(Set<LocalDate> closed, Map<LocalDate, LocalTime> earlyCloses) {}
+}
@@ -0,0 +1,98 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side mirror of the per-route rate limits DataAcquisition enforces with
+ * slowapi, so we shed our own low-priority calls instead of having upstream
+ * reject trade-critical ones. Each route gets a token bucket whose burst plus
+ * one minute of refill stays within the upstream per-minute limit.
+ */
+@Component
+public class UpstreamBudget {
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final MeterRegistry registry;
+    private final int barsPerMinute;
+    private final int assetsPerMinute;
+    private final int defaultPerMinute;
+    private final int burst;
+    private final Clock clock;
+
+    @Autowired
+    public UpstreamBudget(MeterRegistry registry,
+                          @Value("${market-data.budget.bars-per-minute:20}") int barsPerMinute,
+                          @Value("${market-data.budget.assets-per-minute:5}") int assetsPerMinute,
+                          @Value("${market-data.budget.default-per-minute:30}") int defaultPerMinute,
+                          @Value("${market-data.budget.burst:5}") int burst) {
+        this(registry, barsPerMinute, assetsPerMinute, defaultPerMinute, burst, Clock.systemUTC());
+    }
+
+    UpstreamBudget(MeterRegistry registry, int barsPerMinute, int assetsPerMinute, int defaultPerMinute, int burst,
+                   Clock clock) {
+        this.registry = registry;
+        this.barsPerMinute = barsPerMinute;
+        this.assetsPerMinute = assetsPerMinute;
+        this.defaultPerMinute = defaultPerMinute;
+        this.burst = burst;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token for {@code route} at {@code priority}, waiting up to that
+     * class's limit, or throws {@link UpstreamBudgetExceededException}.
+     */
+    public void acquire(String route, UpstreamPriority priority) {
+        TokenBucket bucket = bucket(route);
+        long start = System.nanoTime();
+        boolean granted;
+        try {
+            granted = bucket.tryAcquire(priority, priority.getMaxWaitMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            granted = false;
+        }
+        Timer.builder("market.data.budget.wait")
+                .tag("route", route)
+                .tag("priority", priority.name())
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!granted) {
+            Counter.builder("market.data.budget.shed")
+                    .tag("route", route)
+                    .tag("priority", priority.name())
+                    .register(registry)
+                    .increment();
+            throw new UpstreamBudgetExceededException(route, priority);
+        }
+    }
+
+    private TokenBucket bucket(String route) {
+        return buckets.computeIfAbsent(route, r -> {
+            int perMinute = switch (r) {
+                case "bars" -> barsPerMinute;
+                case "assets" -> assetsPerMinute;
+                default -> defaultPerMinute;
+            };
+            // at most half the limit up front, so even a tight route keeps some refill
+            int capacity = Math.min(burst, Math.max(1, perMinute / 2));
+            TokenBucket bucket = new TokenBucket(capacity, perMinute - capacity, clock);
+            Gauge.builder("market.data.budget.queue", bucket, TokenBucket::waiting)
+                    .tag("route", r)
+                    .register(registry);
+            return bucket;
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** A FastAPI call was shed because its route's request budget is spent. */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class UpstreamBudgetExceededException extends RuntimeException {
+
+    public UpstreamBudgetExceededException(String route, UpstreamPriority priority) {
+        super("Market data request budget for '" + route + "' exhausted (" + priority + " priority); try again shortly");
+    }
+}
@@ -0,0 +1,56 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority classes for FastAPI calls, highest first. Each class leaves a share
+ * of every route's token bucket to the classes above it and waits at most
+ * {@code maxWaitMs} for a token before the call is shed.
+ */
+public enum UpstreamPriority {
+    TRADE(0.0, 3000),
+    PORTFOLIO(0.1, 1000),
+    STREAM(0.15, 1000),
+    CHART(0.2, 500),
+    SEARCH(0.3, 0),
+    PREFETCH(0.5, 0);
+
+    private static final ThreadLocal<UpstreamPriority> CURRENT = new ThreadLocal<>();
+
+    private final double reservedShare;
+    private final long maxWaitMs;
+
+    UpstreamPriority(double reservedShare, long maxWaitMs) {
+        this.reservedShare = reservedShare;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /** Share of a bucket's capacity this class may not dip into. */
+    public double getReservedShare() {
+        return reservedShare;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    /** Runs {@code work} with every FastAPI call it makes on this thread at this priority. */
+    public <T> T call(Supplier<T> work) {
+        UpstreamPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /** The priority set by an enclosing {@link #call}, or {@code null}. */
+    public static UpstreamPriority current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,5 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+public enum BasketMode {
+    ALL_OR_NOTHING, BEST_EFFORT
+}
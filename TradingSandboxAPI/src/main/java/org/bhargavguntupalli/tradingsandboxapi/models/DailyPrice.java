@@ -22,6 +22,24 @@ public class DailyPrice {
     @Column(nullable = false, precision = 19, scale = 4)
     private BigDecimal closingPrice;
 
+    // Rest of the bar; null for rows stored before full bars were kept
+    @Column(name = "open_price", precision = 19, scale = 4)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", precision = 19, scale = 4)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", precision = 19, scale = 4)
+    private BigDecimal lowPrice;
+
+    private Long volume;
+
+    @Column(name = "trade_count")
+    private Long tradeCount;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal vwap;
+
     protected DailyPrice() {}
 
     public DailyPrice(DailyPriceId id, BigDecimal closingPrice) {
@@ -29,8 +47,25 @@ public class DailyPrice {
         this.closingPrice = closingPrice;
     }
 
+    public DailyPrice(DailyPriceId id, BigDecimal openPrice, BigDecimal highPrice, BigDecimal lowPrice,
+                      BigDecimal closingPrice, Long volume, Long tradeCount, BigDecimal vwap) {
+        this(id, closingPrice);
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.volume = volume;
+        this.tradeCount = tradeCount;
+        this.vwap = vwap;
+    }
+
     public DailyPriceId getId() { return id; }
     public BigDecimal getClosingPrice() { return closingPrice; }
+    public BigDecimal getOpenPrice() { return openPrice; }
+    public BigDecimal getHighPrice() { return highPrice; }
+    public BigDecimal getLowPrice() { return lowPrice; }
+    public Long getVolume() { return volume; }
+    public Long getTradeCount() { return tradeCount; }
+    public BigDecimal getVwap() { return vwap; }
 
     public String getSymbol() { return id.getSymbol(); }
     public LocalDate getDate()    { return id.getDate(); }
@@ -0,0 +1,38 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Negative cache entry: a trading session for which upstream has no daily bar
+ * for this symbol (halted, not yet listed, ...), so it is not fetched again
+ * until the entry expires.
+ */
+@Entity
+@Table(name = "daily_price_gaps")
+public class DailyPriceGap {
+
+    @EmbeddedId
+    private DailyPriceId id;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    protected DailyPriceGap() {}
+
+    public DailyPriceGap(DailyPriceId id, Instant expiresAt) {
+        this.id = id;
+        this.expiresAt = expiresAt;
+    }
+
+    public DailyPriceId getId() { return id; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public String getSymbol() { return id.getSymbol(); }
+    public LocalDate getDate()    { return id.getDate(); }
+}
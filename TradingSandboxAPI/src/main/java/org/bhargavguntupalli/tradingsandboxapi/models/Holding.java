@@ -31,4 +31,10 @@ public class Holding {
     @Getter @Setter
     @Column(name = "average_cost", nullable = false, precision = 19, scale = 4)
     private BigDecimal averageCost;
+
+    // two writers to the same position: the later commit fails rather than overwriting
+    @Getter
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,84 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One stored bar. Its key is assigned rather than generated, so it reports itself
+ * new until persisted or loaded; otherwise saveAll would merge, selecting every
+ * bar before inserting it and defeating JDBC batching.
+ */
+@Entity
+@Table(name = "intraday_bars")
+public class IntradayBar implements Persistable<IntradayBarId> {
+
+    @EmbeddedId
+    private IntradayBarId id;
+
+    @Column(name = "open_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", nullable = false, precision = 19, scale = 4)
+    private BigDecimal closePrice;
+
+    @Column(nullable = false)
+    private long volume;
+
+    @Column(name = "trade_count", nullable = false)
+    private long tradeCount;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal vwap;
+
+    @Transient
+    private boolean isNew = true;
+
+    protected IntradayBar() {}
+
+    public IntradayBar(IntradayBarId id, BigDecimal openPrice, BigDecimal highPrice, BigDecimal lowPrice,
+                       BigDecimal closePrice, long volume, long tradeCount, BigDecimal vwap) {
+        this.id = id;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.closePrice = closePrice;
+        this.volume = volume;
+        this.tradeCount = tradeCount;
+        this.vwap = vwap;
+    }
+
+    @Override
+    public IntradayBarId getId() { return id; }
+    public BigDecimal getOpenPrice() { return openPrice; }
+    public BigDecimal getHighPrice() { return highPrice; }
+    public BigDecimal getLowPrice() { return lowPrice; }
+    public BigDecimal getClosePrice() { return closePrice; }
+    public long getVolume() { return volume; }
+    public long getTradeCount() { return tradeCount; }
+    public BigDecimal getVwap() { return vwap; }
+
+    public String getSymbol() { return id.getSymbol(); }
+    public Instant getTimestamp() { return id.getTimestamp(); }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PrePersist
+    void markNotNew() { isNew = false; }
+}
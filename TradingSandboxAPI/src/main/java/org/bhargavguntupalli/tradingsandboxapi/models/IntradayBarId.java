@@ -0,0 +1,49 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+@Embeddable
+public class IntradayBarId implements Serializable {
+    private String symbol;
+
+    @Column(length = 10)
+    private String timeframe;
+
+    // bar start time
+    private Instant timestamp;
+
+    // default constructor for JPA
+    protected IntradayBarId() {}
+
+    public IntradayBarId(String symbol, String timeframe, Instant timestamp) {
+        this.symbol    = symbol;
+        this.timeframe = timeframe;
+        this.timestamp = timestamp;
+    }
+
+    // getters
+    public String getSymbol() { return symbol; }
+    public String getTimeframe() { return timeframe; }
+    public Instant getTimestamp() { return timestamp; }
+
+    // equals & hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntradayBarId)) return false;
+        IntradayBarId that = (IntradayBarId) o;
+        return Objects.equals(symbol, that.symbol) &&
+                Objects.equals(timeframe, that.timeframe) &&
+                Objects.equals(timestamp, that.timestamp);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(symbol, timeframe, timestamp);
+    }
+}
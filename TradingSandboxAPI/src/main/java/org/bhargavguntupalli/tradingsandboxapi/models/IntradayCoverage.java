@@ -0,0 +1,45 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+
+/**
+ * Marks a completed session whose intraday bars for (symbol, timeframe) are
+ * fully stored in {@code intraday_bars}, so it can be served without upstream.
+ */
+@Entity
+@Table(name = "intraday_coverage",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"symbol", "timeframe", "session_date"}))
+public class IntradayCoverage {
+
+    @Id @GeneratedValue
+    private Long id;
+
+    @Column(nullable = false, length = 10)
+    private String symbol;
+
+    @Column(nullable = false, length = 10)
+    private String timeframe;
+
+    @Column(name = "session_date", nullable = false)
+    private LocalDate sessionDate;
+
+    protected IntradayCoverage() {}
+
+    public IntradayCoverage(String symbol, String timeframe, LocalDate sessionDate) {
+        this.symbol = symbol;
+        this.timeframe = timeframe;
+        this.sessionDate = sessionDate;
+    }
+
+    public Long getId() { return id; }
+    public String getSymbol() { return symbol; }
+    public String getTimeframe() { return timeframe; }
+    public LocalDate getSessionDate() { return sessionDate; }
+}
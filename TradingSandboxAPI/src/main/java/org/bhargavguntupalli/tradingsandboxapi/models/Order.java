@@ -0,0 +1,83 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A resting order. LIMIT fills once the price reaches {@code limitPrice}, STOP
+ * fills at market once it reaches {@code stopPrice}, and STOP_LIMIT becomes a
+ * limit order at {@code limitPrice} once its stop has been hit. MARKET_ON_OPEN
+ * is placed while the market is closed and fills at the next open.
+ */
+@Entity
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_created", columnList = "user_id, created_at DESC"),
+    @Index(name = "idx_orders_status_id", columnList = "status, id")
+})
+public class Order {
+
+    @Getter
+    @Id @GeneratedValue
+    private Long id;
+
+    @Getter @Setter
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Getter @Setter
+    @Column(nullable = false, length = 10)
+    private String symbol;
+
+    @Getter @Setter
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 4)
+    private TradeType side;
+
+    @Getter @Setter
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_type", nullable = false, length = 16)
+    private OrderType orderType;
+
+    @Getter @Setter
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal quantity;
+
+    @Getter @Setter
+    @Column(name = "limit_price", precision = 19, scale = 4)
+    private BigDecimal limitPrice;
+
+    @Getter @Setter
+    @Column(name = "stop_price", precision = 19, scale = 4)
+    private BigDecimal stopPrice;
+
+    // STOP_LIMIT only: the stop has been hit and the order now rests as a limit
+    @Getter @Setter
+    @Column(name = "stop_triggered", nullable = false)
+    private boolean stopTriggered;
+
+    @Getter @Setter
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private OrderStatus status;
+
+    @Getter @Setter
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Getter @Setter
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Getter @Setter
+    @Column(name = "trade_id")
+    private Long tradeId;
+
+    @Getter @Setter
+    @Column(name = "reject_reason")
+    private String rejectReason;
+}
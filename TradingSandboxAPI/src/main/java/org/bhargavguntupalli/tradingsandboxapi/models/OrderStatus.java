@@ -0,0 +1,5 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+public enum OrderStatus {
+    OPEN, FILLED, CANCELLED, REJECTED
+}
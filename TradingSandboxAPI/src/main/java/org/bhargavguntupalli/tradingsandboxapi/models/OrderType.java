@@ -0,0 +1,5 @@
+package org.bhargavguntupalli.tradingsandboxapi.models;
+
+public enum OrderType {
+    LIMIT, STOP, STOP_LIMIT, MARKET_ON_OPEN
+}
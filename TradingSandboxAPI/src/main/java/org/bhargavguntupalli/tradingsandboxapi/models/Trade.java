@@ -10,6 +10,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "trades", indexes = {
     @Index(name = "idx_trades_user_date", columnList = "user_id, executed_at DESC")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_trades_user_idempotency_key", columnNames = {"user_id", "idempotency_key"})
 })
 public class Trade {
 
@@ -46,4 +48,13 @@ public class Trade {
     @Getter @Setter
     @Column(name = "executed_at", nullable = false)
     private LocalDateTime executedAt;
+
+    @Getter @Setter
+    @Column(name = "remaining_cash_balance", precision = 19, scale = 4)
+    private BigDecimal remainingCashBalance;
+
+    // client-supplied Idempotency-Key; null for trades placed without one and for order fills
+    @Getter @Setter
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
 }
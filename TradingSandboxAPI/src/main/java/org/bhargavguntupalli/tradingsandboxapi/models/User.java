@@ -50,4 +50,10 @@ public class User {
     @Getter @Setter
     @Column(name = "cash_balance", nullable = false, precision = 19, scale = 4)
     private BigDecimal cashBalance = BigDecimal.valueOf(100000.00);
+
+    // bumped on every write; a concurrent update from another node fails instead of being lost
+    @Getter
+    @Version
+    @Column(nullable = false)
+    private long version;
 }
@@ -0,0 +1,70 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-memory projection of one account's cash and positions that a basket's
+ * trades are checked against in order, so the whole basket is validated before
+ * anything is written. Each accepted trade moves the projection the same way
+ * the database will.
+ */
+public class BasketPlan {
+
+    private BigDecimal cash;
+    private final Map<String, Lot> positions;
+
+    public BasketPlan(BigDecimal cash, Map<String, Lot> positions) {
+        this.cash = cash;
+        this.positions = new HashMap<>(positions);
+    }
+
+    /** Applies a trade to the projection; returns why it can't be made, or {@code null} if it was applied. */
+    public String apply(TradeType type, String symbol, BigDecimal quantity, BigDecimal price, BigDecimal totalCost) {
+        Lot lot = positions.get(symbol);
+        if (type == TradeType.BUY) {
+            if (cash.compareTo(totalCost) < 0) {
+                return "Insufficient funds. Required: $" + totalCost.setScale(2, RoundingMode.HALF_UP)
+                        + ", Available: $" + cash.setScale(2, RoundingMode.HALF_UP);
+            }
+            cash = cash.subtract(totalCost);
+            if (lot == null) {
+                positions.put(symbol, new Lot(quantity, price));
+            } else {
+                // same weighted average the holdings update writes, over the rounded total cost; a lot
+                // closed out earlier in the basket still has its row, so it's re-weighted too
+                BigDecimal combined = lot.quantity().add(quantity);
+                BigDecimal averageCost = lot.quantity().multiply(lot.averageCost()).add(totalCost)
+                        .divide(combined, 4, RoundingMode.HALF_UP);
+                positions.put(symbol, new Lot(combined, averageCost));
+            }
+            return null;
+        }
+
+        if (lot == null || lot.quantity().signum() == 0) {
+            return "You don't own any shares of " + symbol;
+        }
+        if (lot.quantity().compareTo(quantity) < 0) {
+            return "Insufficient shares. You own " + lot.quantity().setScale(2, RoundingMode.HALF_UP)
+                    + " shares of " + symbol;
+        }
+        cash = cash.add(totalCost);
+        positions.put(symbol, new Lot(lot.quantity().subtract(quantity), lot.averageCost()));
+        return null;
+    }
+
+    public BigDecimal cash() {
+        return cash;
+    }
+
+    /** The projected position in {@code symbol}; a zero quantity means it was closed out. */
+    public Lot position(String symbol) {
+        return positions.get(symbol);
+    }
+
+    public record Lot(BigDecimal quantity, BigDecimal averageCost) {}
+}
@@ -0,0 +1,92 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes each user's trade executions. Users hash onto a fixed set of fair
+ * lanes, so one account's orders apply one at a time and in arrival order while
+ * other accounts proceed in parallel. Only guards this node; the entity
+ * versions catch anything that races in from elsewhere.
+ */
+@Component
+public class ExecutionLanes {
+
+    private final ReentrantLock[] lanes;
+    private final long waitMs;
+    private final Timer waited;
+    private final Counter timedOut;
+
+    public ExecutionLanes(MeterRegistry registry,
+                          @Value("${orders.lanes.count:256}") int count,
+                          @Value("${orders.lanes.wait-ms:5000}") long waitMs) {
+        this.lanes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            lanes[i] = new ReentrantLock(true);
+        }
+        this.waitMs = waitMs;
+        this.waited = Timer.builder("trade.lane.wait").register(registry);
+        this.timedOut = Counter.builder("trade.lane.timeouts").register(registry);
+    }
+
+    /** Runs {@code task} in {@code username}'s lane. */
+    public <T> T run(String username, Supplier<T> task) {
+        ReentrantLock lane = lanes[lane(username)];
+        acquire(lane);
+        try {
+            return task.get();
+        } finally {
+            lane.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code task} holding the lanes of every user in {@code usernames}.
+     * Lanes are taken in index order so two batches can't deadlock.
+     */
+    public <T> T runAll(Collection<String> usernames, Supplier<T> task) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        usernames.forEach(u -> indexes.add(lane(u)));
+        ReentrantLock[] held = new ReentrantLock[indexes.size()];
+        int n = 0;
+        try {
+            for (int index : indexes) {
+                acquire(lanes[index]);
+                held[n++] = lanes[index];
+            }
+            return task.get();
+        } finally {
+            while (n > 0) {
+                held[--n].unlock();
+            }
+        }
+    }
+
+    int lane(String username) {
+        return Math.floorMod(username.hashCode(), lanes.length);
+    }
+
+    private void acquire(ReentrantLock lane) {
+        long start = System.nanoTime();
+        try {
+            if (!lane.tryLock(waitMs, TimeUnit.MILLISECONDS)) {
+                timedOut.increment();
+                throw new IllegalStateException("Another order for this account is still executing. Please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting to execute order", e);
+        } finally {
+            waited.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
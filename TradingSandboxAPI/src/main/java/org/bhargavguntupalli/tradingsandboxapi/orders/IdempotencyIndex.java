@@ -0,0 +1,67 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Recently used {@code Idempotency-Key}s and the trades they produced, so a
+ * client retry is answered from memory. Least recently used keys fall out
+ * first; the unique key column on {@code trades} remains the source of truth.
+ */
+@Component
+public class IdempotencyIndex {
+
+    private final Map<String, TradeResultDto> results;
+    private final Counter replays;
+
+    public IdempotencyIndex(MeterRegistry registry,
+                            @Value("${orders.idempotency.max-keys:10000}") int maxKeys) {
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TradeResultDto> eldest) {
+                return size() > maxKeys;
+            }
+        };
+        this.replays = Counter.builder("trade.idempotent.replays").register(registry);
+    }
+
+    /** The result already recorded for {@code key}, or {@code null}. */
+    public TradeResultDto get(String username, String key) {
+        TradeResultDto result;
+        synchronized (results) {
+            result = results.get(entry(username, key));
+        }
+        if (result != null) {
+            replays.increment();
+        }
+        return result;
+    }
+
+    public void put(String username, String key, TradeResultDto result) {
+        synchronized (results) {
+            results.put(entry(username, key), result);
+        }
+    }
+
+    /** Counts a replay answered from the database after the key fell out of memory. */
+    public void recordReplay() {
+        replays.increment();
+    }
+
+    int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    private static String entry(String username, String key) {
+        // keys are only unique per user
+        return username + '\n' + key;
+    }
+}
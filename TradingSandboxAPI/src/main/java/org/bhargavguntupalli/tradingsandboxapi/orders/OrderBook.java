@@ -0,0 +1,123 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Resting orders for one symbol, indexed by trigger level. Order ids are kept
+ * as primitive arrays per level so hundreds of thousands of orders stay cheap,
+ * and a tick only visits the levels it crossed: everything at or above the
+ * price for orders that fire on a fall, at or below it for those that fire on
+ * a rise.
+ */
+final class OrderBook {
+
+    private final TreeMap<Long, Level> onFall = new TreeMap<>();
+    private final TreeMap<Long, Level> onRise = new TreeMap<>();
+    // cancelled while off the book (being filled, or not yet added); never to be added again
+    private final Set<Long> cancelled = new HashSet<>();
+    private int size;
+
+    synchronized void add(long orderId, OrderTrigger trigger) {
+        if (cancelled.remove(orderId)) {
+            return;
+        }
+        levels(trigger).computeIfAbsent(trigger.ticks(), k -> new Level()).add(orderId);
+        size++;
+    }
+
+    /**
+     * Takes a cancelled order off whichever of {@code triggers} it rests at. One
+     * that isn't on the book is remembered, so a later {@link #add} skips it.
+     */
+    synchronized void cancel(long orderId, List<OrderTrigger> triggers) {
+        for (OrderTrigger trigger : triggers) {
+            if (remove(orderId, trigger)) {
+                return;
+            }
+        }
+        cancelled.add(orderId);
+    }
+
+    /** Drops what {@link #cancel} remembered about orders that have been dealt with. */
+    synchronized void forget(Collection<Long> orderIds) {
+        if (!cancelled.isEmpty()) {
+            cancelled.removeAll(orderIds);
+        }
+    }
+
+    synchronized boolean remove(long orderId, OrderTrigger trigger) {
+        TreeMap<Long, Level> levels = levels(trigger);
+        Level level = levels.get(trigger.ticks());
+        if (level == null || !level.remove(orderId)) {
+            return false;
+        }
+        if (level.count == 0) {
+            levels.remove(trigger.ticks());
+        }
+        size--;
+        return true;
+    }
+
+    /** Removes and returns every order whose level {@code priceTicks} reaches, oldest first. */
+    synchronized long[] crossed(long priceTicks) {
+        Level out = new Level();
+        drain(onFall.tailMap(priceTicks, true), out);
+        drain(onRise.headMap(priceTicks, true), out);
+        size -= out.count;
+        long[] ids = Arrays.copyOf(out.ids, out.count);
+        // ids grow with placement time, so oldest orders go first
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private TreeMap<Long, Level> levels(OrderTrigger trigger) {
+        return trigger.onFall() ? onFall : onRise;
+    }
+
+    private static void drain(NavigableMap<Long, Level> crossed, Level out) {
+        Iterator<Map.Entry<Long, Level>> it = crossed.entrySet().iterator();
+        while (it.hasNext()) {
+            Level level = it.next().getValue();
+            for (int i = 0; i < level.count; i++) {
+                out.add(level.ids[i]);
+            }
+            it.remove();
+        }
+    }
+
+    /** Growable array of order ids resting at one price. */
+    private static final class Level {
+        long[] ids = new long[2];
+        int count;
+
+        void add(long id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+
+        boolean remove(long id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    // crossed() sorts by id, so order within a level doesn't matter
+                    ids[i] = ids[--count];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.portfolio.HoldingValuation;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.OrderRepository;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Trigger engine for resting orders. Every open price-triggered order sits in
+ * its symbol's {@link OrderBook}; symbols with resting orders join the shared
+ * quote poller, and each tick pulls only the crossed levels out of the book.
+ * Triggered orders are filled in batches, off the poller thread, through
+ * {@link TradingService#fillTriggeredOrders}. Market-on-open orders stay in the
+ * database until the clock reports the market open, then go out as one job.
+ */
+@Component
+public class OrderEngine implements QuoteStreamHub.Listener, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEngine.class);
+
+    private static final int LOAD_PAGE_SIZE = 5_000;
+
+    private final OrderRepository orderRepo;
+    private final TradingService tradingService;
+    private final DailyPriceService dailyPriceService;
+    private final Executor filler;
+    private final ExecutorService ownedFiller;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<String, OrderBook> books = new ConcurrentHashMap<>();
+
+    // set when market-on-open orders may be waiting; checked at startup too
+    private volatile boolean marketOnOpenPending = true;
+
+    @Autowired
+    public OrderEngine(OrderRepository orderRepo,
+                       TradingService tradingService,
+                       DailyPriceService dailyPriceService,
+                       QuoteStreamHub quoteStream,
+                       MeterRegistry registry,
+                       @Value("${orders.fill-batch-size:200}") int batchSize) {
+        this(orderRepo, tradingService, dailyPriceService, quoteStream, registry, batchSize, newFiller());
+    }
+
+    OrderEngine(OrderRepository orderRepo, TradingService tradingService, DailyPriceService dailyPriceService,
+                QuoteStreamHub quoteStream, MeterRegistry registry, int batchSize, Executor filler) {
+        this.orderRepo = orderRepo;
+        this.tradingService = tradingService;
+        this.dailyPriceService = dailyPriceService;
+        this.batchSize = batchSize;
+        this.filler = filler;
+        this.ownedFiller = filler instanceof ExecutorService es ? es : null;
+
+        quoteStream.addListener(this);
+        Gauge.builder("orders.resting", this, OrderEngine::restingCount).register(registry);
+    }
+
+    /** Rebuilds the books from every open order, a page at a time. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // rest() sets it again for every market-on-open order found, so an empty table leaves the check idle
+        marketOnOpenPending = false;
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Order> page = orderRepo.findByStatusAfter(OrderStatus.OPEN, afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            page.forEach(this::rest);
+            loaded += page.size();
+            if (page.size() < LOAD_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Order engine loaded {} resting orders", loaded);
+    }
+
+    /** Starts watching {@code order}; call only once it has been committed as OPEN. */
+    public void rest(Order order) {
+        if (order.getOrderType() == OrderType.MARKET_ON_OPEN) {
+            marketOnOpenPending = true;
+            return;
+        }
+        books.computeIfAbsent(order.getSymbol(), k -> new OrderBook()).add(order.getId(), OrderTrigger.of(order));
+    }
+
+    /**
+     * Stops watching {@code order}; call once it has been committed as CANCELLED.
+     * An order that is off the book right now (triggered and being filled, or an
+     * armed STOP_LIMIT on its way back) is kept from resting again.
+     */
+    public void cancel(Order order) {
+        if (order.getOrderType() == OrderType.MARKET_ON_OPEN) {
+            return;
+        }
+        books.computeIfAbsent(order.getSymbol(), k -> new OrderBook())
+                .cancel(order.getId(), OrderTrigger.all(order));
+    }
+
+    public int restingCount() {
+        return books.values().stream().mapToInt(OrderBook::size).sum();
+    }
+
+    @Override
+    public Set<String> watchedSymbols() {
+        return books.entrySet().stream()
+                .filter(e -> e.getValue().size() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void onQuotes(Map<String, TradeResponseDto> quotes) {
+        if (quotes.isEmpty() || books.isEmpty()) {
+            return;
+        }
+        MarketStatusDto status = dailyPriceService.getMarketStatus();
+        if (status == null || !status.isOpen()) {
+            return;
+        }
+
+        Map<String, BigDecimal> prices = new HashMap<>();
+        List<Long> triggered = new ArrayList<>();
+        books.forEach((symbol, book) -> {
+            TradeResponseDto quote = quotes.get(symbol);
+            if (quote == null || quote.isStale()) {
+                // never trigger off a last-known price from before an outage
+                return;
+            }
+            BigDecimal price = HoldingValuation.price(quote);
+            long[] crossed = book.crossed(OrderTrigger.ticks(price));
+            if (crossed.length > 0) {
+                prices.put(symbol, price);
+                for (long id : crossed) {
+                    triggered.add(id);
+                }
+            }
+        });
+
+        for (int from = 0; from < triggered.size(); from += batchSize) {
+            List<Long> batch = List.copyOf(triggered.subList(from, Math.min(from + batchSize, triggered.size())));
+            filler.execute(() -> fill(batch, prices));
+        }
+    }
+
+    /**
+     * Once the market is open, fills every waiting market-on-open order: a page
+     * at a time, one batched quote fetch per page, one transaction per page.
+     */
+    @Scheduled(fixedDelayString = "${orders.open-check-ms:1000}")
+    public void fillMarketOnOpen() {
+        if (!marketOnOpenPending) {
+            return;
+        }
+        try {
+            // a background check, so it yields the status budget to users
+            MarketStatusDto status = UpstreamPriority.PREFETCH.call(dailyPriceService::getMarketStatus);
+            if (status == null || !status.isOpen()) {
+                return;
+            }
+            // cleared up front so an order placed while this runs sets it again and isn't missed
+            marketOnOpenPending = false;
+            fillMarketOnOpenPages();
+        } catch (RuntimeException e) {
+            // an upstream outage, DB blip or lane timeout mustn't strand the rest until the next placement
+            marketOnOpenPending = true;
+            log.warn("Market-on-open check failed, retrying: {}", e.getMessage());
+        }
+    }
+
+    private void fillMarketOnOpenPages() {
+        boolean unpriced = false;
+        int filled = 0;
+        long afterId = 0;
+        while (true) {
+            List<Order> page = orderRepo.findByStatusAndTypeAfter(
+                    OrderStatus.OPEN, OrderType.MARKET_ON_OPEN, afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+
+            Set<String> symbols = new LinkedHashSet<>();
+            page.forEach(o -> symbols.add(o.getSymbol()));
+            Map<String, TradeResponseDto> quotes;
+            try {
+                quotes = UpstreamPriority.TRADE.call(() -> dailyPriceService.getLatestTrades(symbols));
+            } catch (RuntimeException e) {
+                log.warn("Quotes for market-on-open orders unavailable: {}", e.getMessage());
+                quotes = Map.of();
+            }
+
+            Map<String, BigDecimal> prices = new HashMap<>();
+            quotes.forEach((symbol, quote) -> {
+                if (!quote.isStale()) {
+                    prices.put(symbol, HoldingValuation.price(quote));
+                }
+            });
+            List<Long> ids = page.stream()
+                    .filter(o -> prices.containsKey(o.getSymbol()))
+                    .map(Order::getId)
+                    .toList();
+            // anything without a live price waits for the next check
+            unpriced |= ids.size() < page.size();
+            if (!ids.isEmpty()) {
+                filled += tradingService.fillMarketOnOpenOrders(ids, prices);
+            }
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        if (unpriced) {
+            marketOnOpenPending = true;
+        }
+        if (filled > 0) {
+            log.info("Filled {} market-on-open orders", filled);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (ownedFiller != null) {
+            ownedFiller.shutdownNow();
+        }
+    }
+
+    private void fill(List<Long> batch, Map<String, BigDecimal> prices) {
+        try {
+            // stop-limits whose stop just hit but whose limit hasn't come back
+            tradingService.fillTriggeredOrders(batch, prices).forEach(this::rest);
+        } catch (RuntimeException e) {
+            log.warn("Filling {} triggered orders failed, re-queueing them: {}", batch.size(), e.getMessage());
+            try {
+                orderRepo.findAllById(batch).stream()
+                        .filter(o -> o.getStatus() == OrderStatus.OPEN)
+                        .forEach(this::rest);
+            } catch (RuntimeException again) {
+                log.error("Could not re-queue triggered orders {}; they return on restart", batch, again);
+            }
+        } finally {
+            // these are back on the book or closed; a cancel that raced them has had its effect
+            for (String symbol : prices.keySet()) {
+                OrderBook book = books.get(symbol);
+                if (book != null) {
+                    book.forget(batch);
+                }
+            }
+        }
+    }
+
+    private static ExecutorService newFiller() {
+        // one filler keeps fills for the same account strictly ordered
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "order-filler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Where a resting order sits in its symbol's {@link OrderBook}: the price level
+ * in ticks of 0.0001, and whether it fires when the price falls to that level
+ * or rises to it.
+ */
+record OrderTrigger(boolean onFall, long ticks) {
+
+    static OrderTrigger of(Order order) {
+        boolean stopPhase = order.getOrderType() == OrderType.STOP
+                || (order.getOrderType() == OrderType.STOP_LIMIT && !order.isStopTriggered());
+        return stopPhase ? stop(order) : limit(order);
+    }
+
+    /** Every level {@code order} can rest at; a STOP_LIMIT moves from its stop to its limit once armed. */
+    static List<OrderTrigger> all(Order order) {
+        return order.getOrderType() == OrderType.STOP_LIMIT ? List.of(stop(order), limit(order)) : List.of(of(order));
+    }
+
+    private static OrderTrigger stop(Order order) {
+        // buy stops fire on the way up, sell stops on the way down
+        return new OrderTrigger(order.getSide() != TradeType.BUY, ticks(order.getStopPrice()));
+    }
+
+    private static OrderTrigger limit(Order order) {
+        // buy limits fire at or below the limit, sell limits at or above
+        return new OrderTrigger(order.getSide() == TradeType.BUY, ticks(order.getLimitPrice()));
+    }
+
+    static long ticks(BigDecimal price) {
+        return price.setScale(4, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,254 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Group commit for trade writes. Callers hand in the work for one trade and
+ * block; a single writer thread runs whatever has queued up, across users, in
+ * one transaction, and releases every caller once it commits. Under a burst
+ * that's one commit (and one fsync) per batch instead of per trade.
+ *
+ * <p>Each job runs behind its own savepoint. One that throws
+ * {@link IllegalArgumentException} is rolled back to it and fails on its own,
+ * while the rest of the batch still commits. Any other failure sinks the batch,
+ * and each job is then retried in its own transaction so one bad trade can't
+ * fail its neighbours.
+ *
+ * <p>Every job handed in is completed: if the writer stops, whatever it had
+ * taken and whatever is still queued fails, and later submissions are refused.
+ */
+@Component
+public class TradeJournal implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TradeJournal.class);
+
+    private final TransactionTemplate tx;
+    private final BlockingQueue<Job<?>> queue = new LinkedBlockingQueue<>();
+    private final int maxBatch;
+    private final long maxDelayNanos;
+    private final long waitMs;
+    private final boolean enabled;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+
+    public TradeJournal(PlatformTransactionManager txManager,
+                        MeterRegistry registry,
+                        @Value("${orders.journal.max-batch:200}") int maxBatch,
+                        @Value("${orders.journal.max-delay-ms:2}") long maxDelayMs,
+                        @Value("${orders.journal.wait-ms:10000}") long waitMs,
+                        @Value("${orders.journal.enabled:true}") boolean enabled) {
+        this.tx = new TransactionTemplate(txManager);
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.waitMs = waitMs;
+        this.enabled = enabled;
+
+        this.batchSize = DistributionSummary.builder("trade.journal.batch.size").register(registry);
+        this.commitTimer = Timer.builder("trade.journal.commit").register(registry);
+
+        this.writer = new Thread(this::writeLoop, "trade-journal");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            writer.start();
+        }
+    }
+
+    /** Runs {@code work} in a journal transaction and returns its result once that transaction has committed. */
+    public <T> T submit(TransactionCallback<T> work) {
+        return await(submitAsync(work));
+    }
+
+    /**
+     * Queues {@code work} without waiting for it, so several trades from one
+     * caller can share a commit; pass the result to {@link #await}.
+     */
+    public <T> CompletableFuture<T> submitAsync(TransactionCallback<T> work) {
+        if (!enabled) {
+            try {
+                return CompletableFuture.completedFuture(tx.execute(work));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        if (!running) {
+            throw new IllegalStateException("Trade journal is shut down");
+        }
+        Job<T> job = new Job<>(work);
+        queue.add(job);
+        if (!running && queue.remove(job)) {
+            // the writer may already have drained the queue for the last time
+            throw new IllegalStateException("Trade journal is shut down");
+        }
+        return job;
+    }
+
+    /**
+     * Waits for a job from {@link #submitAsync} to commit and returns its result.
+     * A job the writer hasn't started by the deadline is withdrawn, so giving up
+     * on it never leaves a trade behind. One the writer has started is waited
+     * out, since the caller has to learn whether it committed.
+     */
+    public <T> T await(CompletableFuture<T> commit) {
+        try {
+            try {
+                return commit.get(waitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (commit instanceof Job<?> job && job.claim()) {
+                    queue.remove(job);
+                    job.completeExceptionally(e);
+                    throw new IllegalStateException("The trade journal is backed up; the trade was not placed. Please try again.");
+                }
+                // the writer completes every job it takes, even when it stops
+                return commit.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Trade failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the trade to commit", e);
+        }
+    }
+
+    private void writeLoop() {
+        List<Job<?>> batch = new ArrayList<>(maxBatch);
+        try {
+            while (running) {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - batch.size());
+                // give trades arriving right behind this one a moment to share the commit
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    Job<?> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+                // callers that gave up waiting have withdrawn their jobs
+                batch.removeIf(job -> !job.claim());
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            log.error("Trade journal writer stopped; trades fail until restart", t);
+        } finally {
+            running = false;
+            IllegalStateException stopped = new IllegalStateException("Trade journal is shut down");
+            // jobs already taken off the queue but not committed; completing a finished one is a no-op
+            batch.forEach(job -> job.completeExceptionally(stopped));
+            Job<?> left;
+            while ((left = queue.poll()) != null) {
+                left.completeExceptionally(stopped);
+            }
+        }
+    }
+
+    void commit(List<Job<?>> batch) {
+        batchSize.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            tx.execute(status -> {
+                batch.forEach(job -> job.runWithin(status));
+                return null;
+            });
+            batch.forEach(Job::finish);
+        } catch (RuntimeException | Error e) {
+            for (Job<?> job : batch) {
+                job.runAlone(tx);
+            }
+        } finally {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class Job<T> extends CompletableFuture<T> {
+        final TransactionCallback<T> work;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        T result;
+        RuntimeException rejected;
+
+        Job(TransactionCallback<T> work) {
+            this.work = work;
+        }
+
+        /** Taken either by the writer to run it or by the caller to withdraw it, never both. */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+
+        void runWithin(TransactionStatus status) {
+            // earlier jobs' pending writes go out first, so the savepoint covers this job alone
+            status.flush();
+            Object savepoint = status.createSavepoint();
+            try {
+                result = work.doInTransaction(status);
+            } catch (IllegalArgumentException e) {
+                // push out whatever it had pending too, then undo all of it
+                status.flush();
+                status.rollbackToSavepoint(savepoint);
+                rejected = e;
+                return;
+            }
+            status.releaseSavepoint(savepoint);
+        }
+
+        void finish() {
+            if (rejected != null) {
+                completeExceptionally(rejected);
+            } else {
+                complete(result);
+            }
+        }
+
+        void runAlone(TransactionTemplate tx) {
+            try {
+                complete(tx.execute(work));
+            } catch (Throwable e) {
+                completeExceptionally(e);
+            }
+        }
+    }
+}
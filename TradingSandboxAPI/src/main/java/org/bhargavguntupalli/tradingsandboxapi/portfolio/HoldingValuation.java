@@ -0,0 +1,46 @@
+package org.bhargavguntupalli.tradingsandboxapi.portfolio;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.HoldingDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * How a single position is valued, shared by the portfolio endpoint and the
+ * live portfolio stream so both report the same numbers.
+ */
+public final class HoldingValuation {
+
+    private HoldingValuation() {
+    }
+
+    public static BigDecimal price(TradeResponseDto quote) {
+        return BigDecimal.valueOf(quote.getPrice()).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    public static BigDecimal costBasis(BigDecimal quantity, BigDecimal averageCost) {
+        return quantity.multiply(averageCost).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    public static HoldingDto value(String symbol, BigDecimal quantity, BigDecimal averageCost, BigDecimal currentPrice) {
+        HoldingDto dto = new HoldingDto();
+        dto.setSymbol(symbol);
+        dto.setQuantity(quantity);
+        dto.setAverageCost(averageCost);
+        dto.setCurrentPrice(currentPrice);
+
+        BigDecimal marketValue = quantity.multiply(currentPrice).setScale(4, RoundingMode.HALF_UP);
+        dto.setMarketValue(marketValue);
+
+        BigDecimal costBasis = costBasis(quantity, averageCost);
+        BigDecimal gainLoss = marketValue.subtract(costBasis);
+        dto.setTotalGainLoss(gainLoss);
+
+        BigDecimal gainLossPercent = costBasis.compareTo(BigDecimal.ZERO) != 0
+                ? gainLoss.divide(costBasis, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                : BigDecimal.ZERO;
+        dto.setTotalGainLossPercent(gainLossPercent);
+        return dto;
+    }
+}
@@ -0,0 +1,397 @@
+package org.bhargavguntupalli.tradingsandboxapi.portfolio;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.HoldingDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDeltaDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes portfolio changes to connected users over Server-Sent Events. Each
+ * connected user's positions are loaded once and then kept in memory: a quote
+ * tick from {@link QuoteStreamHub} revalues only the positions whose price
+ * moved, and a committed trade replaces only the position it touched. Clients
+ * get a {@code snapshot} event on connect and {@code delta} events after that;
+ * deltas waiting on a slow client are merged rather than queued.
+ */
+@Component
+public class PortfolioStreamHub implements QuoteStreamHub.Listener, DisposableBean {
+
+    private final TradingService tradingService;
+    private final Executor sender;
+    private final ExecutorService ownedSender;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+
+    private final ConcurrentHashMap<String, LivePortfolio> portfolios = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Autowired
+    public PortfolioStreamHub(TradingService tradingService,
+                              QuoteStreamHub quoteStream,
+                              MeterRegistry registry,
+                              @Value("${market-data.portfolio-stream.max-subscribers:1000}") int maxSubscribers,
+                              @Value("${market-data.portfolio-stream.timeout-ms:1800000}") long timeoutMs,
+                              @Value("${market-data.portfolio-stream.sender-threads:2}") int senderThreads) {
+        this(tradingService, quoteStream, registry, maxSubscribers, timeoutMs, newSender(senderThreads));
+    }
+
+    PortfolioStreamHub(TradingService tradingService, QuoteStreamHub quoteStream, MeterRegistry registry,
+                       int maxSubscribers, long timeoutMs, Executor sender) {
+        this.tradingService = tradingService;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.sender = sender;
+        this.ownedSender = sender instanceof ExecutorService es ? es : null;
+
+        quoteStream.addListener(this);
+        Gauge.builder("portfolio.stream.subscribers", connections, AtomicInteger::get).register(registry);
+    }
+
+    /**
+     * Opens a portfolio stream for {@code username}, or returns {@code null}
+     * if the hub is already at its connection limit.
+     */
+    public SseEmitter subscribe(String username) {
+        if (connections.get() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(username, emitter);
+        return emitter;
+    }
+
+    void register(String username, SseEmitter emitter) {
+        while (true) {
+            // registered before the read, so a trade committing in between is held back and replayed, not lost
+            LivePortfolio portfolio = portfolios.computeIfAbsent(username, k -> new LivePortfolio());
+            if (!portfolio.isLoaded()) {
+                // first connection for this user: one full DB read and pricing, then incremental
+                try {
+                    portfolio.load(tradingService.getPortfolio(username));
+                } catch (RuntimeException e) {
+                    if (portfolio.discardIfUnloaded()) {
+                        portfolios.remove(username, portfolio);
+                    }
+                    throw e;
+                }
+            }
+            Connection connection = new Connection(username, portfolio, emitter);
+            connections.incrementAndGet();
+            if (portfolio.connect(connection)) {
+                emitter.onCompletion(connection::close);
+                emitter.onTimeout(connection::close);
+                emitter.onError(e -> connection.close());
+                return;
+            }
+            connections.decrementAndGet();
+            // raced with the last connection of a portfolio being torn down
+            portfolios.remove(username, portfolio);
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public Set<String> watchedSymbols() {
+        Set<String> symbols = new HashSet<>();
+        portfolios.values().forEach(p -> p.addSymbolsTo(symbols));
+        return symbols;
+    }
+
+    @Override
+    public void onQuotes(Map<String, TradeResponseDto> quotes) {
+        if (!quotes.isEmpty()) {
+            portfolios.values().forEach(p -> p.reprice(quotes));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeExecuted(TradeExecutedEvent event) {
+        LivePortfolio portfolio = portfolios.get(event.username());
+        if (portfolio != null) {
+            portfolio.apply(event);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        portfolios.values().forEach(LivePortfolio::closeAll);
+        portfolios.clear();
+        if (ownedSender != null) {
+            ownedSender.shutdownNow();
+        }
+    }
+
+    private static ExecutorService newSender(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "portfolio-stream-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** One user's positions and running totals; every method holds the portfolio's lock. */
+    private final class LivePortfolio {
+        private final Map<String, HoldingDto> positions = new TreeMap<>();
+        private final List<Connection> subscribers = new ArrayList<>();
+        private BigDecimal cashBalance;
+        private BigDecimal holdingsValue = BigDecimal.ZERO;
+        private BigDecimal costBasis = BigDecimal.ZERO;
+        private boolean closed;
+        // trades that committed while the snapshot was loading; null once loaded
+        private List<TradeExecutedEvent> heldBack = new ArrayList<>();
+
+        synchronized boolean isLoaded() {
+            return heldBack == null;
+        }
+
+        /**
+         * Takes the first snapshot and replays the trades held back meanwhile. Events carry the
+         * position and cash as they stand after the trade, so replaying one the snapshot already
+         * includes changes nothing once the later ones are applied.
+         */
+        synchronized void load(PortfolioDto loaded) {
+            if (heldBack == null || closed) {
+                return;
+            }
+            cashBalance = loaded.getCashBalance();
+            for (HoldingDto h : loaded.getHoldings()) {
+                add(h);
+            }
+            List<TradeExecutedEvent> replay = heldBack;
+            heldBack = null;
+            replay.forEach(this::apply);
+        }
+
+        /** Gives up on a portfolio whose snapshot couldn't be loaded; {@code false} if another caller loaded it. */
+        synchronized boolean discardIfUnloaded() {
+            if (heldBack == null) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        synchronized boolean connect(Connection connection) {
+            if (closed) {
+                return false;
+            }
+            subscribers.add(connection);
+            connection.offer(delta(new ArrayList<>(positions.values()), List.of()), true);
+            return true;
+        }
+
+        synchronized boolean disconnect(Connection connection) {
+            boolean removed = subscribers.remove(connection);
+            if (subscribers.isEmpty()) {
+                closed = true;
+            }
+            return removed;
+        }
+
+        synchronized boolean isClosed() {
+            return closed;
+        }
+
+        synchronized void closeAll() {
+            List.copyOf(subscribers).forEach(c -> c.emitter.complete());
+            subscribers.clear();
+            closed = true;
+        }
+
+        synchronized void addSymbolsTo(Set<String> symbols) {
+            symbols.addAll(positions.keySet());
+        }
+
+        synchronized void reprice(Map<String, TradeResponseDto> quotes) {
+            List<HoldingDto> changed = new ArrayList<>();
+            for (HoldingDto current : List.copyOf(positions.values())) {
+                TradeResponseDto quote = quotes.get(current.getSymbol());
+                if (quote == null) {
+                    continue;
+                }
+                BigDecimal price = HoldingValuation.price(quote);
+                if (price.compareTo(current.getCurrentPrice()) == 0) {
+                    continue;
+                }
+                remove(current.getSymbol());
+                changed.add(add(HoldingValuation.value(
+                        current.getSymbol(), current.getQuantity(), current.getAverageCost(), price)));
+            }
+            if (!changed.isEmpty()) {
+                publish(delta(changed, List.of()));
+            }
+        }
+
+        synchronized void apply(TradeExecutedEvent event) {
+            if (heldBack != null) {
+                heldBack.add(event);
+                return;
+            }
+            cashBalance = event.cashBalance();
+            HoldingDto previous = remove(event.symbol());
+            if (event.quantity().signum() == 0) {
+                publish(delta(List.of(), previous != null ? List.of(event.symbol()) : List.of()));
+                return;
+            }
+            // keep the last streamed price if there is one; a new position starts at its fill price
+            BigDecimal price = previous != null ? previous.getCurrentPrice() : event.pricePerShare();
+            HoldingDto updated = add(HoldingValuation.value(
+                    event.symbol(), event.quantity(), event.averageCost(), price));
+            publish(delta(List.of(updated), List.of()));
+        }
+
+        private HoldingDto add(HoldingDto holding) {
+            positions.put(holding.getSymbol(), holding);
+            holdingsValue = holdingsValue.add(holding.getMarketValue());
+            costBasis = costBasis.add(HoldingValuation.costBasis(holding.getQuantity(), holding.getAverageCost()));
+            return holding;
+        }
+
+        private HoldingDto remove(String symbol) {
+            HoldingDto holding = positions.remove(symbol);
+            if (holding != null) {
+                holdingsValue = holdingsValue.subtract(holding.getMarketValue());
+                costBasis = costBasis.subtract(HoldingValuation.costBasis(holding.getQuantity(), holding.getAverageCost()));
+            }
+            return holding;
+        }
+
+        private PortfolioDeltaDto delta(List<HoldingDto> holdings, List<String> removed) {
+            PortfolioDeltaDto delta = new PortfolioDeltaDto();
+            delta.setHoldings(holdings);
+            delta.setRemoved(removed);
+            delta.setCashBalance(cashBalance);
+            delta.setHoldingsValue(holdingsValue);
+            delta.setTotalPortfolioValue(cashBalance.add(holdingsValue));
+            delta.setTotalGainLoss(holdingsValue.subtract(costBasis));
+            return delta;
+        }
+
+        private void publish(PortfolioDeltaDto delta) {
+            // a failed write disconnects, so iterate over a copy
+            List.copyOf(subscribers).forEach(c -> c.offer(delta, false));
+        }
+    }
+
+    /** One open stream, holding at most one merged, not-yet-sent update. */
+    private final class Connection {
+        final String username;
+        final LivePortfolio portfolio;
+        final SseEmitter emitter;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        // guarded by this
+        private final Map<String, HoldingDto> pendingHoldings = new LinkedHashMap<>();
+        private final Set<String> pendingRemoved = new LinkedHashSet<>();
+        private PortfolioDeltaDto pendingTotals;
+        private boolean snapshotPending;
+
+        Connection(String username, LivePortfolio portfolio, SseEmitter emitter) {
+            this.username = username;
+            this.portfolio = portfolio;
+            this.emitter = emitter;
+        }
+
+        void close() {
+            if (portfolio.disconnect(this)) {
+                connections.decrementAndGet();
+                if (portfolio.isClosed()) {
+                    portfolios.remove(username, portfolio);
+                }
+            }
+        }
+
+        void offer(PortfolioDeltaDto delta, boolean snapshot) {
+            synchronized (this) {
+                snapshotPending |= snapshot;
+                for (HoldingDto h : delta.getHoldings()) {
+                    pendingHoldings.put(h.getSymbol(), h);
+                    pendingRemoved.remove(h.getSymbol());
+                }
+                for (String symbol : delta.getRemoved()) {
+                    pendingHoldings.remove(symbol);
+                    if (!snapshotPending) {
+                        pendingRemoved.add(symbol);
+                    }
+                }
+                pendingTotals = delta;
+            }
+            schedule();
+        }
+
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            boolean more;
+            try {
+                String name;
+                PortfolioDeltaDto update;
+                synchronized (this) {
+                    if (pendingTotals == null) {
+                        return;
+                    }
+                    name = snapshotPending ? "snapshot" : "delta";
+                    update = new PortfolioDeltaDto();
+                    update.setHoldings(new ArrayList<>(pendingHoldings.values()));
+                    update.setRemoved(new ArrayList<>(pendingRemoved));
+                    update.setCashBalance(pendingTotals.getCashBalance());
+                    update.setHoldingsValue(pendingTotals.getHoldingsValue());
+                    update.setTotalPortfolioValue(pendingTotals.getTotalPortfolioValue());
+                    update.setTotalGainLoss(pendingTotals.getTotalGainLoss());
+                    pendingHoldings.clear();
+                    pendingRemoved.clear();
+                    pendingTotals = null;
+                    snapshotPending = false;
+                }
+                emitter.send(SseEmitter.event().name(name).data(update));
+            } catch (IOException | IllegalStateException e) {
+                close();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                draining.set(false);
+            }
+            synchronized (this) {
+                more = pendingTotals != null;
+            }
+            if (more) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.bhargavguntupalli.tradingsandboxapi.portfolio;
+
+import java.math.BigDecimal;
+
+/**
+ * Published once a trade has committed, carrying the user's position in
+ * {@code symbol} and cash balance as they stand after it.
+ */
+public record TradeExecutedEvent(String username,
+                                 String symbol,
+                                 BigDecimal quantity,
+                                 BigDecimal averageCost,
+                                 BigDecimal pricePerShare,
+                                 BigDecimal cashBalance) {}
@@ -0,0 +1,26 @@
+package org.bhargavguntupalli.tradingsandboxapi.repositories;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceGap;
+import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyPriceGapRepository extends JpaRepository<DailyPriceGap, DailyPriceId> {
+    // known no-bar sessions for a symbol between two dates (inclusive) that haven't expired by {@code now}
+    List<DailyPriceGap> findByIdSymbolAndIdDateBetweenAndExpiresAtAfter(String symbol, LocalDate start, LocalDate end,
+                                                                       Instant now);
+
+    /** Records a no-bar session, or pushes out the expiry of one recorded before; safe to repeat. */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into daily_price_gaps (symbol, date, expires_at) values (:symbol, :date, :expiresAt) " +
+                   "on conflict (symbol, date) do update set expires_at = excluded.expires_at", nativeQuery = true)
+    void record(@Param("symbol") String symbol, @Param("date") LocalDate date, @Param("expiresAt") Instant expiresAt);
+}
@@ -3,11 +3,48 @@ package org.bhargavguntupalli.tradingsandboxapi.repositories;
 import org.bhargavguntupalli.tradingsandboxapi.models.Holding;
 import org.bhargavguntupalli.tradingsandboxapi.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 public interface HoldingRepository extends JpaRepository<Holding, Long> {
     List<Holding> findByUser(User user);
     Optional<Holding> findByUserAndSymbol(User user, String symbol);
+
+    @Query("select h.quantity as quantity, h.averageCost as averageCost from Holding h " +
+           "where h.user.id = :userId and h.symbol = :symbol")
+    Optional<Position> findPosition(@Param("userId") Long userId, @Param("symbol") String symbol);
+
+    /**
+     * Adds a purchase of {@code quantity} shares costing {@code cost} to an open position,
+     * re-weighting the average cost in the same statement; returns 0 if there is no position.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Holding h set " +
+           "h.averageCost = round((h.quantity * h.averageCost + :cost) / (h.quantity + :quantity), 4), " +
+           "h.quantity = h.quantity + :quantity, h.version = h.version + 1 " +
+           "where h.user.id = :userId and h.symbol = :symbol")
+    int addShares(@Param("userId") Long userId, @Param("symbol") String symbol,
+                  @Param("quantity") BigDecimal quantity, @Param("cost") BigDecimal cost);
+
+    /** Takes {@code quantity} off the position; returns 0 if there is no position or it's too small. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Holding h set h.quantity = h.quantity - :quantity, h.version = h.version + 1 " +
+           "where h.user.id = :userId and h.symbol = :symbol and h.quantity >= :quantity")
+    int removeShares(@Param("userId") Long userId, @Param("symbol") String symbol,
+                     @Param("quantity") BigDecimal quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Holding h where h.user.id = :userId and h.symbol = :symbol and h.quantity = 0")
+    int deleteIfEmpty(@Param("userId") Long userId, @Param("symbol") String symbol);
+
+    /** A position as read back after an update. */
+    interface Position {
+        BigDecimal getQuantity();
+        BigDecimal getAverageCost();
+    }
 }
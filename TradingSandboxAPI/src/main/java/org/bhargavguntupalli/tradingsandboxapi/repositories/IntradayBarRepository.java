@@ -0,0 +1,14 @@
+package org.bhargavguntupalli.tradingsandboxapi.repositories;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBar;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBarId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface IntradayBarRepository extends JpaRepository<IntradayBar, IntradayBarId> {
+    // bars for a symbol/timeframe in [start, end), ordered by time
+    List<IntradayBar> findByIdSymbolAndIdTimeframeAndIdTimestampGreaterThanEqualAndIdTimestampLessThanOrderByIdTimestampAsc(
+            String symbol, String timeframe, Instant start, Instant end);
+}
@@ -0,0 +1,12 @@
+package org.bhargavguntupalli.tradingsandboxapi.repositories;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayCoverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IntradayCoverageRepository extends JpaRepository<IntradayCoverage, Long> {
+    List<IntradayCoverage> findBySymbolAndTimeframeAndSessionDateBetween(
+            String symbol, String timeframe, LocalDate start, LocalDate end);
+}
@@ -0,0 +1,55 @@
+package org.bhargavguntupalli.tradingsandboxapi.repositories;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.models.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    List<Order> findByUserOrderByCreatedAtDesc(User user);
+
+    long countByUserAndStatus(User user, OrderStatus status);
+
+    /** One page of orders in {@code status} after {@code afterId}, for rebuilding the in-memory books. */
+    @Query("select o from Order o where o.status = :status and o.id > :afterId order by o.id")
+    List<Order> findByStatusAfter(@Param("status") OrderStatus status, @Param("afterId") long afterId, Pageable page);
+
+    @Query("select o from Order o where o.status = :status and o.orderType = :type and o.id > :afterId order by o.id")
+    List<Order> findByStatusAndTypeAfter(@Param("status") OrderStatus status, @Param("type") OrderType type,
+                                         @Param("afterId") long afterId, Pageable page);
+
+    @Query("select o from Order o join fetch o.user where o.id in :ids")
+    List<Order> findWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Moves an order out of OPEN; returns 0 if it was no longer open (already filled or cancelled). */
+    @Modifying
+    @Query("update Order o set o.status = :status, o.closedAt = :at, o.rejectReason = :reason " +
+           "where o.id = :id and o.status = org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus.OPEN")
+    int close(@Param("id") Long id, @Param("status") OrderStatus status,
+              @Param("at") LocalDateTime at, @Param("reason") String reason);
+
+    /** Undoes a FILLED claim whose trade turned out not to be possible. */
+    @Modifying
+    @Query("update Order o set o.status = org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus.REJECTED, " +
+           "o.rejectReason = :reason where o.id = :id")
+    int reject(@Param("id") Long id, @Param("reason") String reason);
+
+    @Modifying
+    @Query("update Order o set o.tradeId = :tradeId where o.id = :id")
+    int recordTrade(@Param("id") Long id, @Param("tradeId") Long tradeId);
+
+    @Modifying
+    @Query("update Order o set o.stopTriggered = true " +
+           "where o.id = :id and o.status = org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus.OPEN")
+    int markStopTriggered(@Param("id") Long id);
+}
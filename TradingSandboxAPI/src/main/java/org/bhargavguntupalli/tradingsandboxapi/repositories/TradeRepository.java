@@ -1,11 +1,34 @@
 package org.bhargavguntupalli.tradingsandboxapi.repositories;
 
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
 import org.bhargavguntupalli.tradingsandboxapi.models.Trade;
-import org.bhargavguntupalli.tradingsandboxapi.models.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface TradeRepository extends JpaRepository<Trade, Long> {
-    List<Trade> findByUserOrderByExecutedAtDesc(User user);
+    Optional<Trade> findByUserUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    /** The newest page of a user's history (all of it when unpaged), read straight into DTOs. */
+    @Query("select new org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto(" +
+           "t.id, t.symbol, t.type, t.quantity, t.pricePerShare, t.totalCost, t.executedAt) " +
+           "from Trade t where t.user.id = :userId " +
+           "order by t.executedAt desc, t.id desc")
+    List<TradeHistoryDto> findHistory(@Param("userId") Long userId, Pageable page);
+
+    /**
+     * The page after {@code (executedAt, id)}; seeks on idx_trades_user_date rather than
+     * skipping rows, with id only breaking ties between trades in the same instant.
+     */
+    @Query("select new org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto(" +
+           "t.id, t.symbol, t.type, t.quantity, t.pricePerShare, t.totalCost, t.executedAt) " +
+           "from Trade t where t.user.id = :userId and (t.executedAt, t.id) < (:executedAt, :id) " +
+           "order by t.executedAt desc, t.id desc")
+    List<TradeHistoryDto> findHistoryBefore(@Param("userId") Long userId, @Param("executedAt") LocalDateTime executedAt,
+                                            @Param("id") Long id, Pageable page);
 }
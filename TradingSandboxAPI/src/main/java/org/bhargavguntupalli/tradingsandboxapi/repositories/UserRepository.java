@@ -2,10 +2,33 @@ package org.bhargavguntupalli.tradingsandboxapi.repositories;
 
 import org.bhargavguntupalli.tradingsandboxapi.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @Query("select u.cashBalance from User u where u.id = :id")
+    BigDecimal findCashBalanceById(@Param("id") Long id);
+
     Optional<User> findByEmail(String email);
     void deleteByEmailAndEmailVerifiedFalse(String email);
+
+    /** Takes {@code amount} off the balance in one statement; returns 0 if the user can't cover it. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.cashBalance = u.cashBalance - :amount, u.version = u.version + 1 " +
+           "where u.id = :id and u.cashBalance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.cashBalance = u.cashBalance + :amount, u.version = u.version + 1 " +
+           "where u.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
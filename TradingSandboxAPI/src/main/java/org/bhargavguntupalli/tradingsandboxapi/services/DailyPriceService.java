@@ -9,16 +9,27 @@ import org.bhargavguntupalli.tradingsandboxapi.dto.TimePeriod;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DailyPriceService {
+    /** Most symbols DataAcquisition's /latest-trades accepts in one call (its MAX_BATCH_SYMBOLS). */
+    int MAX_BATCH_SYMBOLS = 100;
+
     DailyPriceDto save(DailyPriceDto dto);
     List<DailyPriceDto> findBySymbol(String symbol);
     DailyPriceDto findOne(String symbol, LocalDate date);
     List<DailyPriceDto> findRange(String symbol, LocalDate start, LocalDate end);
     TradeResponseDto getLatestTrade(String symbol);
+    Map<String, TradeResponseDto> getLatestTrades(Collection<String> symbols);
+    /** Like {@link #getLatestTrades} but always goes upstream, then refreshes the quote cache with the result. */
+    Map<String, TradeResponseDto> refreshLatestTrades(Collection<String> symbols);
     MarketStatusDto fetchMarketStatus();
+    MarketStatusDto getMarketStatus();
     List<PriceDataDto> findByPeriod(String symbol, TimePeriod period);
+    List<PriceDataDto> findByPeriod(String symbol, TimePeriod period, int maxPoints);
     StockSearchResultDto searchStocks(String query, int limit);
+    int refreshSymbolCatalog();
     StockValidationDto validateSymbol(String symbol);
 }
@@ -0,0 +1,12 @@
+package org.bhargavguntupalli.tradingsandboxapi.services;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderRequestDto;
+
+import java.util.List;
+
+public interface OrderService {
+    OrderDto placeOrder(String username, OrderRequestDto request);
+    List<OrderDto> getOrders(String username);
+    OrderDto cancelOrder(String username, Long orderId);
+}
@@ -1,14 +1,49 @@
 package org.bhargavguntupalli.tradingsandboxapi.services;
 
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketRequestDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketResultDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryCursor;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryPageDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeRequestDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 public interface TradingService {
-    TradeResultDto executeTrade(String username, TradeRequestDto request);
+    /**
+     * Executes a market trade. A non-null {@code idempotencyKey} that this user already
+     * traded under returns that trade's result instead of trading again.
+     */
+    TradeResultDto executeTrade(String username, TradeRequestDto request, String idempotencyKey);
+
+    /**
+     * Executes several market trades at once against one batch of quotes. In ALL_OR_NOTHING mode
+     * any leg that can't be made rejects the whole basket; in BEST_EFFORT mode it is skipped and reported.
+     */
+    BasketResultDto executeBasket(String username, BasketRequestDto request);
+
     PortfolioDto getPortfolio(String username);
+
+    /** All of the user's trades, newest first. */
     List<TradeHistoryDto> getTradeHistory(String username);
+
+    /** Up to {@code limit} of the user's trades, newest first, starting after {@code before} (null for the newest). */
+    TradeHistoryPageDto getTradeHistory(String username, int limit, TradeHistoryCursor before);
+
+    /**
+     * Fills the given triggered orders at {@code prices} (by symbol), each in its own transaction.
+     * Returns the stop-limit orders whose stop was hit but whose limit was not, which rest again.
+     */
+    List<Order> fillTriggeredOrders(List<Long> orderIds, Map<String, BigDecimal> prices);
+
+    /**
+     * Fills a batch of market-on-open orders at {@code prices} (by symbol) in one transaction,
+     * rejecting individual orders that can't be afforded. Returns how many filled.
+     */
+    int fillMarketOnOpenOrders(List<Long> orderIds, Map<String, BigDecimal> prices);
 }
@@ -1,35 +1,83 @@
 package org.bhargavguntupalli.tradingsandboxapi.services.impl;
 
 import org.bhargavguntupalli.tradingsandboxapi.dto.*;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.BarAggregator;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.BarSeries;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.BarTimeframe;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.ChartDownsampler;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.CircuitBreakers;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.CircuitOpenException;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradayBarStore;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradaySeriesCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.LastKnownGood;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketClock;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketDataExecutor;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MissingSessions;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.SymbolCatalog;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.TradingCalendar;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudget;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudgetExceededException;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
 import org.springframework.web.client.HttpClientErrorException;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPrice;
+import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceGap;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceId;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBar;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceGapRepository;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceRepository;
 import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.Temporal;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DailyPriceServiceImpl implements DailyPriceService {
 
+    private static final String DAILY_TIMEFRAME = "1Day";
+    private static final LocalTime SESSION_OPEN = LocalTime.of(9, 30);
+    private static final BarTimeframe INTRADAY_BASE = BarTimeframe.FIVE_MIN;
+
     private final DailyPriceRepository repo;
+    private final DailyPriceGapRepository gapRepo;
     private final RestTemplate rest;
+    private final QuoteCache quoteCache;
+    private final MarketDataExecutor marketDataExecutor;
+    private final MarketClock marketClock;
+    private final TradingCalendar tradingCalendar;
+    private final IntradayBarStore intradayBars;
+    private final IntradaySeriesCache intradaySeries;
+    private final CircuitBreakers circuitBreakers;
+    private final UpstreamBudget upstreamBudget;
+    private final SymbolCatalog symbolCatalog;
+    // served, flagged stale, while upstream is unavailable
+    private final LastKnownGood<TradeResponseDto> lastQuotes = new LastKnownGood<>(5_000);
+    private final LastKnownGood<SortedMap<Instant, BigDecimal>> lastCharts = new LastKnownGood<>(1_000);
+    private final Object marketStatusLock = new Object();
 
     // inject from application-dev.yml
     @Value("${fastapi.base-url}")
@@ -38,9 +86,74 @@ public class DailyPriceServiceImpl implements DailyPriceService {
     @Value("${fastapi.access-key}")
     private String fastApiAccessKey;
 
-    public DailyPriceServiceImpl(DailyPriceRepository repo, RestTemplate rest) {
+    // built once; the access key never changes at runtime
+    private volatile HttpEntity<Void> fastApiEntity;
+
+    @Value("${market-data.quote-deadline-ms:2000}")
+    private long quoteDeadlineMs = 2000;
+
+    @Value("${market-data.bars.deadline-ms:10000}")
+    private long barsDeadlineMs = 10000;
+
+    @Value("${market-data.bars.max-ranges-per-request:4}")
+    private int maxRangesPerRequest = 4;
+
+    @Value("${market-data.bars.gap-ttl-ms:604800000}")
+    private long gapTtlMs = 604800000;
+
+    @Value("${market-data.chart.max-points:1000}")
+    private int defaultMaxPoints = 1000;
+
+    private Clock clock = Clock.systemUTC();
+
+    public DailyPriceServiceImpl(DailyPriceRepository repo,
+                                 DailyPriceGapRepository gapRepo,
+                                 @Qualifier("marketDataRestTemplate") RestTemplate rest,
+                                 QuoteCache quoteCache,
+                                 MarketDataExecutor marketDataExecutor,
+                                 MarketClock marketClock,
+                                 TradingCalendar tradingCalendar,
+                                 IntradayBarStore intradayBars,
+                                 IntradaySeriesCache intradaySeries,
+                                 CircuitBreakers circuitBreakers,
+                                 UpstreamBudget upstreamBudget,
+                                 SymbolCatalog symbolCatalog) {
         this.repo = repo;
+        this.gapRepo = gapRepo;
         this.rest = rest;
+        this.quoteCache = quoteCache;
+        this.marketDataExecutor = marketDataExecutor;
+        this.marketClock = marketClock;
+        this.tradingCalendar = tradingCalendar;
+        this.intradayBars = intradayBars;
+        this.intradaySeries = intradaySeries;
+        this.circuitBreakers = circuitBreakers;
+        this.upstreamBudget = upstreamBudget;
+        this.symbolCatalog = symbolCatalog;
+    }
+
+    private HttpEntity<Void> fastApiEntity() {
+        HttpEntity<Void> entity = fastApiEntity;
+        if (entity == null) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-ACCESS-KEY", fastApiAccessKey);
+            entity = new HttpEntity<>(HttpHeaders.readOnlyHttpHeaders(headers));
+            fastApiEntity = entity;
+        }
+        return entity;
+    }
+
+    /** GET against FastAPI within the route's request budget and through its circuit breaker. */
+    private <T> ResponseEntity<T> upstream(String route, String url, Class<T> type) {
+        UpstreamPriority priority = UpstreamPriority.current();
+        if (priority == null) {
+            // callers that matter more (trades, portfolio, background jobs) say so explicitly
+            priority = "search".equals(route) || "validate".equals(route)
+                    ? UpstreamPriority.SEARCH
+                    : UpstreamPriority.CHART;
+        }
+        upstreamBudget.acquire(route, priority);
+        return circuitBreakers.call(route, () -> rest.exchange(url, HttpMethod.GET, fastApiEntity(), type));
     }
 
     @Override
@@ -54,12 +167,12 @@ public class DailyPriceServiceImpl implements DailyPriceService {
             return new DailyPriceDto(e.getId().getSymbol(), e.getId().getDate(), e.getClosingPrice());
         }
 
-        // 2) build headers with X-ACCESS-KEY
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        // no point asking upstream about weekends and holidays
+        if (!tradingCalendar.isTradingDay(date)) {
+            throw new RuntimeException("No bar for date " + date + ": market closed");
+        }
 
-        // 3) call FastAPI /bars
+        // 2) call FastAPI /bars
         LocalDate start = date;
         LocalDate end   = date.plusDays(1);
         String url = String.format(
@@ -67,7 +180,7 @@ public class DailyPriceServiceImpl implements DailyPriceService {
                 fastApiBaseUrl, symbol, start, end
         );
 
-        ResponseEntity<BarDataDto> resp = rest.exchange(url, HttpMethod.GET, entity, BarDataDto.class);
+        ResponseEntity<BarDataDto> resp = upstream("bars", url, BarDataDto.class);
         BarDataDto barData = resp.getBody();
         if (barData == null) {
             throw new RuntimeException("No response from bars API for " + symbol);
@@ -89,10 +202,10 @@ public class DailyPriceServiceImpl implements DailyPriceService {
                 .findFirst()
                 .orElseThrow(() -> new RuntimeException("No bar for date " + date));
 
-        // 6) save to DB and return
-        DailyPriceDto dto = new DailyPriceDto(symbol, date, BigDecimal.valueOf(match.getClose()));
-        save(dto);
-        return dto;
+        // 6) save the full bar to DB and return
+        DailyPrice saved = toDailyPrice(symbol, date, match);
+        repo.save(saved);
+        return new DailyPriceDto(symbol, date, saved.getClosingPrice());
     }
 
     @Override
@@ -114,13 +227,11 @@ public class DailyPriceServiceImpl implements DailyPriceService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<DailyPriceDto> findRange(String symbol, LocalDate start, LocalDate end) {
         // 1) Bulk-load any already-cached prices
         List<DailyPrice> cached = repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc(symbol, start, end);
 
-        // Convert to DTOs and track which dates we have
-        Set<LocalDate> haveDates = cached.stream().map(e -> e.getId().getDate()).collect(Collectors.toSet());
-
         List<DailyPriceDto> result = cached.stream()
                 .map(e -> new DailyPriceDto(
                         e.getId().getSymbol(),
@@ -129,47 +240,50 @@ public class DailyPriceServiceImpl implements DailyPriceService {
                 ))
                 .collect(Collectors.toList());
 
-        // 2) Compute which dates are missing
-        List<LocalDate> missing = new ArrayList<>();
-        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
-            if (!haveDates.contains(d)) {
-                missing.add(d);
-            }
+        // 2) Compute which sessions are missing: weekends, holidays, sessions that haven't
+        //    closed yet and known no-bar sessions are never fetched
+        LocalDate lastSession = tradingCalendar.lastCompletedSession(clock.instant());
+        LocalDate sessionsEnd = end.isAfter(lastSession) ? lastSession : end;
+        MissingSessions missing = new MissingSessions(tradingCalendar.sessionsBetween(start, sessionsEnd));
+        cached.forEach(e -> missing.markPresent(e.getId().getDate()));
+        if (!missing.isEmpty()) {
+            missing.markPresent(gapRepo.findByIdSymbolAndIdDateBetweenAndExpiresAtAfter(
+                            symbol, start, sessionsEnd, clock.instant()).stream()
+                    .map(DailyPriceGap::getDate)
+                    .toList());
         }
 
         if (!missing.isEmpty()) {
-            // 3) Fetch full range once from FastAPI
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("X-ACCESS-KEY", fastApiAccessKey);
-            HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-            String url = String.format(
-                    "%s/bars/%s?start_date=%s&end_date=%s&timeframe=1Day",
-                    fastApiBaseUrl, symbol, start, end
-            );
-
-            ResponseEntity<BarDataDto> resp = rest.exchange(url, HttpMethod.GET, entity, BarDataDto.class);
-            BarDataDto barData = resp.getBody();
-            if (barData == null || barData.getBars() == null) {
-                throw new RuntimeException("Failed to fetch bar data for " + symbol);
-            }
-
-            List<BarDto> bars = barData.getBars().getOrDefault(symbol, Collections.emptyList());
+            // 3) Fetch only the holes, one request per contiguous run, in parallel when there are several
+            List<BarDto> bars = fetchDailyBars(symbol, missing.ranges(maxRangesPerRequest));
 
             // 4) For each returned bar whose date is missing, create an entity + DTO
             List<DailyPrice> toSave = new ArrayList<>();
             for (BarDto b : bars) {
                 LocalDate barDate = b.getTimestamp().atZone(ZoneOffset.UTC).toLocalDate();
-                if (missing.contains(barDate)) {
-                    DailyPriceId dpId = new DailyPriceId(symbol, barDate);
-                    DailyPrice priceEntity = new DailyPrice(dpId, BigDecimal.valueOf(b.getClose()));
+                if (missing.markPresent(barDate)) {
+                    DailyPrice priceEntity = toDailyPrice(symbol, barDate, b);
                     toSave.add(priceEntity);
                     result.add(new DailyPriceDto(symbol, barDate, priceEntity.getClosingPrice()));
                 }
             }
 
-            // 5) Persist all new ones in one batch
+            // 5) Persist all new ones in one batch, and remember sessions upstream has no bar for.
+            //    Only a session with bars on both sides counts, so an empty or cut-short response
+            //    isn't taken as "no bar"; the latest session is left out since its bar may simply
+            //    not be published yet. Gaps expire in case upstream backfills them.
             repo.saveAll(toSave);
+            if (!bars.isEmpty()) {
+                TreeSet<LocalDate> barDates = new TreeSet<>();
+                cached.forEach(e -> barDates.add(e.getId().getDate()));
+                bars.forEach(b -> barDates.add(b.getTimestamp().atZone(ZoneOffset.UTC).toLocalDate()));
+                Instant expiresAt = clock.instant().plusMillis(gapTtlMs);
+                for (LocalDate date : missing.dates()) {
+                    if (date.isBefore(lastSession) && barDates.lower(date) != null && barDates.higher(date) != null) {
+                        gapRepo.record(symbol, date, expiresAt);
+                    }
+                }
+            }
         }
 
         // 6) Sort by date and return
@@ -177,22 +291,103 @@ public class DailyPriceServiceImpl implements DailyPriceService {
         return result;
     }
 
+    private List<BarDto> fetchDailyBars(String symbol, List<MissingSessions.Range> ranges) {
+        if (ranges.size() == 1) {
+            return fetchDailyBars(symbol, ranges.get(0));
+        }
+
+        // the pool threads make the calls, so carry the caller's priority over
+        UpstreamPriority priority = UpstreamPriority.current();
+        List<CompletableFuture<List<BarDto>>> pending = new ArrayList<>(ranges.size());
+        for (MissingSessions.Range range : ranges) {
+            Supplier<List<BarDto>> fetch = () -> fetchDailyBars(symbol, range);
+            Supplier<List<BarDto>> task = priority != null ? () -> priority.call(fetch) : fetch;
+            pending.add(marketDataExecutor.supplyAsync(task, barsDeadlineMs, null));
+        }
+
+        List<BarDto> bars = new ArrayList<>();
+        for (CompletableFuture<List<BarDto>> future : pending) {
+            List<BarDto> rangeBars = future.join();
+            if (rangeBars == null) {
+                throw new RuntimeException("Failed to fetch bar data for " + symbol);
+            }
+            bars.addAll(rangeBars);
+        }
+        return bars;
+    }
+
+    private List<BarDto> fetchDailyBars(String symbol, MissingSessions.Range range) {
+        BarDataDto barData = requestBars(symbol, "1Day", range.start(), range.end().plusDays(1));
+        if (barData == null || barData.getBars() == null) {
+            throw new RuntimeException("Failed to fetch bar data for " + symbol);
+        }
+
+        return barData.getBars().getOrDefault(symbol, Collections.emptyList());
+    }
+
+    /**
+     * Calls FastAPI /bars for {@code start <= t < end}; the body may be null. Dates mean
+     * midnight, and date-times are naive UTC as FastAPI passes them straight to Alpaca.
+     */
+    private BarDataDto requestBars(String symbol, String timeframe, Temporal start, Temporal end) {
+        String url = String.format(
+                "%s/bars/%s?start_date=%s&end_date=%s&timeframe=%s",
+                fastApiBaseUrl, symbol, start, end, timeframe
+        );
+
+        ResponseEntity<BarDataDto> resp = upstream("bars", url, BarDataDto.class);
+        return resp.getBody();
+    }
+
+    private static DailyPrice toDailyPrice(String symbol, LocalDate date, BarDto b) {
+        return new DailyPrice(
+                new DailyPriceId(symbol, date),
+                BigDecimal.valueOf(b.getOpen()),
+                BigDecimal.valueOf(b.getHigh()),
+                BigDecimal.valueOf(b.getLow()),
+                BigDecimal.valueOf(b.getClose()),
+                Math.round(b.getVolume()),
+                Math.round(b.getTradeCount()),
+                BigDecimal.valueOf(b.getVwap()));
+    }
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TradeResponseDto getLatestTrade(String symbol) {
-        String url = String.format("%s/latest-trade/%s", fastApiBaseUrl, symbol);
+        String key = symbol.trim().toUpperCase();
+        TradeResponseDto quote;
+        try {
+            quote = quoteCache.get(key, this::fetchLatestTrade);
+        } catch (UpstreamBudgetExceededException e) {
+            // shed by the budget: an older quote still beats an error
+            TradeResponseDto last = lastQuotes.get(key);
+            if (last == null) {
+                throw e;
+            }
+            return staleCopy(last);
+        }
+        if (quote != null) {
+            return quote;
+        }
+        // upstream failed or its circuit is open: fall back to the last quote we had
+        TradeResponseDto last = lastQuotes.get(key);
+        return last != null ? staleCopy(last) : null;
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+    private TradeResponseDto fetchLatestTrade(String symbol) {
+        String url = String.format("%s/latest-trade/%s", fastApiBaseUrl, symbol);
 
         try {
-            ResponseEntity<TradeResponseDto> resp = rest.exchange(url, HttpMethod.GET, entity, TradeResponseDto.class);
+            ResponseEntity<TradeResponseDto> resp = upstream("latest-trade", url, TradeResponseDto.class);
 
             if (!resp.getStatusCode().is2xxSuccessful() || resp.getBody() == null) {
                 return null;
             }
 
+            lastQuotes.put(symbol, resp.getBody());
             return resp.getBody();
+        } catch (UpstreamBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             // Return null on FastAPI failure (transient errors like SSL issues)
             return null;
@@ -200,120 +395,443 @@ public class DailyPriceServiceImpl implements DailyPriceService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, TradeResponseDto> getLatestTrades(Collection<String> symbols) {
+        Map<String, TradeResponseDto> result = new LinkedHashMap<>();
+        Set<String> misses = new LinkedHashSet<>();
+
+        // 1) serve whatever the quote cache already has
+        for (String raw : symbols) {
+            String symbol = raw.trim().toUpperCase();
+            if (symbol.isEmpty() || result.containsKey(symbol) || misses.contains(symbol)) {
+                continue;
+            }
+            TradeResponseDto cached = quoteCache.getIfPresent(symbol);
+            if (cached != null) {
+                result.put(symbol, cached);
+            } else {
+                misses.add(symbol);
+            }
+        }
+
+        // 2) one upstream round trip per batch the route accepts
+        fetchInto(misses, result);
+        return result;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, TradeResponseDto> refreshLatestTrades(Collection<String> symbols) {
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String raw : symbols) {
+            String symbol = raw.trim().toUpperCase();
+            if (!symbol.isEmpty()) {
+                normalized.add(symbol);
+            }
+        }
+        Map<String, TradeResponseDto> result = new LinkedHashMap<>();
+        fetchInto(normalized, result);
+        return result;
+    }
+
+    /** Fetches {@code symbols} upstream in batches, refreshing the quote cache with whatever comes back. */
+    private void fetchInto(Set<String> symbols, Map<String, TradeResponseDto> result) {
+        if (symbols.isEmpty()) {
+            return;
+        }
+        List<String> pendingSymbols = new ArrayList<>(symbols);
+        for (int from = 0; from < pendingSymbols.size(); from += MAX_BATCH_SYMBOLS) {
+            List<String> batch = pendingSymbols.subList(from, Math.min(from + MAX_BATCH_SYMBOLS, pendingSymbols.size()));
+            Map<String, TradeResponseDto> fetched;
+            try {
+                fetched = fetchLatestTrades(batch);
+            } catch (CircuitOpenException | UpstreamBudgetExceededException e) {
+                // upstream is down or we're out of budget: fanning out per symbol would only make it worse
+                serveLastQuotes(batch, result, e);
+                continue;
+            }
+            if (fetched != null) {
+                fetched.forEach((symbol, quote) -> {
+                    quoteCache.put(symbol, quote);
+                    lastQuotes.put(symbol, quote);
+                    result.put(symbol, quote);
+                });
+            } else {
+                fanOut(batch, result);
+            }
+        }
+    }
+
+    /** Batch route unavailable: fetch each quote on its own, each with its own deadline. */
+    private void fanOut(Collection<String> symbols, Map<String, TradeResponseDto> result) {
+        Map<String, CompletableFuture<TradeResponseDto>> pending = new LinkedHashMap<>();
+        UpstreamPriority priority = UpstreamPriority.current();
+        for (String symbol : symbols) {
+            // the pool threads make the calls, so carry the caller's priority over
+            Supplier<TradeResponseDto> quote = () -> getLatestTrade(symbol);
+            Supplier<TradeResponseDto> task = priority != null ? () -> priority.call(quote) : quote;
+            pending.put(symbol, marketDataExecutor.supplyAsync(task, quoteDeadlineMs, null));
+        }
+        pending.forEach((symbol, future) -> {
+            TradeResponseDto quote = future.join();
+            if (quote != null) {
+                result.put(symbol, quote);
+            }
+        });
+    }
+
+    /** Same fallback as {@link #getLatestTrade}: the last quote we had, flagged stale. */
+    private void serveLastQuotes(Collection<String> symbols, Map<String, TradeResponseDto> result,
+                                 RuntimeException cause) {
+        for (String symbol : symbols) {
+            TradeResponseDto last = lastQuotes.get(symbol);
+            if (last != null) {
+                result.put(symbol, staleCopy(last));
+            } else if (cause instanceof UpstreamBudgetExceededException) {
+                throw cause;
+            }
+        }
+    }
+
+    private static TradeResponseDto staleCopy(TradeResponseDto quote) {
+        TradeResponseDto copy = new TradeResponseDto();
+        copy.setPrice(quote.getPrice());
+        copy.setTimestamp(quote.getTimestamp());
+        copy.setVolume(quote.getVolume());
+        copy.setStale(true);
+        return copy;
+    }
+
+    /**
+     * Returns {@code null} when the batch call itself failed, as opposed to symbols simply having no trade.
+     * An open circuit or a spent budget is thrown rather than reported as a failure.
+     */
+    private Map<String, TradeResponseDto> fetchLatestTrades(Collection<String> symbols) {
+        String url = String.format("%s/latest-trades?symbols=%s", fastApiBaseUrl, String.join(",", symbols));
+
+        try {
+            ResponseEntity<LatestTradesDto> resp = upstream("latest-trades", url, LatestTradesDto.class);
+
+            if (!resp.getStatusCode().is2xxSuccessful() || resp.getBody() == null) {
+                return null;
+            }
+
+            // Symbols without a price are simply absent, same as getLatestTrade returning null
+            Map<String, TradeResponseDto> trades = resp.getBody().getTrades();
+            return trades != null ? trades : Collections.emptyMap();
+        } catch (CircuitOpenException | UpstreamBudgetExceededException e) {
+            throw e;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MarketStatusDto fetchMarketStatus() {
         String url = String.format("%s/market-status", fastApiBaseUrl);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<MarketStatusDto> resp = rest.exchange(url, HttpMethod.GET, entity, MarketStatusDto.class);
+        ResponseEntity<MarketStatusDto> resp = upstream("market-status", url, MarketStatusDto.class);
 
         if(!resp.getStatusCode().is2xxSuccessful()) {
             throw new RuntimeException("Failed to fetch market status: HTTP " + resp.getStatusCode());
         }
 
+        if (resp.getBody() != null) {
+            marketClock.update(resp.getBody());
+        }
         return resp.getBody();
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MarketStatusDto getMarketStatus() {
+        // Only go upstream on first use or once the cached open/close boundary has passed
+        if (marketClock.needsRefresh()) {
+            synchronized (marketStatusLock) {
+                if (marketClock.needsRefresh()) {
+                    try {
+                        fetchMarketStatus();
+                    } catch (RuntimeException e) {
+                        // the local clock has already flipped at the boundary, so keep serving it
+                        if (marketClock.current() == null) {
+                            throw e;
+                        }
+                    }
+                }
+            }
+        }
+        return marketClock.current();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PriceDataDto> findByPeriod(String symbol, TimePeriod period) {
-        ZoneId nyZone = ZoneId.of("America/New_York");
-        LocalDateTime now = LocalDateTime.now(nyZone);
-        LocalDateTime start;
+        return findByPeriod(symbol, period, defaultMaxPoints);
+    }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PriceDataDto> findByPeriod(String symbol, TimePeriod period, int maxPoints) {
+        ZoneId nyZone = TradingCalendar.EXCHANGE_ZONE;
+        LocalDateTime now = LocalDateTime.now(clock.withZone(nyZone));
+        LocalDate today = now.toLocalDate();
+
+        // For intraday, start from today's session; otherwise whole sessions going back daysBack
+        LocalDate start = period == TimePeriod.ONE_DAY
+                ? today
+                : now.minusDays(period.getDaysBack()).toLocalDate();
+
+        // Closing price by bar timestamp, served from the local store first
+        SortedMap<Instant, BigDecimal> closes = DAILY_TIMEFRAME.equals(period.getTimeframe())
+                ? dailyCloses(symbol, start, now)
+                : intradayCloses(symbol, period.getTimeframe(), start, today);
+
+        // Serve the last good series, flagged stale, rather than a blank chart while upstream is down
+        String chartKey = symbol + "|" + period;
+        boolean stale = circuitBreakers.isOpen("bars");
+        if (closes.isEmpty()) {
+            SortedMap<Instant, BigDecimal> last = lastCharts.get(chartKey);
+            if (last != null) {
+                closes = last;
+                stale = true;
+            }
+        } else if (!stale) {
+            lastCharts.put(chartKey, closes);
+        }
+
+        // Choose date format based on period
+        DateTimeFormatter formatter;
         if (period == TimePeriod.ONE_DAY) {
-            // For intraday, start from market open (9:30 AM) today
-            start = now.toLocalDate().atTime(9, 30);
+            formatter = DateTimeFormatter.ofPattern("h:mm a");
         } else {
-            start = now.minusDays(period.getDaysBack());
+            formatter = DateTimeFormatter.ofPattern("M/d");
         }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        // Downsample on primitive arrays so only the points we keep get a DTO and a label
+        int n = closes.size();
+        long[] x = new long[n];
+        double[] y = new double[n];
+        BigDecimal[] prices = new BigDecimal[n];
+        int i = 0;
+        for (Map.Entry<Instant, BigDecimal> e : closes.entrySet()) {
+            x[i] = e.getKey().toEpochMilli();
+            y[i] = e.getValue().doubleValue();
+            prices[i++] = e.getValue();
+        }
 
-        String url = String.format(
-                "%s/bars/%s?start_date=%s&end_date=%s&timeframe=%s",
-                fastApiBaseUrl, symbol,
-                start.toLocalDate(),
-                now.toLocalDate().plusDays(1),
-                period.getTimeframe()
-        );
+        List<PriceDataDto> points = new ArrayList<>(Math.min(n, maxPoints));
+        for (int k : ChartDownsampler.lttb(x, y, maxPoints)) {
+            Instant ts = Instant.ofEpochMilli(x[k]);
+            PriceDataDto point = new PriceDataDto(symbol, ts, formatter.format(ts.atZone(nyZone)), prices[k]);
+            point.setStale(stale);
+            points.add(point);
+        }
+        return points;
+    }
+
+    private SortedMap<Instant, BigDecimal> dailyCloses(String symbol, LocalDate start, LocalDateTime now) {
+        ZoneId nyZone = TradingCalendar.EXCHANGE_ZONE;
+        LocalDate today = now.toLocalDate();
+
+        List<DailyPriceDto> days;
+        try {
+            days = findRange(symbol, start, today);
+        } catch (RuntimeException e) {
+            // upstream unavailable: serve whatever is already stored
+            days = repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc(symbol, start, today).stream()
+                    .map(d -> new DailyPriceDto(d.getId().getSymbol(), d.getId().getDate(), d.getClosingPrice()))
+                    .toList();
+        }
+
+        // daily bars are stamped at midnight exchange time
+        SortedMap<Instant, BigDecimal> closes = new TreeMap<>();
+        days.forEach(d -> closes.put(d.getDate().atStartOfDay(nyZone).toInstant(), d.getClosingPrice()));
+
+        // A session in progress has no stored bar yet; use the (cached) latest trade as its close so far
+        Instant todayKey = today.atStartOfDay(nyZone).toInstant();
+        if (tradingCalendar.isTradingDay(today) && !now.toLocalTime().isBefore(SESSION_OPEN)
+                && !closes.containsKey(todayKey)) {
+            TradeResponseDto latest = getLatestTrade(symbol);
+            if (latest != null) {
+                closes.put(todayKey, BigDecimal.valueOf(latest.getPrice()));
+            }
+        }
+        return closes;
+    }
+
+    private SortedMap<Instant, BigDecimal> intradayCloses(String symbol, String timeframe,
+                                                          LocalDate start, LocalDate today) {
+        ZoneId nyZone = TradingCalendar.EXCHANGE_ZONE;
+        // Every intraday chart is built from the same base series and rolled up locally,
+        // so switching between the 1D and 1W tabs never refetches what one already loaded
+        BarTimeframe target = BarTimeframe.fromLabel(timeframe);
+        BarTimeframe base = target.isFinerThan(INTRADAY_BASE) ? target : INTRADAY_BASE;
+        List<BarDto> bars = new ArrayList<>();
+
+        // 1) completed sessions already stored locally
+        Set<LocalDate> covered = intradayBars.coveredSessions(symbol, base.getLabel(), start, today);
+        if (!covered.isEmpty()) {
+            intradayBars.load(symbol, base.getLabel(),
+                            start.atStartOfDay(nyZone).toInstant(),
+                            today.plusDays(1).atStartOfDay(nyZone).toInstant())
+                    .forEach(b -> bars.add(toBarDto(b)));
+        }
+
+        // 2) one upstream request for the closed sessions we don't have yet
+        LocalDate lastSession = tradingCalendar.lastCompletedSession(clock.instant());
+        List<LocalDate> uncovered = tradingCalendar.sessionsBetween(start, today).stream()
+                .filter(d -> !covered.contains(d) && !d.isAfter(lastSession))
+                .toList();
+        if (!uncovered.isEmpty()) {
+            bars.addAll(fetchCompletedSessions(symbol, base, uncovered));
+        }
+
+        // 3) the session in progress comes from the tail-refreshed series cache
+        if (tradingCalendar.isTradingDay(today) && today.isAfter(lastSession)) {
+            bars.addAll(intradaySeries.get(symbol, base.getLabel(), today,
+                    from -> fetchSessionTail(symbol, base.getLabel(), today, from)));
+        }
+
+        BarSeries series = BarAggregator.rollUp(BarSeries.of(bars), base, target);
+        SortedMap<Instant, BigDecimal> closes = new TreeMap<>();
+        for (int i = 0; i < series.size(); i++) {
+            closes.put(series.timestamp(i), BigDecimal.valueOf(series.close(i)));
+        }
+        return closes;
+    }
+
+    /** Fetches, stores and returns base-timeframe bars for {@code sessions}; empty on upstream failure. */
+    private List<BarDto> fetchCompletedSessions(String symbol, BarTimeframe base, List<LocalDate> sessions) {
+        ZoneId nyZone = TradingCalendar.EXCHANGE_ZONE;
+        Set<LocalDate> wanted = new HashSet<>(sessions);
 
         BarDataDto barData;
         try {
-            ResponseEntity<BarDataDto> resp = rest.exchange(url, HttpMethod.GET, entity, BarDataDto.class);
-            barData = resp.getBody();
+            barData = requestBars(symbol, base.getLabel(),
+                    sessions.get(0), sessions.get(sessions.size() - 1).plusDays(1));
         } catch (Exception e) {
-            // Log and return empty on FastAPI failure (transient errors like SSL issues)
+            // transient upstream failure (e.g. SSL issues): serve what we have
             return Collections.emptyList();
         }
-
         if (barData == null || barData.getBars() == null) {
             return Collections.emptyList();
         }
 
-        List<BarDto> bars = barData.getBars().getOrDefault(symbol, Collections.emptyList());
+        // normalize to the base size in case upstream sent finer bars, then store by session
+        List<BarDto> fetched = barData.getBars().getOrDefault(symbol, Collections.emptyList()).stream()
+                .filter(b -> wanted.contains(b.getTimestamp().atZone(nyZone).toLocalDate()))
+                .toList();
+        List<BarDto> normalized = BarAggregator.rollUp(BarSeries.of(fetched), base, base).toBars(symbol);
 
-        // Choose date format based on period
-        DateTimeFormatter formatter;
-        if (period == TimePeriod.ONE_DAY) {
-            formatter = DateTimeFormatter.ofPattern("h:mm a");
-        } else {
-            formatter = DateTimeFormatter.ofPattern("M/d");
+        Map<LocalDate, List<BarDto>> completed = new TreeMap<>();
+        for (BarDto b : normalized) {
+            completed.computeIfAbsent(b.getTimestamp().atZone(nyZone).toLocalDate(), d -> new ArrayList<>()).add(b);
+        }
+        if (!completed.isEmpty()) {
+            try {
+                intradayBars.saveSessions(symbol, base.getLabel(), completed);
+            } catch (DataAccessException e) {
+                // a concurrent request stored the same sessions first
+            }
         }
+        return normalized;
+    }
 
-        return bars.stream()
-                .map(bar -> new PriceDataDto(
-                        symbol,
-                        bar.getTimestamp(),
-                        formatter.format(bar.getTimestamp().atZone(nyZone)),
-                        BigDecimal.valueOf(bar.getClose())
-                ))
-                .sorted(Comparator.comparing(PriceDataDto::getTimestamp))
-                .toList();
+    private static BarDto toBarDto(IntradayBar b) {
+        BarDto dto = new BarDto();
+        dto.setSymbol(b.getSymbol());
+        dto.setTimestamp(b.getTimestamp());
+        dto.setOpen(b.getOpenPrice().doubleValue());
+        dto.setHigh(b.getHighPrice().doubleValue());
+        dto.setLow(b.getLowPrice().doubleValue());
+        dto.setClose(b.getClosePrice().doubleValue());
+        dto.setVolume(b.getVolume());
+        dto.setTradeCount(b.getTradeCount());
+        dto.setVwap(b.getVwap() != null ? b.getVwap().doubleValue() : b.getClosePrice().doubleValue());
+        return dto;
+    }
+
+    /** Bars of {@code session} from {@code from} on (the whole session when null); null on failure. */
+    private List<BarDto> fetchSessionTail(String symbol, String timeframe, LocalDate session, Instant from) {
+        Temporal start = from != null ? LocalDateTime.ofInstant(from, ZoneOffset.UTC) : session;
+        try {
+            BarDataDto barData = requestBars(symbol, timeframe, start, session.plusDays(1));
+            if (barData == null || barData.getBars() == null) {
+                return null;
+            }
+            return barData.getBars().getOrDefault(symbol, Collections.emptyList()).stream()
+                    .filter(b -> b.getTimestamp().atZone(TradingCalendar.EXCHANGE_ZONE).toLocalDate().equals(session))
+                    .toList();
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StockSearchResultDto searchStocks(String query, int limit) {
         if (query == null || query.trim().isEmpty()) {
             return new StockSearchResultDto(Collections.emptyList());
         }
 
-        String url = String.format("%s/search/%s?limit=%d", fastApiBaseUrl, query.trim(), limit);
+        // served from the in-memory catalog; upstream search only until it has loaded once
+        if (symbolCatalog.isLoaded()) {
+            return new StockSearchResultDto(symbolCatalog.search(query, limit));
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        String url = String.format("%s/search/%s?limit=%d", fastApiBaseUrl, query.trim(), limit);
 
         try {
-            ResponseEntity<StockSearchResultDto> resp = rest.exchange(
-                    url, HttpMethod.GET, entity, StockSearchResultDto.class);
+            ResponseEntity<StockSearchResultDto> resp = upstream("search", url, StockSearchResultDto.class);
             return resp.getBody() != null ? resp.getBody() : new StockSearchResultDto(Collections.emptyList());
+        } catch (UpstreamBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return new StockSearchResultDto(Collections.emptyList());
         }
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int refreshSymbolCatalog() {
+        String url = String.format("%s/assets", fastApiBaseUrl);
+        AssetCatalogDto catalog = upstream("assets", url, AssetCatalogDto.class).getBody();
+        if (catalog == null || catalog.getAssets() == null) {
+            throw new RuntimeException("No response from assets API");
+        }
+        symbolCatalog.update(catalog.getAssets());
+        return symbolCatalog.size();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public StockValidationDto validateSymbol(String symbol) {
         if (symbol == null || symbol.trim().isEmpty()) {
             return StockValidationDto.invalid("Symbol cannot be empty");
         }
 
-        String url = String.format("%s/validate/%s", fastApiBaseUrl, symbol.trim().toUpperCase());
+        String normalized = symbol.trim().toUpperCase();
+
+        // answered in-process for anything listed, or recently confirmed unknown
+        StockSuggestionDto listed = symbolCatalog.get(normalized);
+        if (listed != null) {
+            return StockValidationDto.valid(listed.getSymbol(), listed.getName(), listed.getExchange());
+        }
+        if (symbolCatalog.isKnownUnknown(normalized)) {
+            return StockValidationDto.invalid("Stock symbol '" + symbol.toUpperCase() + "' not found");
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-ACCESS-KEY", fastApiAccessKey);
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
+        String url = String.format("%s/validate/%s", fastApiBaseUrl, normalized);
 
         try {
-            ResponseEntity<StockValidationDto> resp = rest.exchange(
-                    url, HttpMethod.GET, entity, StockValidationDto.class);
+            ResponseEntity<StockValidationDto> resp = upstream("validate", url, StockValidationDto.class);
             return resp.getBody() != null ? resp.getBody() : StockValidationDto.invalid("Failed to validate symbol");
         } catch (HttpClientErrorException.NotFound e) {
+            symbolCatalog.markUnknown(normalized);
             return StockValidationDto.invalid("Stock symbol '" + symbol.toUpperCase() + "' not found");
+        } catch (UpstreamBudgetExceededException e) {
+            throw e;
         } catch (Exception e) {
             return StockValidationDto.invalid("Failed to validate symbol. Please try again.");
         }
@@ -0,0 +1,149 @@
+package org.bhargavguntupalli.tradingsandboxapi.services.impl;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.OrderRequestDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
+import org.bhargavguntupalli.tradingsandboxapi.models.*;
+import org.bhargavguntupalli.tradingsandboxapi.orders.OrderEngine;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.OrderRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.UserRepository;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.bhargavguntupalli.tradingsandboxapi.services.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OrderServiceImpl implements OrderService {
+
+    private final OrderRepository orderRepo;
+    private final UserRepository userRepo;
+    private final DailyPriceService dailyPriceService;
+    private final OrderEngine orderEngine;
+    private final TransactionTemplate tx;
+    private final int maxOpenPerUser;
+
+    public OrderServiceImpl(OrderRepository orderRepo,
+                            UserRepository userRepo,
+                            DailyPriceService dailyPriceService,
+                            OrderEngine orderEngine,
+                            PlatformTransactionManager txManager,
+                            @Value("${orders.max-open-per-user:500}") int maxOpenPerUser) {
+        this.orderRepo = orderRepo;
+        this.userRepo = userRepo;
+        this.dailyPriceService = dailyPriceService;
+        this.orderEngine = orderEngine;
+        this.tx = new TransactionTemplate(txManager);
+        this.maxOpenPerUser = maxOpenPerUser;
+    }
+
+    @Override
+    public OrderDto placeOrder(String username, OrderRequestDto request) {
+        String symbol = request.getSymbol().toUpperCase().trim();
+        validatePrices(request);
+        if (request.getOrderType() == OrderType.MARKET_ON_OPEN) {
+            MarketStatusDto marketStatus = UpstreamPriority.TRADE.call(dailyPriceService::getMarketStatus);
+            if (marketStatus != null && marketStatus.isOpen()) {
+                throw new IllegalStateException("Market is open; place a market order instead.");
+            }
+        }
+        if (!dailyPriceService.validateSymbol(symbol).isValid()) {
+            throw new IllegalArgumentException("Unknown symbol " + symbol);
+        }
+
+        Order order = tx.execute(status -> {
+            User user = userRepo.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            if (orderRepo.countByUserAndStatus(user, OrderStatus.OPEN) >= maxOpenPerUser) {
+                throw new IllegalArgumentException("You can have at most " + maxOpenPerUser + " open orders");
+            }
+
+            Order o = new Order();
+            o.setUser(user);
+            o.setSymbol(symbol);
+            o.setSide(request.getSide());
+            o.setOrderType(request.getOrderType());
+            o.setQuantity(request.getQuantity());
+            o.setLimitPrice(needsLimit(request.getOrderType()) ? request.getLimitPrice() : null);
+            o.setStopPrice(needsStop(request.getOrderType()) ? request.getStopPrice() : null);
+            o.setStatus(OrderStatus.OPEN);
+            o.setCreatedAt(LocalDateTime.now());
+            return orderRepo.save(o);
+        });
+
+        // only once committed, so a trigger never looks for an order that isn't there yet
+        orderEngine.rest(order);
+        return toDto(order);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderDto> getOrders(String username) {
+        User user = userRepo.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username));
+        return orderRepo.findByUserOrderByCreatedAtDesc(user).stream().map(OrderServiceImpl::toDto).toList();
+    }
+
+    @Override
+    public OrderDto cancelOrder(String username, Long orderId) {
+        Order order = tx.execute(status -> {
+            Order o = orderRepo.findWithUserByIdIn(List.of(orderId)).stream()
+                    .filter(found -> found.getUser().getUsername().equals(username))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Order " + orderId + " not found"));
+            LocalDateTime now = LocalDateTime.now();
+            // conditional, so a fill racing the cancel wins cleanly one way or the other
+            if (orderRepo.close(orderId, OrderStatus.CANCELLED, now, null) == 0) {
+                throw new IllegalStateException("Order " + orderId + " is no longer open");
+            }
+            o.setStatus(OrderStatus.CANCELLED);
+            o.setClosedAt(now);
+            return o;
+        });
+
+        orderEngine.cancel(order);
+        return toDto(order);
+    }
+
+    private static void validatePrices(OrderRequestDto request) {
+        if (needsLimit(request.getOrderType()) && request.getLimitPrice() == null) {
+            throw new IllegalArgumentException(request.getOrderType() + " orders need a limitPrice");
+        }
+        if (needsStop(request.getOrderType()) && request.getStopPrice() == null) {
+            throw new IllegalArgumentException(request.getOrderType() + " orders need a stopPrice");
+        }
+    }
+
+    private static boolean needsLimit(OrderType type) {
+        return type == OrderType.LIMIT || type == OrderType.STOP_LIMIT;
+    }
+
+    private static boolean needsStop(OrderType type) {
+        return type == OrderType.STOP || type == OrderType.STOP_LIMIT;
+    }
+
+    private static OrderDto toDto(Order o) {
+        OrderDto dto = new OrderDto();
+        dto.setId(o.getId());
+        dto.setSymbol(o.getSymbol());
+        dto.setSide(o.getSide().name());
+        dto.setOrderType(o.getOrderType().name());
+        dto.setQuantity(o.getQuantity());
+        dto.setLimitPrice(o.getLimitPrice());
+        dto.setStopPrice(o.getStopPrice());
+        dto.setStopTriggered(o.isStopTriggered());
+        dto.setStatus(o.getStatus().name());
+        dto.setCreatedAt(o.getCreatedAt());
+        dto.setClosedAt(o.getClosedAt());
+        dto.setTradeId(o.getTradeId());
+        dto.setRejectReason(o.getRejectReason());
+        return dto;
+    }
+}
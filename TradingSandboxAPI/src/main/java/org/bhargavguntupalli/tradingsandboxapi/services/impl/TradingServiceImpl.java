@@ -1,53 +1,125 @@
 package org.bhargavguntupalli.tradingsandboxapi.services.impl;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.bhargavguntupalli.tradingsandboxapi.dto.*;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
 import org.bhargavguntupalli.tradingsandboxapi.models.*;
+import org.bhargavguntupalli.tradingsandboxapi.orders.BasketPlan;
+import org.bhargavguntupalli.tradingsandboxapi.orders.BasketPlan.Lot;
+import org.bhargavguntupalli.tradingsandboxapi.orders.ExecutionLanes;
+import org.bhargavguntupalli.tradingsandboxapi.orders.IdempotencyIndex;
+import org.bhargavguntupalli.tradingsandboxapi.orders.TradeJournal;
+import org.bhargavguntupalli.tradingsandboxapi.portfolio.HoldingValuation;
+import org.bhargavguntupalli.tradingsandboxapi.portfolio.TradeExecutedEvent;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository.Position;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.OrderRepository;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.TradeRepository;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.UserRepository;
 import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
 import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 @Service
 public class TradingServiceImpl implements TradingService {
 
+    // a version conflict means another node just wrote the same rows; re-reading them almost always succeeds
+    private static final int MAX_ATTEMPTS = 3;
+
     private final UserRepository userRepo;
     private final HoldingRepository holdingRepo;
     private final TradeRepository tradeRepo;
+    private final OrderRepository orderRepo;
     private final DailyPriceService dailyPriceService;
+    private final ApplicationEventPublisher events;
+    private final ExecutionLanes lanes;
+    private final TradeJournal journal;
+    private final IdempotencyIndex idempotencyIndex;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readOnlyTx;
+    private final Counter marketExecuted;
+    private final Counter orderExecuted;
+    private final Counter openExecuted;
+    private final Counter basketExecuted;
+    private final Counter conflicts;
 
     public TradingServiceImpl(UserRepository userRepo,
                               HoldingRepository holdingRepo,
                               TradeRepository tradeRepo,
-                              DailyPriceService dailyPriceService) {
+                              OrderRepository orderRepo,
+                              DailyPriceService dailyPriceService,
+                              ApplicationEventPublisher events,
+                              ExecutionLanes lanes,
+                              TradeJournal journal,
+                              IdempotencyIndex idempotencyIndex,
+                              MeterRegistry registry,
+                              PlatformTransactionManager txManager) {
         this.userRepo = userRepo;
         this.holdingRepo = holdingRepo;
         this.tradeRepo = tradeRepo;
+        this.orderRepo = orderRepo;
         this.dailyPriceService = dailyPriceService;
+        this.events = events;
+        this.lanes = lanes;
+        this.journal = journal;
+        this.idempotencyIndex = idempotencyIndex;
+        this.tx = new TransactionTemplate(txManager);
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+
+        this.marketExecuted = Counter.builder("trade.executed").tag("source", "market").register(registry);
+        this.orderExecuted = Counter.builder("trade.executed").tag("source", "order").register(registry);
+        this.openExecuted = Counter.builder("trade.executed").tag("source", "open").register(registry);
+        this.basketExecuted = Counter.builder("trade.executed").tag("source", "basket").register(registry);
+        this.conflicts = Counter.builder("trade.conflicts").register(registry);
     }
 
     @Override
-    @Transactional
-    public TradeResultDto executeTrade(String username, TradeRequestDto request) {
+    public TradeResultDto executeTrade(String username, TradeRequestDto request, String idempotencyKey) {
+        // a retry of a trade that already went through is answered without quoting or trading again
+        TradeResultDto previous = previousResult(username, idempotencyKey);
+        if (previous != null) {
+            return previous;
+        }
+
+        // Upstream calls happen before the transaction so they never hold a pooled connection
         // 1) Check market status
-        MarketStatusDto marketStatus = dailyPriceService.fetchMarketStatus();
-        if (!marketStatus.isOpen()) {
-            throw new IllegalStateException("Market is currently closed. Trading is only available during market hours.");
+        MarketStatusDto marketStatus = UpstreamPriority.TRADE.call(dailyPriceService::getMarketStatus);
+        if (marketStatus == null || !marketStatus.isOpen()) {
+            throw new IllegalStateException("Market is currently closed. Trading is only available during market hours; "
+                    + "place a MARKET_ON_OPEN order to trade at the next open.");
         }
 
         // 2) Get current price
         String symbol = request.getSymbol().toUpperCase().trim();
-        TradeResponseDto latestTrade = dailyPriceService.getLatestTrade(symbol);
-        if (latestTrade == null) {
+        TradeResponseDto latestTrade = UpstreamPriority.TRADE.call(() -> dailyPriceService.getLatestTrade(symbol));
+        if (latestTrade == null || latestTrade.isStale()) {
+            // never fill an order at a last-known price from before an upstream outage
             throw new IllegalStateException("Unable to fetch current price for " + symbol + ". Please try again.");
         }
 
@@ -55,150 +127,460 @@ public class TradingServiceImpl implements TradingService {
         BigDecimal quantity = request.getQuantity();
         BigDecimal totalCost = price.multiply(quantity).setScale(4, RoundingMode.HALF_UP);
 
-        // 3) Get user
+        TradeResultDto result;
+        try {
+            result = lanes.run(username, () -> {
+                // a concurrent retry may have committed while this one was fetching its quote
+                TradeResultDto committed = previousResult(username, idempotencyKey);
+                if (committed != null) {
+                    return committed;
+                }
+                TradeResultDto executed = inJournal(status -> persistTrade(username, request.getType(),
+                        symbol, quantity, price, totalCost, idempotencyKey));
+                marketExecuted.increment();
+                return executed;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // the same key committed first on another node
+            result = previousResult(username, idempotencyKey);
+            if (result == null) {
+                throw e;
+            }
+        }
+        if (idempotencyKey != null) {
+            idempotencyIndex.put(username, idempotencyKey, result);
+        }
+        return result;
+    }
+
+    @Override
+    public BasketResultDto executeBasket(String username, BasketRequestDto request) {
+        BasketMode mode = request.getMode() != null ? request.getMode() : BasketMode.ALL_OR_NOTHING;
+        List<TradeRequestDto> legs = request.getTrades();
+
+        // one market-status check and one batched quote fetch for the whole basket
+        MarketStatusDto marketStatus = UpstreamPriority.TRADE.call(dailyPriceService::getMarketStatus);
+        if (marketStatus == null || !marketStatus.isOpen()) {
+            throw new IllegalStateException("Market is currently closed. Trading is only available during market hours.");
+        }
+        Set<String> symbols = new TreeSet<>();
+        for (TradeRequestDto leg : legs) {
+            symbols.add(leg.getSymbol().toUpperCase().trim());
+        }
+        Map<String, TradeResponseDto> quotes = UpstreamPriority.TRADE.call(() -> dailyPriceService.getLatestTrades(symbols));
+
+        BasketResultDto result = lanes.run(username, () -> inTransaction(status ->
+                persistBasket(username, legs, quotes, mode)));
+        basketExecuted.increment(result.getExecuted().size());
+        return result;
+    }
+
+    /**
+     * Checks every leg against an in-memory projection of the account, then applies
+     * the accepted legs with the same conditional updates as a single trade and
+     * writes the trade rows as one JDBC batch at commit.
+     */
+    private BasketResultDto persistBasket(String username, List<TradeRequestDto> legs,
+                                          Map<String, TradeResponseDto> quotes, BasketMode mode) {
         User user = userRepo.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
+        Map<String, Lot> lots = new HashMap<>();
+        for (Holding h : holdingRepo.findByUser(user)) {
+            lots.put(h.getSymbol(), new Lot(h.getQuantity(), h.getAverageCost()));
+        }
+        BasketPlan plan = new BasketPlan(user.getCashBalance(), lots);
 
-        // 4) Execute based on trade type
-        if (request.getType() == TradeType.BUY) {
-            executeBuy(user, symbol, quantity, price, totalCost);
-        } else {
-            executeSell(user, symbol, quantity, price, totalCost);
+        List<Trade> trades = new ArrayList<>();
+        List<BasketRejectionDto> rejected = new ArrayList<>();
+        Map<String, BigDecimal> lastPrice = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < legs.size(); i++) {
+            TradeRequestDto leg = legs.get(i);
+            String symbol = leg.getSymbol().toUpperCase().trim();
+            TradeResponseDto quote = quotes.get(symbol);
+            String reason;
+            BigDecimal price = null;
+            BigDecimal totalCost = null;
+            if (quote == null || quote.isStale()) {
+                reason = "Unable to fetch current price for " + symbol;
+            } else {
+                price = BigDecimal.valueOf(quote.getPrice()).setScale(4, RoundingMode.HALF_UP);
+                totalCost = price.multiply(leg.getQuantity()).setScale(4, RoundingMode.HALF_UP);
+                reason = plan.apply(leg.getType(), symbol, leg.getQuantity(), price, totalCost);
+            }
+            if (reason != null) {
+                if (mode == BasketMode.ALL_OR_NOTHING) {
+                    throw new IllegalArgumentException("Basket rejected at trade " + (i + 1) + " (" + symbol + "): " + reason);
+                }
+                rejected.add(new BasketRejectionDto(i, symbol, reason));
+                continue;
+            }
+
+            Trade trade = new Trade();
+            trade.setUser(user);
+            trade.setSymbol(symbol);
+            trade.setType(leg.getType());
+            trade.setQuantity(leg.getQuantity());
+            trade.setPricePerShare(price);
+            trade.setTotalCost(totalCost);
+            trade.setExecutedAt(now);
+            trade.setRemainingCashBalance(plan.cash());
+            trades.add(trade);
+            lastPrice.put(symbol, price);
+        }
+
+        // legs apply in order, since a sell between two buys changes what the second one re-weights;
+        // the lane keeps this user's other trades out, so the plan's figures are what the updates leave
+        for (Trade trade : trades) {
+            move(user.getId(), trade.getType(), trade.getSymbol(), trade.getQuantity(),
+                    trade.getPricePerShare(), trade.getTotalCost());
+        }
+        for (String symbol : lastPrice.keySet()) {
+            if (plan.position(symbol).quantity().signum() == 0) {
+                holdingRepo.deleteIfEmpty(user.getId(), symbol);
+            }
+        }
+        tradeRepo.saveAll(trades);
+
+        for (Map.Entry<String, BigDecimal> e : lastPrice.entrySet()) {
+            Lot lot = plan.position(e.getKey());
+            events.publishEvent(new TradeExecutedEvent(username, e.getKey(), lot.quantity(),
+                    lot.quantity().signum() == 0 ? BigDecimal.ZERO : lot.averageCost(), e.getValue(), plan.cash()));
+        }
+
+        BasketResultDto result = new BasketResultDto();
+        result.setMode(mode.name());
+        result.setExecuted(trades.stream().map(TradingServiceImpl::toResult).toList());
+        result.setRejected(rejected);
+        result.setRemainingCashBalance(plan.cash());
+        return result;
+    }
+
+    /** The result of the trade already placed under {@code idempotencyKey}, or {@code null}. */
+    private TradeResultDto previousResult(String username, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return null;
+        }
+        TradeResultDto cached = idempotencyIndex.get(username, idempotencyKey);
+        if (cached != null) {
+            return cached;
+        }
+        TradeResultDto stored = readOnlyTx.execute(status -> tradeRepo
+                .findByUserUsernameAndIdempotencyKey(username, idempotencyKey)
+                .map(TradingServiceImpl::toResult)
+                .orElse(null));
+        if (stored != null) {
+            idempotencyIndex.recordReplay();
+            idempotencyIndex.put(username, idempotencyKey, stored);
+        }
+        return stored;
+    }
+
+    @Override
+    public List<Order> fillTriggeredOrders(List<Long> orderIds, Map<String, BigDecimal> prices) {
+        List<Order> orders = new ArrayList<>(readOnlyTx.execute(status -> orderRepo.findWithUserByIdIn(orderIds)));
+        orders.sort(Comparator.comparing(Order::getId));
+
+        List<Order> stillResting = new ArrayList<>();
+        List<Order> crossed = new ArrayList<>();
+        for (Order order : orders) {
+            BigDecimal price = prices.get(order.getSymbol());
+            if (order.getStatus() != OrderStatus.OPEN || price == null) {
+                continue;
+            }
+            if (order.getOrderType() == OrderType.STOP_LIMIT && !order.isStopTriggered()) {
+                // the stop only arms the limit; it fills when the limit price is also reached
+                if (tx.execute(status -> orderRepo.markStopTriggered(order.getId())) == 0) {
+                    continue;
+                }
+                order.setStopTriggered(true);
+                int cmp = price.compareTo(order.getLimitPrice());
+                boolean limitReached = order.getSide() == TradeType.BUY ? cmp <= 0 : cmp >= 0;
+                if (!limitReached) {
+                    stillResting.add(order);
+                    continue;
+                }
+            }
+            crossed.add(order);
+        }
+        if (!crossed.isEmpty()) {
+            fillTogether(crossed, prices);
+        }
+        return stillResting;
+    }
+
+    /**
+     * Hands every fill to the journal before waiting on any, so a triggered batch
+     * shares commits instead of queueing behind itself one trade at a time. The
+     * journal runs them in order, which keeps each account's fills in id order.
+     */
+    private void fillTogether(List<Order> orders, Map<String, BigDecimal> prices) {
+        List<String> usernames = new ArrayList<>();
+        for (Order order : orders) {
+            usernames.add(order.getUser().getUsername());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lanes.runAll(usernames, () -> {
+            List<CompletableFuture<Boolean>> fills = new ArrayList<>(orders.size());
+            for (Order order : orders) {
+                BigDecimal price = prices.get(order.getSymbol());
+                fills.add(journal.submitAsync(status -> fillWithin(order, price, now)));
+            }
+            // wait on every fill before reporting a failure, so none is left running unobserved
+            RuntimeException failure = null;
+            for (int i = 0; i < fills.size(); i++) {
+                try {
+                    if (awaitFill(fills.get(i), orders.get(i), prices)) {
+                        orderExecuted.increment();
+                    }
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        });
+    }
+
+    private boolean awaitFill(CompletableFuture<Boolean> fill, Order order, Map<String, BigDecimal> prices) {
+        try {
+            return journal.await(fill);
+        } catch (OptimisticLockingFailureException e) {
+            // the fill rolled back; the lanes are still held, so retry it on its own
+            conflicts.increment();
+            return withRetry(() -> journal.submit(status -> fillWithin(order, prices.get(order.getSymbol()), LocalDateTime.now())));
         }
+    }
+
+    @Override
+    public int fillMarketOnOpenOrders(List<Long> orderIds, Map<String, BigDecimal> prices) {
+        List<Order> orders = new ArrayList<>(readOnlyTx.execute(status -> orderRepo.findWithUserByIdIn(orderIds)));
+        orders.sort(Comparator.comparing(Order::getId));
+        LocalDateTime now = LocalDateTime.now();
+        List<String> usernames = new ArrayList<>();
+        for (Order order : orders) {
+            usernames.add(order.getUser().getUsername());
+        }
+
+        try {
+            // the whole opening batch shares one transaction, so its writes go out together
+            int filled = lanes.runAll(usernames, () -> inTransaction(status -> {
+                int count = 0;
+                for (Order order : orders) {
+                    BigDecimal price = prices.get(order.getSymbol());
+                    if (order.getStatus() == OrderStatus.OPEN && price != null && fillWithin(order, price, now)) {
+                        count++;
+                    }
+                }
+                return count;
+            }));
+            openExecuted.increment(filled);
+            return filled;
+        } catch (RuntimeException e) {
+            // something other than an unaffordable order sank the batch: retry them one by one
+            int filled = 0;
+            for (Order order : orders) {
+                BigDecimal price = prices.get(order.getSymbol());
+                if (order.getStatus() == OrderStatus.OPEN && price != null && fillOrder(order, price)) {
+                    filled++;
+                }
+            }
+            return filled;
+        }
+    }
+
+    /** Claims and fills {@code order} inside the caller's transaction; false if it was cancelled or rejected. */
+    private boolean fillWithin(Order order, BigDecimal price, LocalDateTime now) {
+        if (orderRepo.close(order.getId(), OrderStatus.FILLED, now, null) == 0) {
+            return false;
+        }
+        BigDecimal totalCost = price.multiply(order.getQuantity()).setScale(4, RoundingMode.HALF_UP);
+        try {
+            // the funds and share checks run before anything is written
+            TradeResultDto result = persistTrade(order.getUser().getUsername(), order.getSide(), order.getSymbol(),
+                    order.getQuantity(), price, totalCost, null);
+            orderRepo.recordTrade(order.getId(), result.getTradeId());
+            return true;
+        } catch (IllegalArgumentException e) {
+            orderRepo.reject(order.getId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean fillOrder(Order order, BigDecimal price) {
+        String username = order.getUser().getUsername();
+        LocalDateTime now = LocalDateTime.now();
+        // fillWithin rejects an unaffordable order itself, so a failed fill never leaves a half-written claim behind
+        boolean filled = lanes.run(username, () -> inJournal(status -> fillWithin(order, price, now)));
+        if (filled) {
+            orderExecuted.increment();
+        }
+        return filled;
+    }
+
+    /** Runs {@code work} in a new transaction, retrying it if another node updated the same rows first. */
+    private <T> T inTransaction(TransactionCallback<T> work) {
+        return withRetry(() -> tx.execute(work));
+    }
+
+    /** Like {@link #inTransaction}, but group-committed with other users' trades through the journal. */
+    private <T> T inJournal(TransactionCallback<T> work) {
+        return withRetry(() -> journal.submit(work));
+    }
+
+    private <T> T withRetry(Supplier<T> attempt) {
+        for (int n = 1; ; n++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (n >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private TradeResultDto persistTrade(String username, TradeType type, String symbol, BigDecimal quantity,
+                                        BigDecimal price, BigDecimal totalCost, String idempotencyKey) {
+        Long userId = userRepo.findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username));
 
-        // 5) Log the trade
+        // 3) Move cash and shares with conditional updates, then read back what they left
+        move(userId, type, symbol, quantity, price, totalCost);
+        BigDecimal cash = userRepo.findCashBalanceById(userId);
+        Position position = holdingRepo.findPosition(userId, symbol).orElseThrow();
+        boolean closedOut = position.getQuantity().signum() == 0;
+        if (closedOut) {
+            holdingRepo.deleteIfEmpty(userId, symbol);
+        }
+
+        // 4) Log the trade
         Trade trade = new Trade();
-        trade.setUser(user);
+        trade.setUser(userRepo.getReferenceById(userId));
         trade.setSymbol(symbol);
-        trade.setType(request.getType());
+        trade.setType(type);
         trade.setQuantity(quantity);
         trade.setPricePerShare(price);
         trade.setTotalCost(totalCost);
         trade.setExecutedAt(LocalDateTime.now());
+        trade.setRemainingCashBalance(cash);
+        trade.setIdempotencyKey(idempotencyKey);
         tradeRepo.save(trade);
 
-        // 6) Build response
+        // delivered to live portfolio streams once this transaction commits
+        events.publishEvent(new TradeExecutedEvent(username, symbol,
+                closedOut ? BigDecimal.ZERO : position.getQuantity(),
+                closedOut ? BigDecimal.ZERO : position.getAverageCost(),
+                price, cash));
+
+        // 5) Build response
+        return toResult(trade);
+    }
+
+    private static TradeResultDto toResult(Trade trade) {
         TradeResultDto result = new TradeResultDto();
         result.setTradeId(trade.getId());
-        result.setSymbol(symbol);
-        result.setType(request.getType().name());
-        result.setQuantity(quantity);
-        result.setPricePerShare(price);
-        result.setTotalCost(totalCost);
-        result.setRemainingCashBalance(user.getCashBalance());
+        result.setSymbol(trade.getSymbol());
+        result.setType(trade.getType().name());
+        result.setQuantity(trade.getQuantity());
+        result.setPricePerShare(trade.getPricePerShare());
+        result.setTotalCost(trade.getTotalCost());
+        result.setRemainingCashBalance(trade.getRemainingCashBalance());
         result.setExecutedAt(trade.getExecutedAt());
         return result;
     }
 
-    private void executeBuy(User user, String symbol, BigDecimal quantity,
-                            BigDecimal price, BigDecimal totalCost) {
-        // Check sufficient funds
-        if (user.getCashBalance().compareTo(totalCost) < 0) {
-            throw new IllegalArgumentException("Insufficient funds. Required: $"
-                    + totalCost.setScale(2, RoundingMode.HALF_UP)
-                    + ", Available: $" + user.getCashBalance().setScale(2, RoundingMode.HALF_UP));
-        }
-
-        // Debit cash
-        user.setCashBalance(user.getCashBalance().subtract(totalCost));
-        userRepo.save(user);
-
-        // Upsert holding
-        Holding holding = holdingRepo.findByUserAndSymbol(user, symbol).orElse(null);
-        if (holding != null) {
-            // Weighted average cost
-            BigDecimal oldTotal = holding.getQuantity().multiply(holding.getAverageCost());
-            BigDecimal newTotal = quantity.multiply(price);
-            BigDecimal combinedQty = holding.getQuantity().add(quantity);
-            BigDecimal newAvgCost = oldTotal.add(newTotal)
-                    .divide(combinedQty, 4, RoundingMode.HALF_UP);
-            holding.setQuantity(combinedQty);
-            holding.setAverageCost(newAvgCost);
+    /**
+     * Moves one trade's cash and shares. The first update is also the funds or share
+     * check, so a trade the account can't cover throws before anything is written.
+     */
+    private void move(Long userId, TradeType type, String symbol, BigDecimal quantity,
+                      BigDecimal price, BigDecimal totalCost) {
+        if (type == TradeType.BUY) {
+            debitForBuy(userId, totalCost);
+            addShares(userId, symbol, quantity, price, totalCost);
         } else {
-            holding = new Holding();
-            holding.setUser(user);
-            holding.setSymbol(symbol);
-            holding.setQuantity(quantity);
-            holding.setAverageCost(price);
+            sellShares(userId, symbol, quantity);
+            userRepo.credit(userId, totalCost);
         }
-        holdingRepo.save(holding);
     }
 
-    private void executeSell(User user, String symbol, BigDecimal quantity,
-                             BigDecimal price, BigDecimal totalCost) {
-        // Check holding exists with sufficient shares
-        Holding holding = holdingRepo.findByUserAndSymbol(user, symbol)
-                .orElseThrow(() -> new IllegalArgumentException("You don't own any shares of " + symbol));
-
-        if (holding.getQuantity().compareTo(quantity) < 0) {
-            throw new IllegalArgumentException("Insufficient shares. You own "
-                    + holding.getQuantity().setScale(2, RoundingMode.HALF_UP)
-                    + " shares of " + symbol);
+    private void debitForBuy(Long userId, BigDecimal totalCost) {
+        if (userRepo.debit(userId, totalCost) > 0) {
+            return;
         }
+        // only a refused debit pays for reading the balance, to say why
+        BigDecimal available = userRepo.findCashBalanceById(userId);
+        throw new IllegalArgumentException("Insufficient funds. Required: $"
+                + totalCost.setScale(2, RoundingMode.HALF_UP)
+                + ", Available: $" + available.setScale(2, RoundingMode.HALF_UP));
+    }
 
-        // Credit cash
-        user.setCashBalance(user.getCashBalance().add(totalCost));
-        userRepo.save(user);
+    private void addShares(Long userId, String symbol, BigDecimal quantity, BigDecimal price, BigDecimal totalCost) {
+        if (holdingRepo.addShares(userId, symbol, quantity, totalCost) > 0) {
+            return;
+        }
+        Holding holding = new Holding();
+        holding.setUser(userRepo.getReferenceById(userId));
+        holding.setSymbol(symbol);
+        holding.setQuantity(quantity);
+        holding.setAverageCost(price);
+        holdingRepo.save(holding);
+    }
 
-        // Update or delete holding
-        BigDecimal remaining = holding.getQuantity().subtract(quantity);
-        if (remaining.compareTo(BigDecimal.ZERO) == 0) {
-            holdingRepo.delete(holding);
-        } else {
-            holding.setQuantity(remaining);
-            holdingRepo.save(holding);
+    private void sellShares(Long userId, String symbol, BigDecimal quantity) {
+        if (holdingRepo.removeShares(userId, symbol, quantity) > 0) {
+            return;
         }
+        Position held = holdingRepo.findPosition(userId, symbol)
+                .orElseThrow(() -> new IllegalArgumentException("You don't own any shares of " + symbol));
+        throw new IllegalArgumentException("Insufficient shares. You own "
+                + held.getQuantity().setScale(2, RoundingMode.HALF_UP)
+                + " shares of " + symbol);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public PortfolioDto getPortfolio(String username) {
-        User user = userRepo.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException(username));
+        // Snapshot the user and holdings, then release the connection before pricing them
+        PortfolioSnapshot snapshot = readOnlyTx.execute(status -> {
+            User user = userRepo.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException(username));
+            return new PortfolioSnapshot(user.getCashBalance(), holdingRepo.findByUser(user));
+        });
+        List<Holding> holdings = snapshot.holdings();
+
+        // Price every holding from a single batched quote lookup
+        Map<String, TradeResponseDto> quotes = holdings.isEmpty()
+                ? Map.of()
+                : UpstreamPriority.PORTFOLIO.call(() ->
+                        dailyPriceService.getLatestTrades(holdings.stream().map(Holding::getSymbol).toList()));
 
-        List<Holding> holdings = holdingRepo.findByUser(user);
         BigDecimal holdingsValue = BigDecimal.ZERO;
         BigDecimal totalCostBasis = BigDecimal.ZERO;
         List<HoldingDto> holdingDtos = new ArrayList<>();
 
         for (Holding h : holdings) {
-            HoldingDto dto = new HoldingDto();
-            dto.setSymbol(h.getSymbol());
-            dto.setQuantity(h.getQuantity());
-            dto.setAverageCost(h.getAverageCost());
-
-            // Fetch current price
-            BigDecimal currentPrice;
-            TradeResponseDto trade = dailyPriceService.getLatestTrade(h.getSymbol());
-            if (trade != null) {
-                currentPrice = BigDecimal.valueOf(trade.getPrice()).setScale(4, RoundingMode.HALF_UP);
-            } else {
-                // Fallback to average cost if price unavailable
-                currentPrice = h.getAverageCost();
-            }
-
-            dto.setCurrentPrice(currentPrice);
-            BigDecimal marketValue = h.getQuantity().multiply(currentPrice).setScale(4, RoundingMode.HALF_UP);
-            dto.setMarketValue(marketValue);
+            TradeResponseDto trade = quotes.get(h.getSymbol());
+            // Fallback to average cost if price unavailable
+            BigDecimal currentPrice = trade != null ? HoldingValuation.price(trade) : h.getAverageCost();
+            HoldingDto dto = HoldingValuation.value(h.getSymbol(), h.getQuantity(), h.getAverageCost(), currentPrice);
 
-            BigDecimal costBasis = h.getQuantity().multiply(h.getAverageCost()).setScale(4, RoundingMode.HALF_UP);
-            BigDecimal gainLoss = marketValue.subtract(costBasis);
-            dto.setTotalGainLoss(gainLoss);
-
-            BigDecimal gainLossPercent = costBasis.compareTo(BigDecimal.ZERO) != 0
-                    ? gainLoss.divide(costBasis, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
-                    : BigDecimal.ZERO;
-            dto.setTotalGainLossPercent(gainLossPercent);
-
-            holdingsValue = holdingsValue.add(marketValue);
-            totalCostBasis = totalCostBasis.add(costBasis);
+            holdingsValue = holdingsValue.add(dto.getMarketValue());
+            totalCostBasis = totalCostBasis.add(HoldingValuation.costBasis(h.getQuantity(), h.getAverageCost()));
             holdingDtos.add(dto);
         }
 
         PortfolioDto portfolio = new PortfolioDto();
-        portfolio.setCashBalance(user.getCashBalance());
+        portfolio.setCashBalance(snapshot.cashBalance());
         portfolio.setHoldingsValue(holdingsValue);
-        portfolio.setTotalPortfolioValue(user.getCashBalance().add(holdingsValue));
+        portfolio.setTotalPortfolioValue(snapshot.cashBalance().add(holdingsValue));
         portfolio.setTotalGainLoss(holdingsValue.subtract(totalCostBasis));
         portfolio.setHoldings(holdingDtos);
         return portfolio;
@@ -207,21 +589,29 @@ public class TradingServiceImpl implements TradingService {
     @Override
     @Transactional(readOnly = true)
     public List<TradeHistoryDto> getTradeHistory(String username) {
-        User user = userRepo.findByUsername(username)
+        Long userId = userRepo.findIdByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
+        return tradeRepo.findHistory(userId, Pageable.unpaged());
+    }
 
-        return tradeRepo.findByUserOrderByExecutedAtDesc(user).stream()
-                .map(t -> {
-                    TradeHistoryDto dto = new TradeHistoryDto();
-                    dto.setId(t.getId());
-                    dto.setSymbol(t.getSymbol());
-                    dto.setType(t.getType().name());
-                    dto.setQuantity(t.getQuantity());
-                    dto.setPricePerShare(t.getPricePerShare());
-                    dto.setTotalCost(t.getTotalCost());
-                    dto.setExecutedAt(t.getExecutedAt());
-                    return dto;
-                })
-                .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public TradeHistoryPageDto getTradeHistory(String username, int limit, TradeHistoryCursor before) {
+        Long userId = userRepo.findIdByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException(username));
+
+        // one row past the limit tells us whether there is another page
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<TradeHistoryDto> rows = before == null
+                ? tradeRepo.findHistory(userId, page)
+                : tradeRepo.findHistoryBefore(userId, before.executedAt(), before.id(), page);
+        if (rows.size() <= limit) {
+            return new TradeHistoryPageDto(rows, null);
+        }
+        List<TradeHistoryDto> trades = List.copyOf(rows.subList(0, limit));
+        TradeHistoryDto last = trades.get(limit - 1);
+        return new TradeHistoryPageDto(trades, new TradeHistoryCursor(last.getExecutedAt(), last.getId()));
     }
+
+    private record PortfolioSnapshot(BigDecimal cashBalance, List<Holding> holdings) {}
 }
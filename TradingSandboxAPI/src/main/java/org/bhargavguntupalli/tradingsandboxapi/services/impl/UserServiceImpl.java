@@ -148,25 +148,24 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto creditBalance(String username, BigDecimal amount) {
-        User u = userRepo.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
+        Long id = userRepo.findIdByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
+        userRepo.credit(id, amount);
 
-        u.setCashBalance(u.getCashBalance().add(amount));
-        User saved = userRepo.save(u);
-        return toDto(saved);
+        User u = userRepo.findById(id).orElseThrow(() -> new UsernameNotFoundException(username));
+        return toDto(u);
     }
 
     @Override
     @Transactional
     public UserDto debitBalance(String username, BigDecimal amount) {
-        User u = userRepo.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
-
-        if (u.getCashBalance().compareTo(amount) < 0) {
+        Long id = userRepo.findIdByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
+        // the balance check and the debit are one conditional update, so concurrent debits can't overdraw
+        if (userRepo.debit(id, amount) == 0) {
             throw new IllegalArgumentException("Insufficient funds");
         }
 
-        u.setCashBalance(u.getCashBalance().subtract(amount));
-        User saved = userRepo.save(u);
-        return toDto(saved);
+        User u = userRepo.findById(id).orElseThrow(() -> new UsernameNotFoundException(username));
+        return toDto(u);
     }
 
     @Override
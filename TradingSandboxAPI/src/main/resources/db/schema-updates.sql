@@ -0,0 +1,74 @@
+-- Runs on every start of the prod and gamma profiles, before Hibernate validates the schema.
+-- Statements must be safe to repeat. PostgreSQL only.
+
+-- no-bar sessions for a symbol, re-checked once expired
+CREATE TABLE IF NOT EXISTS daily_price_gaps (
+    symbol     VARCHAR(255) NOT NULL,
+    date       DATE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (symbol, date)
+);
+-- gaps recorded before they expired are re-checked straight away
+ALTER TABLE daily_price_gaps ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT now();
+
+-- full daily bars; rows stored before these columns existed keep only the close
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS open_price NUMERIC(19,4);
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS high_price NUMERIC(19,4);
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS low_price NUMERIC(19,4);
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS volume BIGINT;
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS trade_count BIGINT;
+ALTER TABLE daily_prices ADD COLUMN IF NOT EXISTS vwap NUMERIC(19,4);
+
+-- intraday bars of completed sessions, and which (symbol, timeframe, session) are fully stored
+CREATE TABLE IF NOT EXISTS intraday_bars (
+    symbol      VARCHAR(255) NOT NULL,
+    timeframe   VARCHAR(10) NOT NULL,
+    timestamp   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    open_price  NUMERIC(19,4) NOT NULL,
+    high_price  NUMERIC(19,4) NOT NULL,
+    low_price   NUMERIC(19,4) NOT NULL,
+    close_price NUMERIC(19,4) NOT NULL,
+    volume      BIGINT NOT NULL,
+    trade_count BIGINT NOT NULL,
+    vwap        NUMERIC(19,4),
+    PRIMARY KEY (symbol, timeframe, timestamp)
+);
+CREATE SEQUENCE IF NOT EXISTS intraday_coverage_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS intraday_coverage (
+    id           BIGINT NOT NULL PRIMARY KEY,
+    symbol       VARCHAR(10) NOT NULL,
+    timeframe    VARCHAR(10) NOT NULL,
+    session_date DATE NOT NULL,
+    UNIQUE (symbol, timeframe, session_date)
+);
+
+-- resting limit/stop orders and market-on-open orders; the engine reloads OPEN rows on start
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS orders (
+    id             BIGINT NOT NULL PRIMARY KEY,
+    user_id        BIGINT NOT NULL REFERENCES users,
+    symbol         VARCHAR(10) NOT NULL,
+    side           VARCHAR(4) NOT NULL,
+    order_type     VARCHAR(16) NOT NULL,
+    quantity       NUMERIC(19,2) NOT NULL,
+    limit_price    NUMERIC(19,4),
+    stop_price     NUMERIC(19,4),
+    stop_triggered BOOLEAN NOT NULL,
+    status         VARCHAR(10) NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    closed_at      TIMESTAMP(6),
+    trade_id       BIGINT,
+    reject_reason  VARCHAR(255)
+);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_id ON orders (status, id);
+
+-- optimistic-lock versions of balances and positions; existing rows start at 0
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE holdings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Idempotency-Key of a trade; a retry with the same key finds the first trade instead of placing another
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_trades_user_idempotency_key ON trades (user_id, idempotency_key);
+-- cash left after the trade, so a replayed response reports the balance the first attempt saw; null on older rows
+ALTER TABLE trades ADD COLUMN IF NOT EXISTS remaining_cash_balance NUMERIC(19,4);
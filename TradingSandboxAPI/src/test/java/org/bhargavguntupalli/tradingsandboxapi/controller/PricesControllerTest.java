@@ -2,6 +2,9 @@ package org.bhargavguntupalli.tradingsandboxapi.controller;
 
 import org.bhargavguntupalli.tradingsandboxapi.controllers.DailyPriceController;
 import org.bhargavguntupalli.tradingsandboxapi.dto.*;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudgetExceededException;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
 import org.bhargavguntupalli.tradingsandboxapi.security.CustomUserDetailsService;
 import org.bhargavguntupalli.tradingsandboxapi.security.JwtProvider;
 import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
@@ -14,12 +17,14 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -37,6 +42,9 @@ class PricesControllerTest {
     @MockitoBean
     DailyPriceService svc;
 
+    @MockitoBean
+    QuoteStreamHub quoteStream;
+
     @MockitoBean
     UserService userService;
 
@@ -56,7 +64,7 @@ class PricesControllerTest {
         OffsetDateTime nextOpen  = OffsetDateTime.parse("2025-07-10T09:30:00-04:00");
         OffsetDateTime nextClose = OffsetDateTime.parse("2025-07-09T16:00:00-04:00");
         MarketStatusDto dto = new MarketStatusDto(true, nextOpen, nextClose);
-        when(svc.fetchMarketStatus()).thenReturn(dto);
+        when(svc.getMarketStatus()).thenReturn(dto);
 
         mockMvc.perform(get("/api/prices/market-status")
                         .header("X-ACCESS-KEY", "some-valid-key")
@@ -179,6 +187,64 @@ class PricesControllerTest {
                 .andExpect(status().isServiceUnavailable());
     }
 
+    @Test
+    void latestTrade_BudgetExhausted_Returns429() throws Exception {
+        when(svc.getLatestTrade("AAPL"))
+                .thenThrow(new UpstreamBudgetExceededException("latest-trade", UpstreamPriority.CHART));
+
+        mockMvc.perform(get("/api/prices/AAPL/latest-trade")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    // ── latestTrades ────────────────────────────────────────────────────
+
+    @Test
+    void latestTrades_Returns200WithQuotesBySymbol() throws Exception {
+        TradeResponseDto aapl = new TradeResponseDto();
+        aapl.setPrice(155.75);
+        TradeResponseDto msft = new TradeResponseDto();
+        msft.setPrice(410.50);
+
+        when(svc.getLatestTrades(List.of("AAPL", "MSFT"))).thenReturn(Map.of("AAPL", aapl, "MSFT", msft));
+
+        mockMvc.perform(get("/api/prices/latest-trades")
+                        .param("symbols", "AAPL,MSFT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.AAPL.price").value(155.75))
+                .andExpect(jsonPath("$.MSFT.price").value(410.50));
+    }
+
+    @Test
+    void latestTrades_MissingSymbols_Returns400() throws Exception {
+        mockMvc.perform(get("/api/prices/latest-trades")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ── stream ──────────────────────────────────────────────────────────
+
+    @Test
+    void stream_OpensEventStream() throws Exception {
+        when(quoteStream.subscribe(List.of("AAPL", "MSFT"))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/prices/stream")
+                        .param("symbols", "AAPL,MSFT")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void stream_HubFull_Returns503() throws Exception {
+        when(quoteStream.subscribe(any())).thenReturn(null);
+
+        mockMvc.perform(get("/api/prices/stream")
+                        .param("symbols", "AAPL")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     // ── getByPeriod ─────────────────────────────────────────────────────
 
     @Test
@@ -199,6 +265,33 @@ class PricesControllerTest {
                 .andExpect(jsonPath("$[0].closingPrice").value(155.00));
     }
 
+    @Test
+    void getByPeriod_MaxPoints_PassedToService() throws Exception {
+        when(svc.findByPeriod(eq("AAPL"), eq(TimePeriod.THREE_MONTHS), eq(200))).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/prices/AAPL/period/3M")
+                        .param("maxPoints", "200")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void getByPeriod_MaxPointsTooSmall_Returns400() throws Exception {
+        mockMvc.perform(get("/api/prices/AAPL/period/1D")
+                        .param("maxPoints", "2")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getByPeriod_MaxPointsTooLarge_Returns400() throws Exception {
+        mockMvc.perform(get("/api/prices/AAPL/period/3M")
+                        .param("maxPoints", "2001")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getByPeriod_Invalid_Returns400() throws Exception {
         mockMvc.perform(get("/api/prices/AAPL/period/INVALID")
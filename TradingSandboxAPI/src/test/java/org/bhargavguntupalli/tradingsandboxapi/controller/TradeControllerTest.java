@@ -0,0 +1,328 @@
+package org.bhargavguntupalli.tradingsandboxapi.controller;
+
+import org.bhargavguntupalli.tradingsandboxapi.controllers.TradeController;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketRejectionDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryCursor;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryPageDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+import org.bhargavguntupalli.tradingsandboxapi.portfolio.PortfolioStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.security.CustomUserDetailsService;
+import org.bhargavguntupalli.tradingsandboxapi.security.JwtProvider;
+import org.bhargavguntupalli.tradingsandboxapi.services.OrderService;
+import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TradeController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class TradeControllerTest {
+
+    private static final String BUY_AAPL = """
+            {"symbol":"AAPL","quantity":10,"type":"BUY"}
+            """;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    TradingService tradingService;
+
+    @MockitoBean
+    OrderService orderService;
+
+    @MockitoBean
+    PortfolioStreamHub portfolioStream;
+
+    @MockitoBean
+    private JwtProvider jwtProvider;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    private static UsernamePasswordAuthenticationToken alice() {
+        return new UsernamePasswordAuthenticationToken("alice", "");
+    }
+
+    private static String basketOf(int trades) {
+        String legs = String.join(",", Collections.nCopies(trades, BUY_AAPL.strip()));
+        return "{\"trades\":[" + legs + "]}";
+    }
+
+    private static TradeResultDto result(long tradeId) {
+        TradeResultDto dto = new TradeResultDto();
+        dto.setTradeId(tradeId);
+        dto.setSymbol("AAPL");
+        dto.setType("BUY");
+        dto.setQuantity(BigDecimal.TEN);
+        return dto;
+    }
+
+    // ── execute ─────────────────────────────────────────────────────────
+
+    @Test
+    void execute_PassesIdempotencyKeyThrough() throws Exception {
+        when(tradingService.executeTrade(eq("alice"), any(), eq("key-1"))).thenReturn(result(7));
+
+        mockMvc.perform(post("/api/trade/execute")
+                        .principal(alice())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BUY_AAPL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId").value(7))
+                .andExpect(jsonPath("$.symbol").value("AAPL"));
+    }
+
+    @Test
+    void execute_ReplayReturnsTheOriginalTrade() throws Exception {
+        // the service answers a repeated key with the trade it already placed
+        when(tradingService.executeTrade(eq("alice"), any(), eq("key-1"))).thenReturn(result(7));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/trade/execute")
+                            .principal(alice())
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(BUY_AAPL))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.tradeId").value(7));
+        }
+    }
+
+    @Test
+    void execute_WithoutKey_PassesNull() throws Exception {
+        when(tradingService.executeTrade(eq("alice"), any(), isNull())).thenReturn(result(8));
+
+        mockMvc.perform(post("/api/trade/execute")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BUY_AAPL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tradeId").value(8));
+    }
+
+    @Test
+    void execute_KeyLongerThan64_Returns400() throws Exception {
+        mockMvc.perform(post("/api/trade/execute")
+                        .principal(alice())
+                        .header("Idempotency-Key", "k".repeat(65))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BUY_AAPL))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).executeTrade(any(), any(), any());
+    }
+
+    @Test
+    void execute_KeyOf64_IsAccepted() throws Exception {
+        String key = "k".repeat(64);
+        when(tradingService.executeTrade(eq("alice"), any(), eq(key))).thenReturn(result(7));
+
+        mockMvc.perform(post("/api/trade/execute")
+                        .principal(alice())
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BUY_AAPL))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void execute_BlankKey_Returns400() throws Exception {
+        mockMvc.perform(post("/api/trade/execute")
+                        .principal(alice())
+                        .header("Idempotency-Key", " ")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(BUY_AAPL))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).executeTrade(any(), any(), any());
+    }
+
+    // ── basket ──────────────────────────────────────────────────────────
+
+    @Test
+    void basket_ReturnsExecutedAndRejectedTrades() throws Exception {
+        BasketResultDto dto = new BasketResultDto();
+        dto.setMode("BEST_EFFORT");
+        dto.setExecuted(List.of(result(7)));
+        dto.setRejected(List.of(new BasketRejectionDto(1, "MSFT", "Insufficient funds")));
+        dto.setRemainingCashBalance(new BigDecimal("9000.0000"));
+        when(tradingService.executeBasket(eq("alice"), any())).thenReturn(dto);
+
+        mockMvc.perform(post("/api/trade/basket")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"mode":"BEST_EFFORT","trades":[
+                                  {"symbol":"AAPL","quantity":10,"type":"BUY"},
+                                  {"symbol":"MSFT","quantity":100,"type":"BUY"}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mode").value("BEST_EFFORT"))
+                .andExpect(jsonPath("$.executed.length()").value(1))
+                .andExpect(jsonPath("$.executed[0].tradeId").value(7))
+                .andExpect(jsonPath("$.executed[0].symbol").value("AAPL"))
+                .andExpect(jsonPath("$.rejected[0].index").value(1))
+                .andExpect(jsonPath("$.rejected[0].symbol").value("MSFT"))
+                .andExpect(jsonPath("$.rejected[0].reason").value("Insufficient funds"))
+                .andExpect(jsonPath("$.remainingCashBalance").value(9000.0));
+    }
+
+    @Test
+    void basket_Of100_IsAccepted() throws Exception {
+        when(tradingService.executeBasket(eq("alice"), any())).thenReturn(new BasketResultDto());
+
+        mockMvc.perform(post("/api/trade/basket")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(basketOf(100)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void basket_MoreThan100Trades_Returns400() throws Exception {
+        mockMvc.perform(post("/api/trade/basket")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(basketOf(101)))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).executeBasket(any(), any());
+    }
+
+    @Test
+    void basket_Empty_Returns400() throws Exception {
+        mockMvc.perform(post("/api/trade/basket")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(basketOf(0)))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).executeBasket(any(), any());
+    }
+
+    @Test
+    void basket_InvalidLeg_Returns400() throws Exception {
+        mockMvc.perform(post("/api/trade/basket")
+                        .principal(alice())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"trades":[{"symbol":"AAPL","quantity":0,"type":"BUY"}]}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).executeBasket(any(), any());
+    }
+
+    // ── history ─────────────────────────────────────────────────────────
+
+    private static TradeHistoryDto historyRow(long id) {
+        return new TradeHistoryDto(id, "AAPL", TradeType.BUY, BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN,
+                LocalDateTime.of(2025, 7, 9, 10, 0));
+    }
+
+    @Test
+    void history_MorePages_SendsNextCursorHeader() throws Exception {
+        TradeHistoryCursor next = new TradeHistoryCursor(LocalDateTime.of(2025, 7, 9, 10, 0), 9);
+        when(tradingService.getTradeHistory("alice", 2, null))
+                .thenReturn(new TradeHistoryPageDto(List.of(historyRow(10), historyRow(9)), next));
+
+        mockMvc.perform(get("/api/trade/history")
+                        .principal(alice())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", next.encode()))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(10))
+                .andExpect(jsonPath("$[1].id").value(9));
+    }
+
+    @Test
+    void history_LastPage_HasNoCursorHeader() throws Exception {
+        when(tradingService.getTradeHistory("alice", 2, null))
+                .thenReturn(new TradeHistoryPageDto(List.of(historyRow(1)), null));
+
+        mockMvc.perform(get("/api/trade/history")
+                        .principal(alice())
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
+    @Test
+    void history_WithoutLimitOrCursor_ReturnsEveryTrade() throws Exception {
+        List<TradeHistoryDto> all = LongStream.rangeClosed(1, 60).map(i -> 61 - i)
+                .mapToObj(TradeControllerTest::historyRow).toList();
+        when(tradingService.getTradeHistory("alice")).thenReturn(all);
+
+        mockMvc.perform(get("/api/trade/history").principal(alice()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(60))
+                .andExpect(jsonPath("$[0].id").value(60));
+
+        verify(tradingService, never()).getTradeHistory(any(), anyInt(), any());
+    }
+
+    @Test
+    void history_CursorFromPreviousPage_IsDecoded() throws Exception {
+        TradeHistoryCursor before = new TradeHistoryCursor(LocalDateTime.of(2025, 7, 9, 10, 0), 9);
+        when(tradingService.getTradeHistory("alice", 50, before))
+                .thenReturn(new TradeHistoryPageDto(List.of(historyRow(8)), null));
+
+        mockMvc.perform(get("/api/trade/history")
+                        .principal(alice())
+                        .param("before", before.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(8));
+    }
+
+    @Test
+    void history_MalformedCursor_Returns400() throws Exception {
+        mockMvc.perform(get("/api/trade/history")
+                        .principal(alice())
+                        .param("before", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(tradingService, never()).getTradeHistory(any(), anyInt(), any());
+    }
+
+    @Test
+    void history_LimitOutOfRange_Returns400() throws Exception {
+        for (String limit : List.of("0", "501")) {
+            mockMvc.perform(get("/api/trade/history")
+                            .principal(alice())
+                            .param("limit", limit))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verify(tradingService, never()).getTradeHistory(any(), anyInt(), any());
+    }
+}
@@ -0,0 +1,44 @@
+package org.bhargavguntupalli.tradingsandboxapi.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeHistoryCursorTest {
+
+    @Test
+    void roundTripsThroughToken() {
+        TradeHistoryCursor cursor = new TradeHistoryCursor(LocalDateTime.of(2025, 3, 14, 9, 30, 0, 123_456_000), 42);
+
+        assertThat(TradeHistoryCursor.parse(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void garbageIsRejected() {
+        assertThat(TradeHistoryCursor.parse("not a cursor")).isNull();
+        assertThat(TradeHistoryCursor.parse("")).isNull();
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        TradeHistoryCursor cursor = new TradeHistoryCursor(LocalDateTime.of(2025, 3, 14, 9, 30), Long.MAX_VALUE);
+
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThat(TradeHistoryCursor.parse(token("2025-03-14T09:30"))).isNull();
+        assertThat(TradeHistoryCursor.parse(token("yesterday|42"))).isNull();
+        assertThat(TradeHistoryCursor.parse(token("2025-03-14T09:30|forty-two"))).isNull();
+        assertThat(TradeHistoryCursor.parse(token("|42"))).isNull();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class BarAggregatorTest {
+
+    private static BarDto bar(String timestamp, double open, double high, double low, double close,
+                              double volume, double vwap) {
+        BarDto b = new BarDto();
+        b.setTimestamp(Instant.parse(timestamp));
+        b.setOpen(open);
+        b.setHigh(high);
+        b.setLow(low);
+        b.setClose(close);
+        b.setVolume(volume);
+        b.setTradeCount(volume / 10);
+        b.setVwap(vwap);
+        return b;
+    }
+
+    @Test
+    void rollUp_CombinesOhlcvWithinBucket() {
+        BarSeries oneMin = BarSeries.of(List.of(
+                bar("2025-07-10T13:30:00Z", 100, 101, 99, 100.5, 100, 100.2),
+                bar("2025-07-10T13:31:00Z", 100.5, 103, 100, 102, 300, 101.8),
+                bar("2025-07-10T13:34:00Z", 102, 102.5, 98, 99, 100, 100.0)));
+
+        BarSeries fiveMin = BarAggregator.rollUp(oneMin, BarTimeframe.ONE_MIN, BarTimeframe.FIVE_MIN);
+
+        assertThat(fiveMin.size()).isEqualTo(1);
+        assertThat(fiveMin.timestamp(0)).isEqualTo(Instant.parse("2025-07-10T13:30:00Z"));
+        assertThat(fiveMin.open(0)).isEqualTo(100);
+        assertThat(fiveMin.high(0)).isEqualTo(103);
+        assertThat(fiveMin.low(0)).isEqualTo(98);
+        assertThat(fiveMin.close(0)).isEqualTo(99);
+        assertThat(fiveMin.volume(0)).isEqualTo(500);
+        assertThat(fiveMin.tradeCount(0)).isEqualTo(50);
+        // (100.2*100 + 101.8*300 + 100*100) / 500
+        assertThat(fiveMin.vwap(0)).isCloseTo(101.12, within(1e-9));
+    }
+
+    @Test
+    void rollUp_StartsNewBucketOnHourBoundary() {
+        BarSeries fiveMin = BarSeries.of(List.of(
+                bar("2025-07-10T14:55:00Z", 10, 10, 10, 10, 1, 10),
+                bar("2025-07-10T13:30:00Z", 1, 1, 1, 1, 1, 1),
+                bar("2025-07-10T14:00:00Z", 5, 5, 5, 5, 1, 5)));
+
+        BarSeries hourly = BarAggregator.rollUp(fiveMin, BarTimeframe.FIVE_MIN, BarTimeframe.ONE_HOUR);
+
+        assertThat(hourly.size()).isEqualTo(2);
+        assertThat(hourly.timestamp(0)).isEqualTo(Instant.parse("2025-07-10T13:00:00Z"));
+        assertThat(hourly.close(0)).isEqualTo(1);
+        assertThat(hourly.timestamp(1)).isEqualTo(Instant.parse("2025-07-10T14:00:00Z"));
+        assertThat(hourly.open(1)).isEqualTo(5);
+        assertThat(hourly.close(1)).isEqualTo(10);
+    }
+
+    @Test
+    void rollUp_DailyBucketsFollowExchangeMidnight() {
+        // 23:30Z on Jul 10 is still Jul 10 in New York; 04:30Z on Jul 11 is Jul 11
+        BarSeries hourly = BarSeries.of(List.of(
+                bar("2025-07-10T13:30:00Z", 1, 1, 1, 1, 1, 1),
+                bar("2025-07-10T23:30:00Z", 2, 2, 2, 2, 1, 2),
+                bar("2025-07-11T04:30:00Z", 3, 3, 3, 3, 1, 3)));
+
+        BarSeries daily = BarAggregator.rollUp(hourly, BarTimeframe.ONE_HOUR, BarTimeframe.ONE_DAY);
+
+        assertThat(daily.size()).isEqualTo(2);
+        assertThat(daily.timestamp(0)).isEqualTo(Instant.parse("2025-07-10T04:00:00Z"));
+        assertThat(daily.close(0)).isEqualTo(2);
+        assertThat(daily.timestamp(1)).isEqualTo(Instant.parse("2025-07-11T04:00:00Z"));
+    }
+
+    @Test
+    void rollUp_ZeroVolumeBucketUsesCloseAsVwap() {
+        BarSeries quiet = BarSeries.of(List.of(
+                bar("2025-07-10T13:30:00Z", 100, 100, 100, 100, 0, 0),
+                bar("2025-07-10T13:31:00Z", 100, 100, 100, 101, 0, 0)));
+
+        BarSeries fiveMin = BarAggregator.rollUp(quiet, BarTimeframe.ONE_MIN, BarTimeframe.FIVE_MIN);
+
+        assertThat(fiveMin.vwap(0)).isEqualTo(101);
+    }
+
+    @Test
+    void rollUp_EmptySeries() {
+        assertThat(BarAggregator.rollUp(BarSeries.of(List.of()), BarTimeframe.FIVE_MIN, BarTimeframe.ONE_HOUR).size()).isZero();
+    }
+
+    @Test
+    void rollUp_CoarserSourceIsRejected() {
+        BarSeries hourly = BarSeries.of(List.of(bar("2025-07-10T13:00:00Z", 1, 1, 1, 1, 1, 1)));
+
+        assertThatThrownBy(() -> BarAggregator.rollUp(hourly, BarTimeframe.ONE_HOUR, BarTimeframe.FIFTEEN_MIN))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
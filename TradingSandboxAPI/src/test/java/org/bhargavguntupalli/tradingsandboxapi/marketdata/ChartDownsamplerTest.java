@@ -0,0 +1,50 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChartDownsamplerTest {
+
+    private static long[] minutes(int n) {
+        return LongStream.range(0, n).map(i -> i * 60_000L).toArray();
+    }
+
+    @Test
+    void lttb_FewerPointsThanLimit_KeepsEverything() {
+        assertThat(ChartDownsampler.lttb(minutes(5), new double[]{1, 2, 3, 4, 5}, 10))
+                .containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void lttb_KeepsEndPointsAndLimit() {
+        int n = 1_000;
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            y[i] = Math.sin(i / 20.0);
+        }
+
+        int[] kept = ChartDownsampler.lttb(minutes(n), y, 50);
+
+        assertThat(kept).hasSize(50);
+        assertThat(kept[0]).isZero();
+        assertThat(kept[49]).isEqualTo(n - 1);
+        assertThat(kept).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void lttb_PreservesSpike() {
+        int n = 100;
+        double[] y = new double[n];
+        y[37] = 50;  // a single spike in an otherwise flat line
+
+        assertThat(ChartDownsampler.lttb(minutes(n), y, 10)).contains(37);
+    }
+
+    @Test
+    void lttb_UnusableLimit_KeepsEverything() {
+        assertThat(ChartDownsampler.lttb(minutes(4), new double[]{1, 2, 3, 4}, 2)).hasSize(4);
+    }
+}
@@ -0,0 +1,112 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCacheTest.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-07-10T14:00:00Z"));
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 30_000, clock);
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpen_LetsOneProbeThrough_AndClosesOnSuccess() {
+        openBreaker();
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void halfOpen_FailedProbeReopens() {
+        openBreaker();
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquire();
+
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void breakers_ClientErrorsDontTripTheCircuit() {
+        CircuitBreakers breakers = new CircuitBreakers(new SimpleMeterRegistry(), 1, 30_000, clock);
+
+        assertThatThrownBy(() -> breakers.call("validate", () -> {
+            throw HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null);
+        })).isInstanceOf(HttpClientErrorException.class);
+        assertThat(breakers.isOpen("validate")).isFalse();
+
+        assertThatThrownBy(() -> breakers.call("bars", () -> {
+            throw new ResourceAccessException("Read timed out");
+        })).isInstanceOf(ResourceAccessException.class);
+        assertThat(breakers.isOpen("bars")).isTrue();
+        assertThatThrownBy(() -> breakers.call("bars", () -> "ok")).isInstanceOf(CircuitOpenException.class);
+        // routes are independent
+        assertThat(breakers.call("latest-trade", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void breakers_ErrorInAHalfOpenProbe_ReopensRatherThanWedging() {
+        CircuitBreakers breakers = new CircuitBreakers(new SimpleMeterRegistry(), 1, 30_000, clock);
+        assertThatThrownBy(() -> breakers.call("bars", () -> {
+            throw new ResourceAccessException("Read timed out");
+        })).isInstanceOf(ResourceAccessException.class);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> breakers.call("bars", () -> {
+            throw new StackOverflowError();
+        })).isInstanceOf(StackOverflowError.class);
+
+        // the probe counted as a failure: open for another interval, then probed again
+        assertThatThrownBy(() -> breakers.call("bars", () -> "ok")).isInstanceOf(CircuitOpenException.class);
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(breakers.call("bars", () -> "ok")).isEqualTo("ok");
+        assertThat(breakers.isOpen("bars")).isFalse();
+    }
+
+    private void openBreaker() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+    }
+}
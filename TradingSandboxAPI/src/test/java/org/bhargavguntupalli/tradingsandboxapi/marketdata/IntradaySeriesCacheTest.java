@@ -0,0 +1,126 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntradaySeriesCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-10T14:00:00Z");
+    private static final LocalDate SESSION = LocalDate.of(2025, 7, 10);
+
+    private final QuoteCacheTest.MutableClock clock = new QuoteCacheTest.MutableClock(NOW);
+    private final IntradaySeriesCache cache = new IntradaySeriesCache(10_000, 10, clock);
+
+    private static BarDto bar(String timestamp, double close) {
+        BarDto b = new BarDto();
+        b.setTimestamp(Instant.parse(timestamp));
+        b.setClose(close);
+        return b;
+    }
+
+    @Test
+    void get_RefreshAsksForTailAndReplacesFormingBar() {
+        List<Instant> requestedFrom = new ArrayList<>();
+
+        cache.get("AAPL", "5Min", SESSION, from -> {
+            requestedFrom.add(from);
+            return List.of(bar("2025-07-10T13:30:00Z", 150), bar("2025-07-10T13:35:00Z", 151));
+        });
+        clock.advance(Duration.ofSeconds(11));
+        List<BarDto> bars = cache.get("AAPL", "5Min", SESSION, from -> {
+            requestedFrom.add(from);
+            return List.of(bar("2025-07-10T13:35:00Z", 152), bar("2025-07-10T13:40:00Z", 153));
+        });
+
+        assertThat(requestedFrom).containsExactly(null, Instant.parse("2025-07-10T13:35:00Z"));
+        assertThat(bars).extracting(BarDto::getClose).containsExactly(150.0, 152.0, 153.0);
+    }
+
+    @Test
+    void get_WithinRefreshIntervalServesFromMemory() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("AAPL", "5Min", SESSION, from -> { loads.incrementAndGet(); return List.of(bar("2025-07-10T13:30:00Z", 150)); });
+        clock.advance(Duration.ofSeconds(5));
+        List<BarDto> bars = cache.get("AAPL", "5Min", SESSION, from -> { loads.incrementAndGet(); return List.of(); });
+
+        assertThat(loads).hasValue(1);
+        assertThat(bars).hasSize(1);
+    }
+
+    @Test
+    void get_NewSessionStartsFromScratch() {
+        cache.get("AAPL", "5Min", SESSION, from -> List.of(bar("2025-07-10T19:55:00Z", 150)));
+        clock.advance(Duration.ofDays(1));
+
+        List<Instant> requestedFrom = new ArrayList<>();
+        List<BarDto> bars = cache.get("AAPL", "5Min", SESSION.plusDays(1), from -> {
+            requestedFrom.add(from);
+            return List.of();
+        });
+
+        assertThat(requestedFrom).containsExactly((Instant) null);
+        assertThat(bars).isEmpty();
+    }
+
+    @Test
+    void get_FailedRefreshKeepsExistingBars() {
+        cache.get("AAPL", "5Min", SESSION, from -> List.of(bar("2025-07-10T13:30:00Z", 150)));
+        clock.advance(Duration.ofSeconds(11));
+
+        assertThat(cache.get("AAPL", "5Min", SESSION, from -> null)).hasSize(1);
+    }
+
+    @Test
+    void get_ConcurrentViewersShareOneRefresh() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<BarDto>> first = pool.submit(() -> cache.get("AAPL", "5Min", SESSION, from -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return List.of(bar("2025-07-10T13:30:00Z", 150));
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<List<BarDto>> second = pool.submit(() -> cache.get("AAPL", "5Min", SESSION, from -> {
+                loads.incrementAndGet();
+                return List.of();
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(second.get(5, TimeUnit.SECONDS)).hasSize(1);
+            assertThat(loads).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketClockTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-09T13:00:00Z");
+
+    private final QuoteCacheTest.MutableClock clock = new QuoteCacheTest.MutableClock(NOW);
+    private final MarketClock marketClock = new MarketClock(clock);
+
+    private static OffsetDateTime at(Duration fromNow) {
+        return OffsetDateTime.ofInstant(NOW.plus(fromNow), ZoneOffset.UTC);
+    }
+
+    @Test
+    void empty_NeedsRefreshAndHasNoStatus() {
+        assertThat(marketClock.needsRefresh()).isTrue();
+        assertThat(marketClock.current()).isNull();
+    }
+
+    @Test
+    void closed_FlipsOpenExactlyAtNextOpen() {
+        marketClock.update(new MarketStatusDto(false, at(Duration.ofMinutes(30)), at(Duration.ofHours(7))));
+        assertThat(marketClock.needsRefresh()).isFalse();
+
+        clock.advance(Duration.ofMinutes(30).minusMillis(1));
+        assertThat(marketClock.current().isOpen()).isFalse();
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(marketClock.current().isOpen()).isTrue();
+        assertThat(marketClock.needsRefresh()).isTrue();
+    }
+
+    @Test
+    void open_FlipsClosedExactlyAtNextClose() {
+        marketClock.update(new MarketStatusDto(true, at(Duration.ofHours(20)), at(Duration.ofHours(3))));
+
+        clock.advance(Duration.ofHours(3).minusMillis(1));
+        assertThat(marketClock.current().isOpen()).isTrue();
+        assertThat(marketClock.needsRefresh()).isFalse();
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(marketClock.current().isOpen()).isFalse();
+        assertThat(marketClock.needsRefresh()).isTrue();
+    }
+}
@@ -0,0 +1,89 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MarketDataExecutorTest {
+
+    private final MarketDataExecutor executor = new MarketDataExecutor(new SimpleMeterRegistry(), 2, 4);
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    void supplyAsync_ReturnsTaskResult() {
+        assertThat(executor.supplyAsync(() -> "ok", 1_000, "fallback").join()).isEqualTo("ok");
+    }
+
+    @Test
+    void supplyAsync_FailureCompletesWithFallback() {
+        assertThat(executor.<String>supplyAsync(() -> { throw new IllegalStateException("boom"); }, 1_000, "fallback")
+                .join()).isEqualTo("fallback");
+    }
+
+    @Test
+    void supplyAsync_DeadlineCompletesWithFallback() {
+        CountDownLatch never = new CountDownLatch(1);
+        String result = executor.supplyAsync(() -> {
+            try {
+                never.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }, 50, "fallback").join();
+
+        assertThat(result).isEqualTo("fallback");
+    }
+
+    @Test
+    void supplyAsync_DeadlineInterruptsTask() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        executor.supplyAsync(() -> {
+            try {
+                never.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            stopped.countDown();
+            return "late";
+        }, 50, "fallback").join();
+
+        assertThat(stopped.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(interrupted).isTrue();
+    }
+
+    @Test
+    void supplyAsync_FullQueueShedsWithoutRunningOnCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable block = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // 2 threads busy, 4 queued
+        for (int i = 0; i < 6; i++) {
+            executor.supplyAsync(() -> { block.run(); return "busy"; }, 5_000, "fallback");
+        }
+
+        String caller = Thread.currentThread().getName();
+        CompletableFuture<String> overflow = executor.supplyAsync(() -> Thread.currentThread().getName(), 5_000, "shed");
+
+        assertThat(overflow.join()).isEqualTo("shed").isNotEqualTo(caller);
+        release.countDown();
+    }
+}
@@ -0,0 +1,54 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MissingSessions.Range;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MissingSessionsTest {
+
+    // ten consecutive "sessions" Jan 1..10, weekends don't matter here
+    private static final List<LocalDate> SESSIONS = IntStream.rangeClosed(1, 10)
+            .mapToObj(d -> LocalDate.of(2025, 1, d))
+            .toList();
+
+    private static LocalDate jan(int day) {
+        return LocalDate.of(2025, 1, day);
+    }
+
+    @Test
+    void ranges_CoalescesContiguousHoles() {
+        MissingSessions missing = new MissingSessions(SESSIONS);
+        missing.markPresent(List.of(jan(1), jan(4), jan(5), jan(10)));
+
+        assertThat(missing.ranges(10)).containsExactly(
+                new Range(jan(2), jan(3)),
+                new Range(jan(6), jan(9)));
+    }
+
+    @Test
+    void ranges_MergesClosestRunsBeyondLimit() {
+        MissingSessions missing = new MissingSessions(SESSIONS);
+        // holes: 1, 3, 7..8  -> runs separated by one and three present sessions
+        missing.markPresent(List.of(jan(2), jan(4), jan(5), jan(6), jan(9), jan(10)));
+
+        assertThat(missing.ranges(2)).containsExactly(
+                new Range(jan(1), jan(3)),
+                new Range(jan(7), jan(8)));
+        assertThat(missing.ranges(1)).containsExactly(new Range(jan(1), jan(8)));
+    }
+
+    @Test
+    void markPresent_ReportsOnlyNewlyFilledSessions() {
+        MissingSessions missing = new MissingSessions(SESSIONS);
+
+        assertThat(missing.markPresent(jan(3))).isTrue();
+        assertThat(missing.markPresent(jan(3))).isFalse();
+        assertThat(missing.markPresent(LocalDate.of(2025, 2, 1))).isFalse();
+        assertThat(missing.dates()).hasSize(9).doesNotContain(jan(3));
+    }
+}
@@ -0,0 +1,225 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuoteCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-09T15:00:00Z");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static TradeResponseDto quote(double price) {
+        TradeResponseDto dto = new TradeResponseDto();
+        dto.setPrice(price);
+        return dto;
+    }
+
+    private QuoteCache cacheAt(Instant now, int maxEntries) {
+        Clock clock = Clock.fixed(now, ZoneOffset.UTC);
+        return new QuoteCache(registry, new MarketClock(clock), maxEntries, 5_000, 600_000, clock);
+    }
+
+    @Test
+    void get_SecondCallIsHit() {
+        QuoteCache cache = cacheAt(NOW, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("AAPL", s -> { loads.incrementAndGet(); return quote(150); });
+        TradeResponseDto second = cache.get("AAPL", s -> { loads.incrementAndGet(); return quote(999); });
+
+        assertThat(second.getPrice()).isEqualTo(150);
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("quote.cache.requests").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(registry.get("quote.cache.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_NullResultIsNotCached() {
+        QuoteCache cache = cacheAt(NOW, 10);
+
+        assertThat(cache.get("AAPL", s -> null)).isNull();
+        assertThat(cache.get("AAPL", s -> quote(150)).getPrice()).isEqualTo(150);
+    }
+
+    @Test
+    void get_ExpiredEntryIsReloaded() {
+        MutableClock clock = new MutableClock(NOW);
+        QuoteCache cache = new QuoteCache(registry, new MarketClock(clock), 10, 5_000, 600_000, clock);
+        cache.put("AAPL", quote(150));
+
+        clock.advance(Duration.ofSeconds(6));
+
+        assertThat(cache.get("AAPL", s -> quote(151)).getPrice()).isEqualTo(151);
+    }
+
+    @Test
+    void get_LoadFinishedAfterMiss_IsNotRepeated() {
+        MutableClock clock = new MutableClock(NOW);
+        QuoteCache cache = new QuoteCache(registry, new MarketClock(clock), 10, 5_000, 600_000, clock);
+        cache.put("AAPL", quote(150));
+        clock.advance(Duration.ofSeconds(6));
+        AtomicInteger loads = new AtomicInteger();
+
+        // another caller's load lands just as this one sees the expired entry
+        clock.onNextRead(() -> cache.put("AAPL", quote(151)));
+        TradeResponseDto result = cache.get("AAPL", s -> { loads.incrementAndGet(); return quote(999); });
+
+        assertThat(result.getPrice()).isEqualTo(151);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        QuoteCache cache = cacheAt(NOW, 10);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<TradeResponseDto> first = pool.submit(() -> cache.get("AAPL", s -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return quote(150);
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<TradeResponseDto> second = pool.submit(() -> cache.get("AAPL", s -> {
+                loads.incrementAndGet();
+                return quote(999);
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getPrice()).isEqualTo(150);
+            assertThat(second.get(5, TimeUnit.SECONDS).getPrice()).isEqualTo(150);
+            assertThat(loads).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_LoaderError_ReleasesWaiters() throws Exception {
+        QuoteCache cache = cacheAt(NOW, 10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<TradeResponseDto> first = pool.submit(() -> cache.get("AAPL", s -> {
+                loading.countDown();
+                await(release);
+                throw new NoClassDefFoundError("LatestTradesDto");
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<TradeResponseDto> second = pool.submit(() -> cache.get("AAPL", s -> quote(999)));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NoClassDefFoundError.class);
+            assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NoClassDefFoundError.class);
+            // the failed load isn't cached; the next caller loads afresh
+            assertThat(cache.get("AAPL", s -> quote(151)).getPrice()).isEqualTo(151);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void put_EvictsBeyondMaxEntries() {
+        QuoteCache cache = cacheAt(NOW, 2);
+
+        cache.put("AAPL", quote(1));
+        cache.put("MSFT", quote(2));
+        cache.put("NVDA", quote(3));
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void closedMarket_QuotesLiveUntilNextOpen() {
+        OffsetDateTime nextOpen = OffsetDateTime.ofInstant(NOW.plus(Duration.ofMinutes(2)), ZoneOffset.UTC);
+        OffsetDateTime nextClose = nextOpen.plusHours(6);
+
+        MutableClock clock = new MutableClock(NOW);
+        MarketClock marketClock = new MarketClock(clock);
+        marketClock.update(new MarketStatusDto(false, nextOpen, nextClose));
+        QuoteCache cache = new QuoteCache(registry, marketClock, 10, 5_000, 600_000, clock);
+        cache.put("AAPL", quote(150));
+
+        // still closed a minute later: served from cache well past the open-market TTL
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(cache.get("AAPL", s -> quote(999)).getPrice()).isEqualTo(150);
+
+        // but never past the opening bell
+        clock.advance(Duration.ofMinutes(2));
+        assertThat(cache.get("AAPL", s -> quote(151)).getPrice()).isEqualTo(151);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class MutableClock extends Clock {
+        private Instant now;
+        private Runnable onNextRead;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+
+        void onNextRead(Runnable action) {
+            onNextRead = action;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            Runnable action = onNextRead;
+            if (action != null) {
+                onNextRead = null;
+                action.run();
+            }
+            return now;
+        }
+    }
+}
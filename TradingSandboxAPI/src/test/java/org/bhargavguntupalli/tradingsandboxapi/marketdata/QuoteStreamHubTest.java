@@ -0,0 +1,188 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub.QuoteEvent;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuoteStreamHubTest {
+
+    private final DailyPriceService svc = mock(DailyPriceService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static TradeResponseDto quote(double price) {
+        TradeResponseDto dto = new TradeResponseDto();
+        dto.setPrice(price);
+        return dto;
+    }
+
+    @Test
+    void pollInterval_LeavesHalfTheLatestTradesBudgetForOtherCallers() throws Exception {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new FileSystemResource("src/main/resources/application.yml"));
+        Properties config = yaml.getObject();
+        String scheduled = QuoteStreamHub.class.getMethod("poll").getAnnotation(Scheduled.class).fixedDelayString();
+        long codeDefault = Long.parseLong(scheduled.substring(scheduled.lastIndexOf(':') + 1, scheduled.length() - 1));
+        long interval = Long.parseLong(config.getProperty("market-data.quote-stream.interval-ms"));
+        int perMinute = Integer.parseInt(config.getProperty("market-data.budget.default-per-minute"));
+        int burst = Integer.parseInt(config.getProperty("market-data.budget.burst"));
+
+        // the bucket refills perMinute - burst tokens a minute; one batch per tick may take at most half
+        long minimum = 2 * 60_000L / (perMinute - burst);
+        assertThat(interval).isEqualTo(codeDefault).isGreaterThanOrEqualTo(minimum);
+    }
+
+    @Test
+    void poll_FetchesUnionOnceAndFansOut() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, Runnable::run);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        hub.register(List.of("aapl", "MSFT"), first);
+        hub.register(List.of("AAPL"), second);
+        when(svc.refreshLatestTrades(List.of("AAPL", "MSFT")))
+                .thenReturn(Map.of("AAPL", quote(150), "MSFT", quote(410)));
+
+        hub.poll();
+
+        verify(svc, times(1)).refreshLatestTrades(any());
+        assertThat(first.symbols()).containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(second.symbols()).containsExactly("AAPL");
+    }
+
+    @Test
+    void poll_FetchesAtStreamPriority() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, Runnable::run);
+        hub.register(List.of("AAPL"), new RecordingEmitter());
+        List<UpstreamPriority> seen = new ArrayList<>();
+        when(svc.refreshLatestTrades(any())).thenAnswer(inv -> {
+            seen.add(UpstreamPriority.current());
+            return Map.of();
+        });
+
+        hub.poll();
+
+        assertThat(seen).containsExactly(UpstreamPriority.STREAM);
+        verify(svc, never()).getLatestTrades(any());
+    }
+
+    @Test
+    void poll_UnchangedQuoteIsNotResent() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, Runnable::run);
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register(List.of("AAPL"), emitter);
+        when(svc.refreshLatestTrades(any())).thenReturn(Map.of("AAPL", quote(150)));
+
+        hub.poll();
+        hub.poll();
+
+        assertThat(emitter.events).hasSize(1);
+    }
+
+    @Test
+    void poll_SplitsUnionIntoUpstreamBatches() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, Runnable::run);
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            symbols.add(String.format("S%03d", i));
+        }
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register(symbols, emitter);
+        List<Integer> batchSizes = new ArrayList<>();
+        when(svc.refreshLatestTrades(any())).thenAnswer(inv -> {
+            Collection<String> batch = inv.getArgument(0);
+            batchSizes.add(batch.size());
+            if (batch.contains("S000")) {
+                throw new IllegalStateException("upstream down");
+            }
+            return Map.of("S149", quote(10));
+        });
+
+        hub.poll();
+
+        assertThat(batchSizes).containsExactly(100, 50);
+        // the failed first batch doesn't cost the second one its quotes
+        assertThat(emitter.symbols()).containsExactly("S149");
+    }
+
+    @Test
+    void slowSubscriber_OnlyGetsLatestTick() {
+        List<Runnable> queued = new ArrayList<>();
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, queued::add);
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register(List.of("AAPL"), emitter);
+        when(svc.refreshLatestTrades(any()))
+                .thenReturn(Map.of("AAPL", quote(150)))
+                .thenReturn(Map.of("AAPL", quote(151)))
+                .thenReturn(Map.of("AAPL", quote(152)));
+
+        // the sender hasn't got to this client yet while three ticks arrive
+        hub.poll();
+        hub.poll();
+        hub.poll();
+        assertThat(queued).hasSize(1);
+        queued.get(0).run();
+
+        assertThat(emitter.events).extracting(e -> e.quote().getPrice()).containsExactly(152.0);
+        assertThat(registry.counter("quote.stream.dropped").count()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_RefusesPastLimit() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 1, 60_000, 60_000, Runnable::run);
+
+        assertThat(hub.subscribe(List.of("AAPL"))).isNotNull();
+        assertThat(hub.subscribe(List.of("MSFT"))).isNull();
+        assertThat(hub.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedSend_DropsSubscriber() {
+        QuoteStreamHub hub = new QuoteStreamHub(svc, registry, 10, 60_000, 60_000, Runnable::run);
+        hub.register(List.of("AAPL"), new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+        when(svc.refreshLatestTrades(any())).thenReturn(Map.of("AAPL", quote(150)));
+
+        hub.poll();
+
+        assertThat(hub.subscriberCount()).isZero();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<QuoteEvent> events = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .filter(d -> d.getData() instanceof QuoteEvent)
+                    .forEach(d -> events.add((QuoteEvent) d.getData()));
+        }
+
+        List<String> symbols() {
+            return events.stream().map(QuoteEvent::symbol).toList();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.StockSuggestionDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCacheTest.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolCatalogTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-07-10T14:00:00Z"));
+    private final SymbolCatalog catalog = new SymbolCatalog(60_000, clock);
+
+    @Test
+    void unknownSymbol_ExpiresAfterTtl() {
+        catalog.markUnknown("aaple");
+        assertThat(catalog.isKnownUnknown("AAPLE")).isTrue();
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThat(catalog.isKnownUnknown("AAPLE")).isFalse();
+    }
+
+    @Test
+    void catalogRefresh_ForgetsUnknownSymbols() {
+        catalog.markUnknown("NEWCO");
+
+        catalog.update(List.of(new StockSuggestionDto("NEWCO", "New Co", "NYSE")));
+
+        assertThat(catalog.isKnownUnknown("NEWCO")).isFalse();
+        assertThat(catalog.get("newco").getName()).isEqualTo("New Co");
+    }
+}
@@ -0,0 +1,68 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.bhargavguntupalli.tradingsandboxapi.dto.StockSuggestionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolIndexTest {
+
+    private final SymbolIndex index = new SymbolIndex(List.of(
+            new StockSuggestionDto("APP", "AppLovin Corporation", "NASDAQ"),
+            new StockSuggestionDto("AAPL", "Apple Inc.", "NASDAQ"),
+            new StockSuggestionDto("APLE", "Apple Hospitality REIT, Inc.", "NYSE"),
+            new StockSuggestionDto("A", "Agilent Technologies Inc.", "NYSE"),
+            new StockSuggestionDto("PINE", "Alpine Income Property Trust", "NYSE"),
+            new StockSuggestionDto("MSFT", "Microsoft Corporation", "NASDAQ")));
+
+    private List<String> symbols(String query) {
+        return index.search(query, 10).stream().map(StockSuggestionDto::getSymbol).toList();
+    }
+
+    @Test
+    void exactSymbolRanksFirst_ThenShorterPrefixes() {
+        assertThat(symbols("app")).startsWith("APP");
+        assertThat(symbols("a")).startsWith("A", "APP", "AAPL", "APLE");
+    }
+
+    @Test
+    void nameWordPrefixAfterSymbolPrefix() {
+        // no symbol starts with APPL, so name words decide: AppLovin, Apple, Apple Hospitality
+        assertThat(symbols("appl")).containsExactly("APP", "AAPL", "APLE");
+    }
+
+    @Test
+    void substringOfNameMatchesLast() {
+        // "LPINE" only occurs inside "Alpine"
+        assertThat(symbols("lpine")).containsExactly("PINE");
+        assertThat(symbols("soft")).containsExactly("MSFT");
+    }
+
+    @Test
+    void noMatch_ReturnsEmpty() {
+        assertThat(symbols("zzz")).isEmpty();
+        assertThat(symbols("  ")).isEmpty();
+    }
+
+    @Test
+    void respectsLimit() {
+        List<StockSuggestionDto> catalog = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            catalog.add(new StockSuggestionDto("X" + i, "Company " + i, "NYSE"));
+        }
+        SymbolIndex big = new SymbolIndex(catalog);
+
+        assertThat(big.search("x", 10)).hasSize(10);
+        assertThat(big.search("x", 1_000)).hasSize(SymbolIndex.MAX_RESULTS);
+        assertThat(big.search("x", 10).get(0).getSymbol()).isEqualTo("X0");
+    }
+
+    @Test
+    void contains_IsExactAndCaseInsensitive() {
+        assertThat(index.contains("aapl")).isTrue();
+        assertThat(index.contains("AAP")).isFalse();
+    }
+}
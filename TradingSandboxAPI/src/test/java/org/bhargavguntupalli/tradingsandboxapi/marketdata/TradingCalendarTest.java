@@ -0,0 +1,52 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradingCalendarTest {
+
+    private static TradingCalendar calendarAt(String instant) {
+        return new TradingCalendar(new ClassPathResource("calendar/nyse-calendar.csv"),
+                Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+    }
+
+    private final TradingCalendar calendar = calendarAt("2025-07-09T15:00:00Z");
+
+    @Test
+    void weekendsAndHolidaysAreNotSessions() {
+        assertThat(calendar.isTradingDay(LocalDate.of(2025, 7, 3))).isTrue();
+        assertThat(calendar.isTradingDay(LocalDate.of(2025, 7, 4))).isFalse();   // Independence Day
+        assertThat(calendar.isTradingDay(LocalDate.of(2025, 7, 5))).isFalse();   // Saturday
+        assertThat(calendar.isTradingDay(LocalDate.of(2025, 4, 18))).isFalse();  // Good Friday
+    }
+
+    @Test
+    void earlyCloseDays() {
+        assertThat(calendar.closeTime(LocalDate.of(2025, 11, 28))).isEqualTo(LocalTime.of(13, 0));
+        assertThat(calendar.closeTime(LocalDate.of(2025, 11, 25))).isEqualTo(LocalTime.of(16, 0));
+    }
+
+    @Test
+    void sessionsBetween_SkipsHolidayWeekend() {
+        assertThat(calendar.sessionsBetween(LocalDate.of(2025, 7, 3), LocalDate.of(2025, 7, 7)))
+                .containsExactly(LocalDate.of(2025, 7, 3), LocalDate.of(2025, 7, 7));
+    }
+
+    @Test
+    void lastCompletedSession_BeforeAndAfterTheBell() {
+        // 11:00 ET Wednesday: today's session is still running
+        assertThat(calendarAt("2025-07-09T15:00:00Z").lastCompletedSession()).isEqualTo(LocalDate.of(2025, 7, 8));
+        // 16:00 ET Wednesday
+        assertThat(calendarAt("2025-07-09T20:00:00Z").lastCompletedSession()).isEqualTo(LocalDate.of(2025, 7, 9));
+        // Monday morning after the Independence Day weekend
+        assertThat(calendarAt("2025-07-07T13:00:00Z").lastCompletedSession()).isEqualTo(LocalDate.of(2025, 7, 3));
+    }
+}
@@ -0,0 +1,81 @@
+package org.bhargavguntupalli.tradingsandboxapi.marketdata;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCacheTest.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamBudgetTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-07-10T14:00:00Z"));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void bucket_LowerClassesLeaveReserveForHigherOnes() throws Exception {
+        // 10 tokens, no refill to speak of
+        TokenBucket bucket = new TokenBucket(10, 0.001, clock);
+
+        // PREFETCH keeps half the bucket back
+        int prefetch = 0;
+        while (bucket.tryAcquire(UpstreamPriority.PREFETCH, 0)) {
+            prefetch++;
+        }
+        assertThat(prefetch).isEqualTo(5);
+
+        // CHART may go down to 20%, TRADE takes the rest
+        int chart = 0;
+        while (bucket.tryAcquire(UpstreamPriority.CHART, 0)) {
+            chart++;
+        }
+        assertThat(chart).isEqualTo(3);
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isTrue();
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isTrue();
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isFalse();
+    }
+
+    @Test
+    void bucket_RefillsOverTime() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 60, clock);
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isTrue();
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isFalse();
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertThat(bucket.tryAcquire(UpstreamPriority.TRADE, 0)).isTrue();
+    }
+
+    @Test
+    void acquire_ShedsWithClearErrorAndCountsIt() {
+        UpstreamBudget budget = new UpstreamBudget(registry, 20, 5, 30, 2, clock);
+        budget.acquire("search", UpstreamPriority.TRADE);
+        budget.acquire("search", UpstreamPriority.TRADE);
+
+        assertThatThrownBy(() -> budget.acquire("search", UpstreamPriority.SEARCH))
+                .isInstanceOf(UpstreamBudgetExceededException.class)
+                .hasMessageContaining("search");
+        assertThat(registry.counter("market.data.budget.shed", "route", "search", "priority", "SEARCH").count())
+                .isEqualTo(1);
+        // each route has its own bucket
+        budget.acquire("bars", UpstreamPriority.SEARCH);
+    }
+
+    @Test
+    void acquire_AssetsRouteStaysWithinItsOwnLimit() {
+        UpstreamBudget budget = new UpstreamBudget(registry, 20, 5, 30, 5, clock);
+
+        // DataAcquisition allows 5 a minute: 2 up front, 3 more over the minute
+        budget.acquire("assets", UpstreamPriority.TRADE);
+        budget.acquire("assets", UpstreamPriority.TRADE);
+        assertThatThrownBy(() -> budget.acquire("assets", UpstreamPriority.PREFETCH))
+                .isInstanceOf(UpstreamBudgetExceededException.class);
+
+        clock.advance(Duration.ofSeconds(21));
+
+        budget.acquire("assets", UpstreamPriority.TRADE);
+    }
+}
@@ -45,4 +45,19 @@ class DailyPriceTest {
 
         assertThat(price.getClosingPrice()).isEqualByComparingTo(precisePrice);
     }
+
+    @Test
+    void fullBarConstructor_KeepsOhlcvAndVwap() {
+        DailyPriceId id = new DailyPriceId("AAPL", LocalDate.of(2025, 7, 9));
+        DailyPrice price = new DailyPrice(id, new BigDecimal("148.00"), new BigDecimal("151.50"),
+                new BigDecimal("147.25"), new BigDecimal("150.25"), 52_000_000L, 610_000L, new BigDecimal("149.80"));
+
+        assertThat(price.getOpenPrice()).isEqualByComparingTo("148.00");
+        assertThat(price.getHighPrice()).isEqualByComparingTo("151.50");
+        assertThat(price.getLowPrice()).isEqualByComparingTo("147.25");
+        assertThat(price.getClosingPrice()).isEqualByComparingTo("150.25");
+        assertThat(price.getVolume()).isEqualTo(52_000_000L);
+        assertThat(price.getTradeCount()).isEqualTo(610_000L);
+        assertThat(price.getVwap()).isEqualByComparingTo("149.80");
+    }
 }
@@ -0,0 +1,70 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+import org.bhargavguntupalli.tradingsandboxapi.orders.BasketPlan.Lot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BasketPlanTest {
+
+    private static BigDecimal d(String v) {
+        return new BigDecimal(v);
+    }
+
+    @Test
+    void laterLegsSeeEarlierOnes() {
+        BasketPlan plan = new BasketPlan(d("1000"), Map.of("AAPL", new Lot(d("10"), d("100"))));
+
+        // the sale funds the purchase that follows it
+        assertThat(plan.apply(TradeType.SELL, "AAPL", d("10"), d("150"), d("1500"))).isNull();
+        assertThat(plan.apply(TradeType.BUY, "MSFT", d("5"), d("400"), d("2000"))).isNull();
+
+        assertThat(plan.cash()).isEqualByComparingTo("500");
+        assertThat(plan.position("AAPL").quantity()).isEqualByComparingTo("0");
+        assertThat(plan.position("MSFT")).isEqualTo(new Lot(d("5"), d("400")));
+    }
+
+    @Test
+    void buyReweightsAverageCost() {
+        BasketPlan plan = new BasketPlan(d("10000"), Map.of("AAPL", new Lot(d("10"), d("100"))));
+
+        assertThat(plan.apply(TradeType.BUY, "AAPL", d("10"), d("200"), d("2000"))).isNull();
+
+        assertThat(plan.position("AAPL").quantity()).isEqualByComparingTo("20");
+        assertThat(plan.position("AAPL").averageCost()).isEqualByComparingTo("150");
+    }
+
+    @Test
+    void buyLegsOnOneSymbolAverageOverTheRoundedTotalCost() {
+        BasketPlan plan = new BasketPlan(d("10000"), Map.of());
+
+        // each leg's total cost is qty * price rounded to 4 places, as the trade records and the holdings update see it
+        assertThat(plan.apply(TradeType.BUY, "AAPL", d("4.69"), d("133.9738"), d("628.3371"))).isNull();
+        assertThat(plan.apply(TradeType.BUY, "AAPL", d("19.36"), d("31.4385"), d("608.6494"))).isNull();
+        // (4.69 * 133.9738 + 608.6494) / 24.05; the unrounded 608.649736 would give 51.4339
+        assertThat(plan.position("AAPL").averageCost()).isEqualByComparingTo("51.4340");
+
+        assertThat(plan.apply(TradeType.BUY, "AAPL", d("2.5"), d("87.1234"), d("217.8085"))).isNull();
+
+        assertThat(plan.cash()).isEqualByComparingTo("8545.2050");
+        assertThat(plan.position("AAPL").quantity()).isEqualByComparingTo("26.55");
+        assertThat(plan.position("AAPL").averageCost()).isEqualByComparingTo("54.7946");
+    }
+
+    @Test
+    void rejectedLegLeavesProjectionUntouched() {
+        BasketPlan plan = new BasketPlan(d("100"), Map.of("AAPL", new Lot(d("1"), d("100"))));
+
+        assertThat(plan.apply(TradeType.BUY, "MSFT", d("1"), d("400"), d("400"))).startsWith("Insufficient funds");
+        assertThat(plan.apply(TradeType.SELL, "AAPL", d("2"), d("100"), d("200"))).startsWith("Insufficient shares");
+        assertThat(plan.apply(TradeType.SELL, "TSLA", d("1"), d("100"), d("100"))).startsWith("You don't own");
+
+        assertThat(plan.cash()).isEqualByComparingTo("100");
+        assertThat(plan.position("AAPL").quantity()).isEqualByComparingTo("1");
+        assertThat(plan.position("MSFT")).isNull();
+    }
+}
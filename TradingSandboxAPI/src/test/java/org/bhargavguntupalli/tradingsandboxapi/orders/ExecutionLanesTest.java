@@ -0,0 +1,121 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionLanesTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void sameUser_RunsOneAtATime() throws Exception {
+        ExecutionLanes lanes = new ExecutionLanes(registry, 16, 5_000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        int[] balance = {0};
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 200; i++) {
+                pool.execute(() -> lanes.run("alice", () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    // an unguarded read-modify-write: only safe if the lane serializes it
+                    int read = balance[0];
+                    Thread.yield();
+                    balance[0] = read + 1;
+                    running.decrementAndGet();
+                    return null;
+                }));
+            }
+        } finally {
+            pool.shutdown();
+            assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(balance[0]).isEqualTo(200);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    void differentLanes_RunInParallel() throws Exception {
+        ExecutionLanes lanes = new ExecutionLanes(registry, 16, 5_000);
+        String other = "bob";
+        for (int i = 0; lanes.lane(other) == lanes.lane("alice"); i++) {
+            other = "bob" + i;
+        }
+        String bob = other;
+        CountDownLatch aliceIn = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> alice = pool.submit(() -> lanes.run("alice", () -> {
+                aliceIn.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(aliceIn.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // bob isn't held up by alice's open trade
+            assertThat(lanes.run(bob, () -> "done")).isEqualTo("done");
+            release.countDown();
+            alice.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void busyLane_TimesOut() throws Exception {
+        ExecutionLanes lanes = new ExecutionLanes(registry, 16, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> lanes.run("alice", () -> {
+                held.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> lanes.run("alice", () -> null))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(registry.counter("trade.lane.timeouts").count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void runAll_ReleasesEveryLane() {
+        ExecutionLanes lanes = new ExecutionLanes(registry, 4, 50);
+
+        assertThat(lanes.runAll(List.of("alice", "bob", "carol", "alice"), () -> 3)).isEqualTo(3);
+
+        // nothing is left locked behind the batch
+        assertThat(lanes.run("alice", () -> 1)).isEqualTo(1);
+        assertThat(lanes.run("carol", () -> 1)).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyIndexTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private static TradeResultDto trade(long id) {
+        TradeResultDto dto = new TradeResultDto();
+        dto.setTradeId(id);
+        return dto;
+    }
+
+    @Test
+    void keysAreScopedToTheUser() {
+        IdempotencyIndex index = new IdempotencyIndex(registry, 10);
+        index.put("alice", "k1", trade(1));
+
+        assertThat(index.get("alice", "k1").getTradeId()).isEqualTo(1);
+        assertThat(index.get("bob", "k1")).isNull();
+        assertThat(registry.counter("trade.idempotent.replays").count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPastLimit() {
+        IdempotencyIndex index = new IdempotencyIndex(registry, 2);
+        index.put("alice", "k1", trade(1));
+        index.put("alice", "k2", trade(2));
+        index.get("alice", "k1");
+        index.put("alice", "k3", trade(3));
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get("alice", "k1")).isNotNull();
+        assertThat(index.get("alice", "k2")).isNull();
+        assertThat(index.get("alice", "k3")).isNotNull();
+    }
+}
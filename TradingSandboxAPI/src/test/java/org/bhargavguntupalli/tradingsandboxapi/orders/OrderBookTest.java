@@ -0,0 +1,93 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookTest {
+
+    private static OrderTrigger fall(String price) {
+        return new OrderTrigger(true, OrderTrigger.ticks(new BigDecimal(price)));
+    }
+
+    private static OrderTrigger rise(String price) {
+        return new OrderTrigger(false, OrderTrigger.ticks(new BigDecimal(price)));
+    }
+
+    private static long ticks(String price) {
+        return OrderTrigger.ticks(new BigDecimal(price));
+    }
+
+    @Test
+    void crossed_TakesOnlyLevelsThePriceReached() {
+        OrderBook book = new OrderBook();
+        book.add(3, fall("100"));
+        book.add(1, fall("99"));
+        book.add(2, fall("98"));
+        book.add(4, rise("105"));
+
+        assertThat(book.crossed(ticks("99.00"))).containsExactly(1, 3);
+        assertThat(book.size()).isEqualTo(2);
+
+        assertThat(book.crossed(ticks("104.99"))).isEmpty();
+        assertThat(book.crossed(ticks("105"))).containsExactly(4);
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_TakesOrderOffItsLevel() {
+        OrderBook book = new OrderBook();
+        book.add(1, fall("50"));
+        book.add(2, fall("50"));
+        book.add(3, fall("50"));
+
+        assertThat(book.remove(2, fall("50"))).isTrue();
+        assertThat(book.remove(2, fall("50"))).isFalse();
+        assertThat(book.remove(1, rise("50"))).isFalse();
+
+        assertThat(book.crossed(ticks("49"))).containsExactly(1, 3);
+        assertThat(book.size()).isZero();
+    }
+
+    @Test
+    void cancel_TriesEachLevelThenKeepsTheOrderOff() {
+        OrderBook book = new OrderBook();
+        book.add(1, fall("50"));
+
+        book.cancel(1, List.of(rise("55"), fall("50")));
+        assertThat(book.size()).isZero();
+
+        // not on the book when cancelled: a later add is skipped once
+        book.cancel(2, List.of(fall("50")));
+        book.add(2, fall("50"));
+        assertThat(book.size()).isZero();
+        book.add(2, fall("50"));
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    void forget_DropsRememberedCancels() {
+        OrderBook book = new OrderBook();
+        book.cancel(1, List.of(fall("50")));
+
+        book.forget(List.of(1L));
+        book.add(1, fall("50"));
+
+        assertThat(book.size()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsManyOrders() {
+        OrderBook book = new OrderBook();
+        for (int i = 0; i < 200_000; i++) {
+            book.add(i, fall(BigDecimal.valueOf(10_000 + i % 5_000, 2).toPlainString()));
+        }
+
+        // 100.00 .. 149.99 in cents; a drop to 125.00 crosses the upper half
+        assertThat(book.crossed(ticks("125.00"))).hasSize(100_000);
+        assertThat(book.size()).isEqualTo(100_000);
+    }
+}
@@ -0,0 +1,240 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.OrderRepository;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderEngineTest {
+
+    private final OrderRepository orderRepo = mock(OrderRepository.class);
+    private final TradingService tradingService = mock(TradingService.class);
+    private final DailyPriceService dailyPriceService = mock(DailyPriceService.class);
+    private OrderEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new OrderEngine(orderRepo, tradingService, dailyPriceService, mock(QuoteStreamHub.class),
+                new SimpleMeterRegistry(), 2, Runnable::run);
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(true, null, null));
+        when(tradingService.fillTriggeredOrders(anyList(), anyMap())).thenReturn(List.of());
+    }
+
+    private static Order order(long id, TradeType side, OrderType type, String limit, String stop) {
+        Order o = new Order();
+        ReflectionTestUtils.setField(o, "id", id);
+        o.setSymbol("AAPL");
+        o.setSide(side);
+        o.setOrderType(type);
+        o.setQuantity(BigDecimal.ONE);
+        o.setLimitPrice(limit != null ? new BigDecimal(limit) : null);
+        o.setStopPrice(stop != null ? new BigDecimal(stop) : null);
+        o.setStatus(OrderStatus.OPEN);
+        return o;
+    }
+
+    private static Map<String, TradeResponseDto> quote(double price) {
+        TradeResponseDto dto = new TradeResponseDto();
+        dto.setPrice(price);
+        return Map.of("AAPL", dto);
+    }
+
+    @Test
+    void tick_FillsOnlyCrossedOrders() {
+        engine.rest(order(1, TradeType.BUY, OrderType.LIMIT, "150", null));
+        engine.rest(order(2, TradeType.BUY, OrderType.LIMIT, "140", null));
+        engine.rest(order(3, TradeType.SELL, OrderType.STOP, null, "148"));
+
+        engine.onQuotes(quote(147.5));
+
+        verify(tradingService).fillTriggeredOrders(List.of(1L, 3L), Map.of("AAPL", new BigDecimal("147.5000")));
+        assertThat(engine.restingCount()).isEqualTo(1);
+        assertThat(engine.watchedSymbols()).containsExactly("AAPL");
+    }
+
+    @Test
+    void tick_FillsInBatches() {
+        for (long id = 1; id <= 5; id++) {
+            engine.rest(order(id, TradeType.SELL, OrderType.LIMIT, "100", null));
+        }
+
+        engine.onQuotes(quote(101));
+
+        verify(tradingService, times(3)).fillTriggeredOrders(anyList(), anyMap());
+        verify(tradingService).fillTriggeredOrders(eq(List.of(5L)), anyMap());
+    }
+
+    @Test
+    void tick_IgnoredWhileClosedOrStale() {
+        engine.rest(order(1, TradeType.BUY, OrderType.LIMIT, "150", null));
+
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(false, null, null));
+        engine.onQuotes(quote(100));
+
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(true, null, null));
+        Map<String, TradeResponseDto> stale = quote(100);
+        stale.get("AAPL").setStale(true);
+        engine.onQuotes(stale);
+
+        verify(tradingService, never()).fillTriggeredOrders(anyList(), anyMap());
+        assertThat(engine.restingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void armedStopLimit_RestsAgainAtItsLimit() {
+        Order stopLimit = order(1, TradeType.BUY, OrderType.STOP_LIMIT, "151", "150");
+        engine.rest(stopLimit);
+        when(tradingService.fillTriggeredOrders(eq(List.of(1L)), any())).thenAnswer(inv -> {
+            stopLimit.setStopTriggered(true);
+            return List.of(stopLimit);
+        });
+
+        // stop hit, but already past the limit
+        engine.onQuotes(quote(152));
+        assertThat(engine.restingCount()).isEqualTo(1);
+
+        // now resting as a buy limit at 151
+        engine.onQuotes(quote(151));
+        verify(tradingService, times(2)).fillTriggeredOrders(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void cancel_RemovesFromBook() {
+        Order o = order(1, TradeType.BUY, OrderType.LIMIT, "150", null);
+        engine.rest(o);
+
+        engine.cancel(o);
+        engine.onQuotes(quote(100));
+
+        assertThat(engine.restingCount()).isZero();
+        verify(tradingService, never()).fillTriggeredOrders(anyList(), anyMap());
+    }
+
+    @Test
+    void cancel_ArmedStopLimitComesOffItsLimitLevel() {
+        Order armed = order(1, TradeType.BUY, OrderType.STOP_LIMIT, "151", "150");
+        armed.setStopTriggered(true);
+        engine.rest(armed);
+
+        // read before the stop was marked: still looks unarmed
+        engine.cancel(order(1, TradeType.BUY, OrderType.STOP_LIMIT, "151", "150"));
+
+        assertThat(engine.restingCount()).isZero();
+    }
+
+    @Test
+    void cancel_WhileBeingFilled_IsNotRestedAgain() {
+        Order stopLimit = order(1, TradeType.BUY, OrderType.STOP_LIMIT, "151", "150");
+        engine.rest(stopLimit);
+        when(tradingService.fillTriggeredOrders(eq(List.of(1L)), any())).thenAnswer(inv -> {
+            // the stop arms, then the user cancels before the order goes back on the book
+            stopLimit.setStopTriggered(true);
+            engine.cancel(stopLimit);
+            return List.of(stopLimit);
+        });
+
+        engine.onQuotes(quote(152));
+
+        assertThat(engine.restingCount()).isZero();
+        // and the next placement of a new order isn't affected
+        engine.rest(order(2, TradeType.BUY, OrderType.LIMIT, "140", null));
+        assertThat(engine.restingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void marketOnOpen_WaitsForOpenThenFillsInOneBatch() {
+        Order first = order(1, TradeType.BUY, OrderType.MARKET_ON_OPEN, null, null);
+        Order second = order(2, TradeType.SELL, OrderType.MARKET_ON_OPEN, null, null);
+        when(orderRepo.findByStatusAndTypeAfter(eq(OrderStatus.OPEN), eq(OrderType.MARKET_ON_OPEN), anyLong(), any()))
+                .thenReturn(List.of(first, second), List.of());
+        when(dailyPriceService.getLatestTrades(Set.of("AAPL"))).thenReturn(quote(190));
+        when(tradingService.fillMarketOnOpenOrders(anyList(), anyMap())).thenReturn(2);
+
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(false, null, null));
+        engine.fillMarketOnOpen();
+        verify(orderRepo, never()).findByStatusAndTypeAfter(any(), any(), anyLong(), any());
+
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(true, null, null));
+        engine.fillMarketOnOpen();
+        engine.fillMarketOnOpen();
+
+        // one quote fetch and one fill call for the page; nothing left to do afterwards
+        verify(dailyPriceService, times(1)).getLatestTrades(any());
+        verify(tradingService).fillMarketOnOpenOrders(List.of(1L, 2L), Map.of("AAPL", new BigDecimal("190.0000")));
+        assertThat(engine.restingCount()).isZero();
+    }
+
+    @Test
+    void marketOnOpen_FailedRunIsRetriedOnTheNextCheck() {
+        Order moo = order(1, TradeType.BUY, OrderType.MARKET_ON_OPEN, null, null);
+        when(orderRepo.findByStatusAndTypeAfter(eq(OrderStatus.OPEN), eq(OrderType.MARKET_ON_OPEN), anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(List.of(moo), List.of());
+        when(dailyPriceService.getLatestTrades(Set.of("AAPL"))).thenReturn(quote(190));
+        when(tradingService.fillMarketOnOpenOrders(anyList(), anyMap())).thenReturn(1);
+
+        // the scheduler gets no exception back; the failure is logged and the next check retries
+        engine.fillMarketOnOpen();
+        engine.fillMarketOnOpen();
+
+        verify(tradingService).fillMarketOnOpenOrders(List.of(1L), Map.of("AAPL", new BigDecimal("190.0000")));
+    }
+
+    @Test
+    void marketOnOpen_StatusUnavailable_IsRetriedOnTheNextCheck() {
+        when(orderRepo.findByStatusAndTypeAfter(eq(OrderStatus.OPEN), eq(OrderType.MARKET_ON_OPEN), anyLong(), any()))
+                .thenReturn(List.of());
+        when(dailyPriceService.getMarketStatus())
+                .thenThrow(new IllegalStateException("upstream down"))
+                .thenReturn(new MarketStatusDto(true, null, null));
+
+        engine.fillMarketOnOpen();
+        engine.fillMarketOnOpen();
+
+        verify(orderRepo).findByStatusAndTypeAfter(eq(OrderStatus.OPEN), eq(OrderType.MARKET_ON_OPEN), anyLong(), any());
+    }
+
+    @Test
+    void marketOnOpen_NoneLoadedAtStartup_CheckStaysIdle() {
+        when(orderRepo.findByStatusAfter(eq(OrderStatus.OPEN), anyLong(), any()))
+                .thenReturn(List.of(order(1, TradeType.BUY, OrderType.LIMIT, "150", null)));
+
+        engine.load();
+        engine.fillMarketOnOpen();
+
+        verify(dailyPriceService, never()).getMarketStatus();
+
+        // a placement after startup wakes it again
+        engine.rest(order(2, TradeType.BUY, OrderType.MARKET_ON_OPEN, null, null));
+        engine.fillMarketOnOpen();
+        verify(dailyPriceService).getMarketStatus();
+    }
+}
@@ -0,0 +1,101 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trades/sec with and without group commit. Runs only with {@code mvn -Pbenchmark test}.
+ * H2 in memory has no fsync, so each commit is charged {@code benchmark.commit-latency-us}
+ * (default 1000) to stand in for Postgres flushing its WAL.
+ */
+@Tag("benchmark")
+class TradeJournalBenchmarkTest {
+
+    private static final int USERS = 32;
+    private static final int TRADES_PER_USER = 100;
+    private static final long COMMIT_LATENCY_US = Long.getLong("benchmark.commit-latency-us", 1_000);
+
+    @Test
+    void groupCommit_OutrunsCommitPerTrade() throws Exception {
+        double direct = run(false);
+        double grouped = run(true);
+
+        System.out.printf("trade journal: commit per trade %.0f trades/s, group commit %.0f trades/s (%.1fx)%n",
+                direct, grouped, grouped / direct);
+        assertThat(grouped).isGreaterThan(direct);
+    }
+
+    private double run(boolean journalEnabled) throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:journal" + journalEnabled + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table users (id bigint primary key, cash_balance decimal(19,4))");
+        jdbc.execute("create table trades (id bigint auto_increment primary key, user_id bigint, "
+                + "symbol varchar(10), quantity decimal(19,2), total_cost decimal(19,4))");
+        for (int u = 0; u < USERS; u++) {
+            jdbc.update("insert into users values (?, 1000000)", u);
+        }
+
+        TradeJournal journal = new TradeJournal(new SlowCommitTxManager(dataSource),
+                new SimpleMeterRegistry(), 200, 2, 10_000, journalEnabled);
+        ExecutorService users = Executors.newFixedThreadPool(USERS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> done = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                long userId = u;
+                done.add(users.submit(() -> {
+                    for (int t = 0; t < TRADES_PER_USER; t++) {
+                        journal.submit(status -> {
+                            // the same shape as a market buy: conditional debit, then the trade row
+                            jdbc.update("update users set cash_balance = cash_balance - ? where id = ? and cash_balance >= ?",
+                                    BigDecimal.TEN, userId, BigDecimal.TEN);
+                            return jdbc.update("insert into trades (user_id, symbol, quantity, total_cost) values (?, ?, ?, ?)",
+                                    userId, "AAPL", BigDecimal.ONE, BigDecimal.TEN);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(jdbc.queryForObject("select count(*) from trades", Integer.class))
+                    .isEqualTo(USERS * TRADES_PER_USER);
+            return USERS * TRADES_PER_USER / seconds;
+        } finally {
+            users.shutdownNow();
+            journal.destroy();
+            jdbc.execute("shutdown");
+        }
+    }
+
+    private static final class SlowCommitTxManager extends DataSourceTransactionManager {
+        SlowCommitTxManager(DriverManagerDataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            LockSupport.parkNanos(COMMIT_LATENCY_US * 1_000);
+            super.doCommit(status);
+        }
+    }
+}
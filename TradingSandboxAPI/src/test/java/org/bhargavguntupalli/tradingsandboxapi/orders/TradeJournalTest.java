@@ -0,0 +1,224 @@
+package org.bhargavguntupalli.tradingsandboxapi.orders;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradeJournalTest {
+
+    private final CountingTxManager txManager = new CountingTxManager();
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+    private TradeJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (journal != null) {
+            journal.destroy();
+        }
+    }
+
+    private List<Future<Integer>> submitAll(List<TransactionCallback<Integer>> work) {
+        List<Future<Integer>> results = new ArrayList<>();
+        for (TransactionCallback<Integer> w : work) {
+            results.add(callers.submit(() -> journal.submit(w)));
+        }
+        return results;
+    }
+
+    @Test
+    void concurrentTrades_ShareOneCommit() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 3, 5_000, 10_000, true);
+
+        List<Future<Integer>> results = submitAll(List.of(s -> 1, s -> 2, s -> 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i + 1);
+        }
+        assertThat(txManager.commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedTrade_FailsAloneAndBatchStillCommits() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 2, 5_000, 10_000, true);
+
+        List<Future<Integer>> results = submitAll(List.of(
+                s -> { throw new IllegalArgumentException("Insufficient funds"); },
+                s -> 2));
+
+        assertThatThrownBy(() -> results.get(0).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(txManager.commits.get()).isEqualTo(1);
+        assertThat(txManager.rollbacks.get()).isZero();
+        // only the rejected trade's savepoint was rolled back
+        assertThat(txManager.savepointRollbacks.get()).isEqualTo(1);
+        assertThat(txManager.savepointReleases.get()).isEqualTo(1);
+    }
+
+    @Test
+    void unexpectedFailure_RetriesEachTradeInItsOwnTransaction() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 2, 5_000, 10_000, true);
+
+        List<Future<Integer>> results = submitAll(List.of(
+                s -> { throw new IllegalStateException("constraint violated"); },
+                s -> 2));
+
+        assertThatThrownBy(() -> results.get(0).get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        // the shared attempt and the bad trade's own attempt roll back; the good trade commits alone
+        assertThat(txManager.rollbacks.get()).isEqualTo(2);
+        assertThat(txManager.commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled_CommitsOnCallerThread() {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 200, 2, 10_000, false);
+
+        String ranOn = journal.submit(s -> Thread.currentThread().getName());
+
+        assertThat(ranOn).isEqualTo(Thread.currentThread().getName());
+        assertThat(txManager.commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdown_WithTradesInFlight_FailsThemAndRefusesNewOnes() throws Exception {
+        // the writer holds the first trade while it waits for the batch to fill
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 200, 5_000, 10_000, true);
+        CompletableFuture<Integer> taken = journal.submitAsync(s -> 1);
+        Thread.sleep(50);
+        CompletableFuture<Integer> queued = journal.submitAsync(s -> 2);
+
+        journal.destroy();
+
+        for (CompletableFuture<Integer> f : List.of(taken, queued)) {
+            assertThatThrownBy(() -> f.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("shut down");
+        }
+        assertThatThrownBy(() -> journal.submit(s -> 3))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(txManager.commits.get()).isZero();
+    }
+
+    @Test
+    void errorInATrade_FailsItAndTheWriterCarriesOn() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 1, 0, 10_000, true);
+
+        assertThatThrownBy(() -> journal.submit(s -> { throw new StackOverflowError(); }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(journal.<Integer>submit(s -> 2)).isEqualTo(2);
+    }
+
+    @Test
+    void await_PastDeadline_WithdrawsTradeTheWriterHasNotStarted() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 200, 300, 50, true);
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThatThrownBy(() -> journal.submit(s -> ran.getAndSet(true)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not placed");
+
+        // the writer skips it once its batch closes
+        Thread.sleep(600);
+        assertThat(ran).isFalse();
+        assertThat(txManager.commits.get()).isZero();
+        assertThat(journal.submitAsync(s -> 2).get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void await_PastDeadline_WaitsOutTradeTheWriterHasStarted() {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 1, 0, 50, true);
+
+        Integer result = journal.submit(s -> {
+            sleep(300);
+            return 7;
+        });
+
+        assertThat(result).isEqualTo(7);
+        assertThat(txManager.commits.get()).isEqualTo(1);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void submitAsync_SameCallersTradesShareOneCommit() throws Exception {
+        journal = new TradeJournal(txManager, new SimpleMeterRegistry(), 3, 5_000, 10_000, true);
+
+        List<CompletableFuture<Integer>> fills = List.of(
+                journal.submitAsync(s -> 1), journal.submitAsync(s -> 2), journal.submitAsync(s -> 3));
+
+        assertThat(fills.stream().map(journal::await).toList()).containsExactly(1, 2, 3);
+        assertThat(txManager.commits.get()).isEqualTo(1);
+    }
+
+    /** Just counts outcomes; no resources behind it. */
+    static class CountingTxManager extends AbstractPlatformTransactionManager {
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rollbacks = new AtomicInteger();
+        final AtomicInteger savepointRollbacks = new AtomicInteger();
+        final AtomicInteger savepointReleases = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new SavepointManager() {
+                @Override
+                public Object createSavepoint() {
+                    return new Object();
+                }
+
+                @Override
+                public void rollbackToSavepoint(Object savepoint) {
+                    savepointRollbacks.incrementAndGet();
+                }
+
+                @Override
+                public void releaseSavepoint(Object savepoint) {
+                    savepointReleases.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            rollbacks.incrementAndGet();
+        }
+    }
+}
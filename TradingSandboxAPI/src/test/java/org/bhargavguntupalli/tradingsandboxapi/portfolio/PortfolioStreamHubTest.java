@@ -0,0 +1,175 @@
+package org.bhargavguntupalli.tradingsandboxapi.portfolio;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.HoldingDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDeltaDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.PortfolioDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteStreamHub;
+import org.bhargavguntupalli.tradingsandboxapi.services.TradingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PortfolioStreamHubTest {
+
+    private final TradingService tradingService = mock(TradingService.class);
+    private final QuoteStreamHub quoteStream = mock(QuoteStreamHub.class);
+    private PortfolioStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new PortfolioStreamHub(tradingService, quoteStream, new SimpleMeterRegistry(), 10, 60_000, Runnable::run);
+
+        PortfolioDto loaded = new PortfolioDto();
+        loaded.setCashBalance(new BigDecimal("1000.0000"));
+        loaded.setHoldings(List.of(
+                HoldingValuation.value("AAPL", new BigDecimal("10"), new BigDecimal("100.0000"), new BigDecimal("100.0000")),
+                HoldingValuation.value("MSFT", new BigDecimal("2"), new BigDecimal("400.0000"), new BigDecimal("400.0000"))));
+        when(tradingService.getPortfolio("alice")).thenReturn(loaded);
+    }
+
+    private static TradeResponseDto quote(double price) {
+        TradeResponseDto dto = new TradeResponseDto();
+        dto.setPrice(price);
+        return dto;
+    }
+
+    @Test
+    void connect_SendsSnapshotAndWatchesHeldSymbols() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register("alice", emitter);
+
+        assertThat(emitter.names).containsExactly("snapshot");
+        assertThat(emitter.last().getHoldings()).extracting(HoldingDto::getSymbol).containsExactly("AAPL", "MSFT");
+        assertThat(emitter.last().getTotalPortfolioValue()).isEqualByComparingTo("2800");
+        assertThat(hub.watchedSymbols()).containsExactlyInAnyOrder("AAPL", "MSFT");
+    }
+
+    @Test
+    void tick_RevaluesOnlyMovedPositions() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register("alice", emitter);
+
+        hub.onQuotes(Map.of("AAPL", quote(110), "MSFT", quote(400)));
+
+        PortfolioDeltaDto delta = emitter.last();
+        assertThat(emitter.names).containsExactly("snapshot", "delta");
+        assertThat(delta.getHoldings()).extracting(HoldingDto::getSymbol).containsExactly("AAPL");
+        assertThat(delta.getHoldings().get(0).getMarketValue()).isEqualByComparingTo("1100");
+        assertThat(delta.getTotalGainLoss()).isEqualByComparingTo("100");
+        assertThat(delta.getTotalPortfolioValue()).isEqualByComparingTo("2900");
+
+        // nothing moved, nothing sent
+        hub.onQuotes(Map.of("AAPL", quote(110)));
+        assertThat(emitter.names).hasSize(2);
+    }
+
+    @Test
+    void trade_ReplacesTouchedPositionWithoutReload() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register("alice", emitter);
+
+        hub.onTradeExecuted(new TradeExecutedEvent("alice", "MSFT", BigDecimal.ZERO, BigDecimal.ZERO,
+                new BigDecimal("410.0000"), new BigDecimal("1820.0000")));
+
+        PortfolioDeltaDto delta = emitter.last();
+        assertThat(delta.getRemoved()).containsExactly("MSFT");
+        assertThat(delta.getHoldings()).isEmpty();
+        assertThat(delta.getCashBalance()).isEqualByComparingTo("1820");
+        assertThat(delta.getTotalPortfolioValue()).isEqualByComparingTo("2820");
+        assertThat(hub.watchedSymbols()).containsExactly("AAPL");
+        verify(tradingService, times(1)).getPortfolio("alice");
+    }
+
+    @Test
+    void tradeDuringSnapshotLoad_IsNotLost() {
+        PortfolioDto beforeTrade = tradingService.getPortfolio("alice");
+        // the sale commits after the snapshot was read but before it's in place
+        when(tradingService.getPortfolio("alice")).thenAnswer(inv -> {
+            hub.onTradeExecuted(new TradeExecutedEvent("alice", "MSFT", BigDecimal.ZERO, BigDecimal.ZERO,
+                    new BigDecimal("410.0000"), new BigDecimal("1820.0000")));
+            return beforeTrade;
+        });
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        hub.register("alice", emitter);
+
+        assertThat(emitter.names).containsExactly("snapshot");
+        assertThat(emitter.last().getHoldings()).extracting(HoldingDto::getSymbol).containsExactly("AAPL");
+        assertThat(emitter.last().getCashBalance()).isEqualByComparingTo("1820");
+        assertThat(hub.watchedSymbols()).containsExactly("AAPL");
+    }
+
+    @Test
+    void failedSnapshotLoad_LeavesNothingBehind() {
+        PortfolioDto loaded = tradingService.getPortfolio("alice");
+        when(tradingService.getPortfolio("alice"))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(loaded);
+
+        assertThatThrownBy(() -> hub.register("alice", new RecordingEmitter()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(hub.connectionCount()).isZero();
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        hub.register("alice", emitter);
+        assertThat(emitter.names).containsExactly("snapshot");
+        assertThat(emitter.last().getTotalPortfolioValue()).isEqualByComparingTo("2800");
+    }
+
+    @Test
+    void secondTab_SharesStateAndLastCloseForgetsUser() {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        hub.register("alice", first);
+        hub.register("alice", second);
+
+        assertThat(hub.connectionCount()).isEqualTo(2);
+        verify(tradingService, times(1)).getPortfolio("alice");
+
+        first.failing = true;
+        second.failing = true;
+        hub.onQuotes(Map.of("AAPL", quote(120)));
+
+        assertThat(hub.connectionCount()).isZero();
+        assertThat(hub.watchedSymbols()).isEmpty();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> names = new ArrayList<>();
+        final List<PortfolioDeltaDto> updates = new ArrayList<>();
+        boolean failing;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            builder.build().forEach(d -> {
+                if (d.getData() instanceof PortfolioDeltaDto update) {
+                    updates.add(update);
+                } else if (d.getData() instanceof String line && line.startsWith("event:")) {
+                    names.add(line.substring("event:".length(), line.indexOf('\n')));
+                }
+            });
+        }
+
+        PortfolioDeltaDto last() {
+            return updates.get(updates.size() - 1);
+        }
+    }
+}
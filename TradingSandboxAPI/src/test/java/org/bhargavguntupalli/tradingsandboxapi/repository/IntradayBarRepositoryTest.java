@@ -0,0 +1,56 @@
+package org.bhargavguntupalli.tradingsandboxapi.repository;
+
+import jakarta.persistence.EntityManager;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBar;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBarId;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayBarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Intraday bars carry assigned keys; saving them must persist, not merge. */
+@DataJpaTest
+class IntradayBarRepositoryTest {
+
+    private static final Instant OPEN = Instant.parse("2025-07-09T13:30:00Z");
+
+    @Autowired IntradayBarRepository barRepo;
+    @Autowired EntityManager em;
+
+    @Test
+    void saveAll_PersistsTheGivenInstances() {
+        IntradayBar first = bar(OPEN);
+        IntradayBar second = bar(OPEN.plusSeconds(300));
+        assertThat(first.isNew()).isTrue();
+
+        barRepo.saveAll(List.of(first, second));
+
+        // merge would have managed copies and left these detached
+        assertThat(em.contains(first)).isTrue();
+        assertThat(em.contains(second)).isTrue();
+        assertThat(first.isNew()).isFalse();
+    }
+
+    @Test
+    void loadedBar_IsNotNew() {
+        barRepo.saveAll(List.of(bar(OPEN)));
+        em.flush();
+        em.clear();
+
+        IntradayBar loaded = em.find(IntradayBar.class, new IntradayBarId("AAPL", "5Min", OPEN));
+
+        assertThat(loaded.isNew()).isFalse();
+    }
+
+    private static IntradayBar bar(Instant timestamp) {
+        BigDecimal price = new BigDecimal("150.0000");
+        return new IntradayBar(new IntradayBarId("AAPL", "5Min", timestamp),
+                price, price, price, price, 1_000, 10, price);
+    }
+}
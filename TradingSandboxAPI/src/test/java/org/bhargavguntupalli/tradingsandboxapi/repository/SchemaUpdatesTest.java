@@ -0,0 +1,56 @@
+package org.bhargavguntupalli.tradingsandboxapi.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * db/schema-updates.sql run twice over the pre-update production schema, then
+ * checked by Hibernate the way prod and gamma check it on start. The context
+ * only loads if every entity's tables, columns and sequences are there.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/baseline-schema.sql,"
+                + "classpath:db/schema-updates.sql,classpath:db/schema-updates.sql"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaUpdatesTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired EntityManager em;
+
+    @Test
+    void existingRows_GetDefaultsForNewColumns() {
+        assertThat(column("select version from users where id = 1")).isEqualTo(0L);
+        assertThat(column("select version from holdings where id = 1")).isEqualTo(0L);
+        assertThat(em.createNativeQuery("select remaining_cash_balance from trades where id = 1").getSingleResult())
+                .isNull();
+    }
+
+    @Test
+    void tradeIndexes_KeepTheExistingOneAndAddTheIdempotencyKey() {
+        assertThat(em.createNativeQuery("select indexname from pg_indexes where tablename = 'trades'")
+                .getResultList())
+                .contains("idx_trades_user_date", "uk_trades_user_idempotency_key");
+    }
+
+    private Long column(String sql) {
+        return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
@@ -0,0 +1,119 @@
+package org.bhargavguntupalli.tradingsandboxapi.repository;
+
+import jakarta.persistence.EntityManager;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
+import org.bhargavguntupalli.tradingsandboxapi.models.Role;
+import org.bhargavguntupalli.tradingsandboxapi.models.RoleEntity;
+import org.bhargavguntupalli.tradingsandboxapi.models.Trade;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+import org.bhargavguntupalli.tradingsandboxapi.models.User;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.TradeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The keyset history queries are plain JPQL, so they run against the embedded database. */
+@DataJpaTest
+class TradeHistoryQueryTest {
+
+    private static final LocalDateTime OPEN = LocalDateTime.of(2025, 7, 9, 9, 30);
+
+    @Autowired TradeRepository tradeRepo;
+    @Autowired EntityManager em;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        RoleEntity role = new RoleEntity(Role.ROLE_USER);
+        em.persist(role);
+        alice = user("alice", role);
+        bob = user("bob", role);
+    }
+
+    @Test
+    void findHistory_NewestFirst_TiesBrokenByIdDescending() {
+        Trade earlier = trade(alice, OPEN.minusMinutes(1));
+        Trade first = trade(alice, OPEN);
+        Trade second = trade(alice, OPEN);
+        Trade third = trade(alice, OPEN);
+        trade(bob, OPEN.plusMinutes(1));
+
+        List<TradeHistoryDto> rows = tradeRepo.findHistory(alice.getId(), PageRequest.of(0, 10));
+
+        assertThat(rows).extracting(TradeHistoryDto::getId)
+                .containsExactly(third.getId(), second.getId(), first.getId(), earlier.getId());
+    }
+
+    @Test
+    void findHistoryBefore_PagesThroughTiesWithoutSkippingOrRepeating() {
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            // every trade in the same instant, so only the id tells them apart
+            expected.add(0, trade(alice, OPEN).getId());
+        }
+        expected.add(trade(alice, OPEN.minusSeconds(1)).getId());
+
+        List<Long> seen = new ArrayList<>();
+        List<TradeHistoryDto> page = tradeRepo.findHistory(alice.getId(), PageRequest.of(0, 2));
+        while (!page.isEmpty()) {
+            page.forEach(row -> seen.add(row.getId()));
+            TradeHistoryDto last = page.get(page.size() - 1);
+            page = tradeRepo.findHistoryBefore(alice.getId(), last.getExecutedAt(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void findHistoryBefore_OnlyReturnsThatUsersOlderTrades() {
+        Trade older = trade(alice, OPEN.minusMinutes(1));
+        Trade cursor = trade(alice, OPEN);
+        trade(alice, OPEN.plusMinutes(1));
+        trade(bob, OPEN.minusMinutes(2));
+
+        List<TradeHistoryDto> rows = tradeRepo.findHistoryBefore(alice.getId(), cursor.getExecutedAt(), cursor.getId(),
+                PageRequest.of(0, 10));
+
+        assertThat(rows).extracting(TradeHistoryDto::getId).containsExactly(older.getId());
+        assertThat(rows.get(0).getType()).isEqualTo("BUY");
+        assertThat(rows.get(0).getSymbol()).isEqualTo("AAPL");
+    }
+
+    private User user(String username, RoleEntity role) {
+        User u = new User();
+        u.setUsername(username);
+        u.setPassword("hash");
+        u.setEmail(username + "@example.com");
+        u.setFirstName(username);
+        u.setLastName("Smith");
+        u.setRole(role);
+        u.setCashBalance(new BigDecimal("1000.0000"));
+        em.persist(u);
+        return u;
+    }
+
+    private Trade trade(User user, LocalDateTime executedAt) {
+        Trade t = new Trade();
+        t.setUser(user);
+        t.setSymbol("AAPL");
+        t.setType(TradeType.BUY);
+        t.setQuantity(BigDecimal.ONE);
+        t.setPricePerShare(BigDecimal.TEN);
+        t.setTotalCost(BigDecimal.TEN);
+        t.setExecutedAt(executedAt);
+        em.persist(t);
+        em.flush();
+        return t;
+    }
+}
@@ -0,0 +1,131 @@
+package org.bhargavguntupalli.tradingsandboxapi.repository;
+
+import jakarta.persistence.EntityManager;
+import org.bhargavguntupalli.tradingsandboxapi.models.Holding;
+import org.bhargavguntupalli.tradingsandboxapi.models.Role;
+import org.bhargavguntupalli.tradingsandboxapi.models.RoleEntity;
+import org.bhargavguntupalli.tradingsandboxapi.models.User;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository.Position;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The conditional updates every trade moves cash and shares with. */
+@DataJpaTest
+class TradeSqlTest {
+
+    @Autowired UserRepository userRepo;
+    @Autowired HoldingRepository holdingRepo;
+    @Autowired EntityManager em;
+
+    private Long aliceId;
+
+    @BeforeEach
+    void setUp() {
+        RoleEntity role = new RoleEntity(Role.ROLE_USER);
+        em.persist(role);
+        User alice = new User();
+        alice.setUsername("alice");
+        alice.setPassword("hash");
+        alice.setEmail("alice@example.com");
+        alice.setFirstName("Alice");
+        alice.setLastName("Smith");
+        alice.setRole(role);
+        alice.setCashBalance(new BigDecimal("1000.0000"));
+        em.persist(alice);
+        em.flush();
+        aliceId = alice.getId();
+    }
+
+    @Test
+    void debit_TakesCashOnlyWhenCovered() {
+        assertThat(userRepo.debit(aliceId, new BigDecimal("400"))).isEqualTo(1);
+        assertThat(userRepo.findCashBalanceById(aliceId)).isEqualByComparingTo("600");
+
+        assertThat(userRepo.debit(aliceId, new BigDecimal("600.0001"))).isZero();
+        assertThat(userRepo.findCashBalanceById(aliceId)).isEqualByComparingTo("600");
+        assertThat(userRepo.findById(aliceId)).get().extracting(User::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void credit_AddsCash() {
+        assertThat(userRepo.credit(aliceId, new BigDecimal("250.5"))).isEqualTo(1);
+
+        assertThat(userRepo.findCashBalanceById(aliceId)).isEqualByComparingTo("1250.5");
+    }
+
+    @Test
+    void addShares_ReweightsAnOpenPosition() {
+        holding("AAPL", "10", "100");
+
+        assertThat(holdingRepo.addShares(aliceId, "AAPL", new BigDecimal("30"), new BigDecimal("3600"))).isEqualTo(1);
+
+        Position added = holdingRepo.findPosition(aliceId, "AAPL").orElseThrow();
+        assertThat(added.getQuantity()).isEqualByComparingTo("40");
+        // (10 * 100 + 30 * 120) / 40
+        assertThat(added.getAverageCost()).isEqualByComparingTo("115.0000");
+    }
+
+    @Test
+    void addShares_RoundsTheAverageLikeABasketPlan() {
+        holding("AAPL", "4.69", "133.9738");
+
+        holdingRepo.addShares(aliceId, "AAPL", new BigDecimal("19.36"), new BigDecimal("608.6494"));
+        holdingRepo.addShares(aliceId, "AAPL", new BigDecimal("2.5"), new BigDecimal("217.8085"));
+
+        // the same legs BasketPlanTest projects
+        Position added = holdingRepo.findPosition(aliceId, "AAPL").orElseThrow();
+        assertThat(added.getQuantity()).isEqualByComparingTo("26.55");
+        assertThat(added.getAverageCost()).isEqualByComparingTo("54.7946");
+    }
+
+    @Test
+    void addShares_WithoutPosition_ChangesNothing() {
+        assertThat(holdingRepo.addShares(aliceId, "AAPL", BigDecimal.ONE, BigDecimal.TEN)).isZero();
+        assertThat(holdingRepo.findPosition(aliceId, "AAPL")).isEmpty();
+    }
+
+    @Test
+    void removeShares_TakesSharesOnlyWhenHeld() {
+        holding("AAPL", "10", "100");
+
+        assertThat(holdingRepo.removeShares(aliceId, "AAPL", new BigDecimal("11"))).isZero();
+        assertThat(holdingRepo.removeShares(aliceId, "MSFT", BigDecimal.ONE)).isZero();
+        assertThat(holdingRepo.removeShares(aliceId, "AAPL", new BigDecimal("4"))).isEqualTo(1);
+
+        Optional<Position> sold = holdingRepo.findPosition(aliceId, "AAPL");
+        assertThat(sold).get().satisfies(p -> {
+            assertThat(p.getQuantity()).isEqualByComparingTo("6");
+            assertThat(p.getAverageCost()).isEqualByComparingTo("100");
+        });
+    }
+
+    @Test
+    void deleteIfEmpty_OnlyRemovesClosedPositions() {
+        holding("AAPL", "10", "100");
+        holding("MSFT", "5", "400");
+        holdingRepo.removeShares(aliceId, "AAPL", new BigDecimal("10"));
+
+        assertThat(holdingRepo.deleteIfEmpty(aliceId, "MSFT")).isZero();
+        assertThat(holdingRepo.deleteIfEmpty(aliceId, "AAPL")).isEqualTo(1);
+        assertThat(holdingRepo.count()).isEqualTo(1);
+    }
+
+    private void holding(String symbol, String quantity, String averageCost) {
+        Holding h = new Holding();
+        h.setUser(em.getReference(User.class, aliceId));
+        h.setSymbol(symbol);
+        h.setQuantity(new BigDecimal(quantity));
+        h.setAverageCost(new BigDecimal(averageCost));
+        em.persist(h);
+        em.flush();
+    }
+}
@@ -1,26 +1,51 @@
 package org.bhargavguntupalli.tradingsandboxapi.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.bhargavguntupalli.tradingsandboxapi.dto.*;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.CircuitBreakers;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradayBarStore;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradaySeriesCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketClock;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketDataExecutor;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.SymbolCatalog;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.TradingCalendar;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudget;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudgetExceededException;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamPriority;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPrice;
+import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceGap;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceId;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBar;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayBarId;
+import org.bhargavguntupalli.tradingsandboxapi.models.IntradayCoverage;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceGapRepository;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayBarRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayCoverageRepository;
 import org.bhargavguntupalli.tradingsandboxapi.services.impl.DailyPriceServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.*;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,15 +56,43 @@ import static org.mockito.Mockito.*;
 class DailyPriceServiceExtendedTest {
 
     @Mock DailyPriceRepository repo;
+    @Mock DailyPriceGapRepository gapRepo;
+    @Mock IntradayBarRepository intradayBarRepo;
+    @Mock IntradayCoverageRepository coverageRepo;
     @Mock RestTemplate rest;
 
-    @InjectMocks
+    static final Instant NOW = Instant.parse("2025-07-10T13:00:00Z");
+
     DailyPriceServiceImpl svc;
+    SymbolCatalog symbolCatalog = new SymbolCatalog(600_000);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    MarketClock marketClock = new MarketClock();
 
     @BeforeEach
     void setup() {
-        ReflectionTestUtils.setField(svc, "fastApiBaseUrl", "http://fake-api");
-        ReflectionTestUtils.setField(svc, "fastApiAccessKey", "FAKEKEY");
+        svc = service(new QuoteCache(registry, marketClock, 100, 5_000, 600_000));
+    }
+
+    private DailyPriceServiceImpl service(QuoteCache quoteCache) {
+        return service(quoteCache, new UpstreamBudget(registry, 1_000, 1_000, 1_000, 1_000));
+    }
+
+    private DailyPriceServiceImpl service(QuoteCache quoteCache, UpstreamBudget budget) {
+        DailyPriceServiceImpl impl = new DailyPriceServiceImpl(repo, gapRepo, rest,
+                quoteCache,
+                new MarketDataExecutor(registry, 4, 16),
+                marketClock,
+                new TradingCalendar(new ClassPathResource("calendar/nyse-calendar.csv")),
+                new IntradayBarStore(intradayBarRepo, coverageRepo),
+                new IntradaySeriesCache(0, 100),
+                new CircuitBreakers(registry, 5, 30_000),
+                budget,
+                symbolCatalog);
+        ReflectionTestUtils.setField(impl, "fastApiBaseUrl", "http://fake-api");
+        ReflectionTestUtils.setField(impl, "fastApiAccessKey", "FAKEKEY");
+        // Thu Jul 10 2025, 9:00 ET (pre-open): Jul 9 is the last completed session
+        ReflectionTestUtils.setField(impl, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+        return impl;
     }
 
     // ── save ─────────────────────────────────────────────────────────────
@@ -221,6 +274,155 @@ class DailyPriceServiceExtendedTest {
         verify(repo).saveAll(anyList());
     }
 
+    @Test
+    void findRange_OnlyWeekendAndHoliday_NoApiCall() {
+        // Fri Jul 4 2025 (Independence Day) through Sun Jul 6
+        LocalDate start = LocalDate.of(2025, 7, 4);
+        LocalDate end = LocalDate.of(2025, 7, 6);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end))
+                .thenReturn(Collections.emptyList());
+
+        List<DailyPriceDto> result = svc.findRange("AAPL", start, end);
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(rest);
+    }
+
+    @Test
+    void findRange_KnownGap_NoApiCall() {
+        LocalDate start = LocalDate.of(2025, 7, 7);
+        LocalDate end = LocalDate.of(2025, 7, 9);
+        List<DailyPrice> cached = List.of(
+                new DailyPrice(new DailyPriceId("AAPL", LocalDate.of(2025, 7, 8)), BigDecimal.valueOf(148)),
+                new DailyPrice(new DailyPriceId("AAPL", end), BigDecimal.valueOf(150))
+        );
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end)).thenReturn(cached);
+        when(gapRepo.findByIdSymbolAndIdDateBetweenAndExpiresAtAfter("AAPL", start, end, NOW))
+                .thenReturn(List.of(new DailyPriceGap(new DailyPriceId("AAPL", start), NOW.plusSeconds(60))));
+
+        List<DailyPriceDto> result = svc.findRange("AAPL", start, end);
+
+        assertThat(result).hasSize(2);
+        verifyNoInteractions(rest);
+    }
+
+    @Test
+    void findRange_SessionWithoutBar_RecordedAsGap() {
+        LocalDate start = LocalDate.of(2025, 7, 7);
+        LocalDate end = LocalDate.of(2025, 7, 9);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end))
+                .thenReturn(Collections.emptyList());
+
+        BarDto mon = new BarDto();
+        mon.setTimestamp(OffsetDateTime.parse("2025-07-07T04:00:00Z").toInstant());
+        mon.setClose(148.0);
+        BarDto wed = new BarDto();
+        wed.setTimestamp(OffsetDateTime.parse("2025-07-09T04:00:00Z").toInstant());
+        wed.setClose(150.0);
+        BarDataDto body = new BarDataDto("AAPL", start.atStartOfDay(), end.atStartOfDay(), "1Day",
+                Map.of("AAPL", List.of(mon, wed)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        List<DailyPriceDto> result = svc.findRange("AAPL", start, end);
+
+        assertThat(result).extracting(DailyPriceDto::getDate).containsExactly(start, end);
+        verify(gapRepo).record("AAPL", LocalDate.of(2025, 7, 8), NOW.plus(Duration.ofDays(7)));
+        verify(gapRepo, times(1)).record(anyString(), any(), any());
+    }
+
+    @Test
+    void findRange_NoBarsAroundSession_NotRecordedAsGap() {
+        LocalDate start = LocalDate.of(2025, 7, 7);
+        LocalDate end = LocalDate.of(2025, 7, 9);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end))
+                .thenReturn(Collections.emptyList());
+
+        // only Wednesday comes back: nothing before Mon/Tue says they really had no trading
+        BarDto wed = new BarDto();
+        wed.setTimestamp(OffsetDateTime.parse("2025-07-09T04:00:00Z").toInstant());
+        wed.setClose(150.0);
+        BarDataDto body = new BarDataDto("AAPL", start.atStartOfDay(), end.atStartOfDay(), "1Day",
+                Map.of("AAPL", List.of(wed)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        svc.findRange("AAPL", start, end);
+
+        verify(gapRepo, never()).record(anyString(), any(), any());
+    }
+
+    @Test
+    void findRange_EmptyResponse_NotRecordedAsGap() {
+        LocalDate start = LocalDate.of(2025, 7, 7);
+        LocalDate end = LocalDate.of(2025, 7, 9);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end)).thenReturn(List.of(
+                new DailyPrice(new DailyPriceId("AAPL", start), BigDecimal.valueOf(148)),
+                new DailyPrice(new DailyPriceId("AAPL", end), BigDecimal.valueOf(150))));
+        BarDataDto body = new BarDataDto("AAPL", start.atStartOfDay(), end.atStartOfDay(), "1Day",
+                Map.of("AAPL", List.of()));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        svc.findRange("AAPL", start, end);
+
+        verify(gapRepo, never()).record(anyString(), any(), any());
+    }
+
+    @Test
+    void findRange_SeparateHoles_FetchesOnlyThoseRanges() {
+        // Mon Jun 30 .. Thu Jul 3 2025, only Tue cached
+        LocalDate start = LocalDate.of(2025, 6, 30);
+        LocalDate end = LocalDate.of(2025, 7, 3);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end))
+                .thenReturn(List.of(new DailyPrice(new DailyPriceId("AAPL", LocalDate.of(2025, 7, 1)), BigDecimal.valueOf(150))));
+
+        // each request gets bars for its start date and the day after
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenAnswer(inv -> {
+                    String url = inv.getArgument(0);
+                    LocalDate from = LocalDate.parse(url.replaceAll(".*start_date=([0-9-]+).*", "$1"));
+                    BarDto a = new BarDto();
+                    a.setTimestamp(from.atStartOfDay().toInstant(ZoneOffset.UTC));
+                    a.setClose(100.0);
+                    BarDto b = new BarDto();
+                    b.setTimestamp(from.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+                    b.setClose(101.0);
+                    return new ResponseEntity<>(new BarDataDto("AAPL", null, null, "1Day",
+                            Map.of("AAPL", List.of(a, b))), HttpStatus.OK);
+                });
+
+        List<DailyPriceDto> result = svc.findRange("AAPL", start, end);
+
+        assertThat(result).extracting(DailyPriceDto::getDate).containsExactly(
+                LocalDate.of(2025, 6, 30), LocalDate.of(2025, 7, 1),
+                LocalDate.of(2025, 7, 2), LocalDate.of(2025, 7, 3));
+        verify(rest).exchange(contains("start_date=2025-06-30&end_date=2025-07-01"),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class));
+        verify(rest).exchange(contains("start_date=2025-07-02&end_date=2025-07-04"),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class));
+    }
+
+    @Test
+    void findRange_SeparateHoles_FetchedAtCallersPriority() {
+        LocalDate start = LocalDate.of(2025, 6, 30);
+        LocalDate end = LocalDate.of(2025, 7, 3);
+        when(repo.findByIdSymbolAndIdDateBetweenOrderByIdDateAsc("AAPL", start, end))
+                .thenReturn(List.of(new DailyPrice(new DailyPriceId("AAPL", LocalDate.of(2025, 7, 1)), BigDecimal.valueOf(150))));
+        List<UpstreamPriority> seen = Collections.synchronizedList(new ArrayList<>());
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenAnswer(inv -> {
+                    seen.add(UpstreamPriority.current());
+                    return new ResponseEntity<>(new BarDataDto("AAPL", null, null, "1Day",
+                            Map.of("AAPL", List.of())), HttpStatus.OK);
+                });
+
+        UpstreamPriority.PORTFOLIO.call(() -> svc.findRange("AAPL", start, end));
+
+        // two sub-ranges, each fetched on a pool thread
+        assertThat(seen).containsExactly(UpstreamPriority.PORTFOLIO, UpstreamPriority.PORTFOLIO);
+    }
+
     // ── getLatestTrade ───────────────────────────────────────────────────
 
     @Test
@@ -240,6 +442,23 @@ class DailyPriceServiceExtendedTest {
         assertThat(result.getPrice()).isEqualTo(155.75);
     }
 
+    @Test
+    void getLatestTrade_RepeatedCall_ServedFromCache() {
+        TradeResponseDto trade = new TradeResponseDto();
+        trade.setPrice(155.75);
+
+        ResponseEntity<TradeResponseDto> resp = new ResponseEntity<>(trade, HttpStatus.OK);
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class)))
+                .thenReturn(resp);
+
+        svc.getLatestTrade("AAPL");
+        TradeResponseDto result = svc.getLatestTrade("aapl");
+
+        assertThat(result.getPrice()).isEqualTo(155.75);
+        verify(rest, times(1))
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class));
+    }
+
     @Test
     void getLatestTrade_NullBody_ReturnsNull() {
         ResponseEntity<TradeResponseDto> resp = new ResponseEntity<>(null, HttpStatus.OK);
@@ -272,6 +491,170 @@ class DailyPriceServiceExtendedTest {
         assertThat(result).isNull();
     }
 
+    @Test
+    void getLatestTrade_UpstreamDown_ServesLastQuoteAsStale() {
+        TradeResponseDto trade = new TradeResponseDto();
+        trade.setPrice(155.75);
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class)))
+                .thenReturn(new ResponseEntity<>(trade, HttpStatus.OK))
+                .thenThrow(new RestClientException("Connection refused"));
+
+        // nothing stays cached, so the second call goes upstream
+        svc = service(new QuoteCache(registry, marketClock, 100, 0, 0));
+
+        assertThat(svc.getLatestTrade("AAPL").isStale()).isFalse();
+        TradeResponseDto result = svc.getLatestTrade("AAPL");
+
+        assertThat(result.getPrice()).isEqualTo(155.75);
+        assertThat(result.isStale()).isTrue();
+        // the cached last-known quote itself is never marked
+        assertThat(trade.isStale()).isFalse();
+    }
+
+    @Test
+    void getLatestTrade_CircuitOpen_SkipsUpstream() {
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class)))
+                .thenThrow(new RestClientException("Connection refused"));
+
+        for (int i = 0; i < 8; i++) {
+            assertThat(svc.getLatestTrade("AAPL")).isNull();
+        }
+
+        // the breaker opened after five consecutive failures
+        verify(rest, times(5))
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class));
+    }
+
+    // ── getLatestTrades ──────────────────────────────────────────────────
+
+    @Test
+    void getLatestTrades_FetchesOnlyUncachedSymbolsInOneCall() {
+        TradeResponseDto aapl = new TradeResponseDto();
+        aapl.setPrice(155.75);
+        when(rest.exchange(eq("http://fake-api/latest-trade/AAPL"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(TradeResponseDto.class)))
+                .thenReturn(new ResponseEntity<>(aapl, HttpStatus.OK));
+        svc.getLatestTrade("AAPL");
+
+        TradeResponseDto msft = new TradeResponseDto();
+        msft.setPrice(410.5);
+        TradeResponseDto nvda = new TradeResponseDto();
+        nvda.setPrice(120.25);
+        LatestTradesDto body = new LatestTradesDto(Map.of("MSFT", msft, "NVDA", nvda));
+        when(rest.exchange(eq("http://fake-api/latest-trades?symbols=MSFT,NVDA"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(LatestTradesDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        Map<String, TradeResponseDto> result = svc.getLatestTrades(List.of("aapl", "MSFT", "NVDA", "msft"));
+
+        assertThat(result).containsOnlyKeys("AAPL", "MSFT", "NVDA");
+        assertThat(result.get("AAPL").getPrice()).isEqualTo(155.75);
+        assertThat(result.get("NVDA").getPrice()).isEqualTo(120.25);
+        verify(rest, times(1))
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class));
+
+        // the batch result populated the quote cache
+        assertThat(svc.getLatestTrade("MSFT").getPrice()).isEqualTo(410.5);
+    }
+
+    @Test
+    void getLatestTrades_BatchRouteUnavailable_FansOutPerSymbol() {
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class)))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+
+        TradeResponseDto aapl = new TradeResponseDto();
+        aapl.setPrice(155.75);
+        when(rest.exchange(eq("http://fake-api/latest-trade/AAPL"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(TradeResponseDto.class)))
+                .thenReturn(new ResponseEntity<>(aapl, HttpStatus.OK));
+        when(rest.exchange(eq("http://fake-api/latest-trade/MSFT"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(TradeResponseDto.class)))
+                .thenThrow(new RestClientException("Connection refused"));
+
+        Map<String, TradeResponseDto> result = svc.getLatestTrades(List.of("AAPL", "MSFT"));
+
+        // MSFT has no price; AAPL still comes back from the per-symbol fallback
+        assertThat(result).containsOnlyKeys("AAPL");
+        assertThat(result.get("AAPL").getPrice()).isEqualTo(155.75);
+    }
+
+    @Test
+    void getLatestTrades_MoreThanBatchLimit_SplitsIntoBatches() {
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class)))
+                .thenAnswer(inv -> {
+                    String url = inv.getArgument(0);
+                    Map<String, TradeResponseDto> trades = new HashMap<>();
+                    for (String symbol : url.substring(url.indexOf('=') + 1).split(",")) {
+                        TradeResponseDto quote = new TradeResponseDto();
+                        quote.setPrice(100);
+                        trades.put(symbol, quote);
+                    }
+                    return new ResponseEntity<>(new LatestTradesDto(trades), HttpStatus.OK);
+                });
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            symbols.add(String.format("S%03d", i));
+        }
+
+        Map<String, TradeResponseDto> result = svc.getLatestTrades(symbols);
+
+        assertThat(result).hasSize(150);
+        ArgumentCaptor<String> urls = ArgumentCaptor.forClass(String.class);
+        verify(rest, times(2))
+                .exchange(urls.capture(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class));
+        assertThat(urls.getAllValues())
+                .extracting(url -> url.substring(url.indexOf('=') + 1).split(",").length)
+                .containsExactly(100, 50);
+    }
+
+    @Test
+    void refreshLatestTrades_BypassesCacheAndRefreshesIt() {
+        TradeResponseDto stale = new TradeResponseDto();
+        stale.setPrice(150.0);
+        TradeResponseDto fresh = new TradeResponseDto();
+        fresh.setPrice(151.25);
+        when(rest.exchange(eq("http://fake-api/latest-trades?symbols=AAPL"), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(LatestTradesDto.class)))
+                .thenReturn(new ResponseEntity<>(new LatestTradesDto(Map.of("AAPL", stale)), HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(new LatestTradesDto(Map.of("AAPL", fresh)), HttpStatus.OK));
+        svc.getLatestTrades(List.of("AAPL"));
+
+        Map<String, TradeResponseDto> result = svc.refreshLatestTrades(List.of("aapl", "AAPL"));
+
+        // the cached quote is still live, but the refresh went upstream anyway
+        assertThat(result.get("AAPL").getPrice()).isEqualTo(151.25);
+        verify(rest, times(2))
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class));
+        assertThat(svc.getLatestTrade("AAPL").getPrice()).isEqualTo(151.25);
+    }
+
+    @Test
+    void getLatestTrades_BudgetExceeded_ServesLastQuotesWithoutFanningOut() {
+        // one token per route and no refill: the batch call below is shed
+        svc = service(new QuoteCache(registry, marketClock, 100, 0, 0), new UpstreamBudget(registry, 1_000, 1_000, 1, 1));
+        TradeResponseDto aapl = new TradeResponseDto();
+        aapl.setPrice(155.75);
+        when(rest.exchange(eq("http://fake-api/latest-trade/AAPL"), eq(HttpMethod.GET), any(HttpEntity.class),
+                eq(TradeResponseDto.class)))
+                .thenReturn(new ResponseEntity<>(aapl, HttpStatus.OK));
+        UpstreamPriority.TRADE.call(() -> svc.getLatestTrade("AAPL"));
+
+        Map<String, TradeResponseDto> result =
+                UpstreamPriority.PREFETCH.call(() -> svc.getLatestTrades(List.of("AAPL")));
+
+        assertThat(result.get("AAPL").getPrice()).isEqualTo(155.75);
+        assertThat(result.get("AAPL").isStale()).isTrue();
+        verify(rest, never())
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(LatestTradesDto.class));
+        verify(rest, times(1))
+                .exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class));
+
+        // nothing to fall back on for MSFT, so the caller sees the shed
+        assertThatThrownBy(() -> UpstreamPriority.PREFETCH.call(() -> svc.getLatestTrades(List.of("AAPL", "MSFT"))))
+                .isInstanceOf(UpstreamBudgetExceededException.class);
+    }
+
     // ── fetchMarketStatus ────────────────────────────────────────────────
 
     @Test
@@ -298,6 +681,35 @@ class DailyPriceServiceExtendedTest {
                 .hasMessageContaining("Failed to fetch market status");
     }
 
+    // ── getMarketStatus ──────────────────────────────────────────────────
+
+    @Test
+    void getMarketStatus_ServedFromMemoryUntilNextBoundary() {
+        OffsetDateTime now = OffsetDateTime.now();
+        MarketStatusDto dto = new MarketStatusDto(true, now.plusHours(18), now.plusHours(2));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(MarketStatusDto.class)))
+                .thenReturn(new ResponseEntity<>(dto, HttpStatus.OK));
+
+        assertThat(svc.getMarketStatus().isOpen()).isTrue();
+        assertThat(svc.getMarketStatus().isOpen()).isTrue();
+
+        verify(rest, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(MarketStatusDto.class));
+    }
+
+    @Test
+    void getMarketStatus_RefreshFailsAfterBoundary_KeepsLocallyFlippedStatus() {
+        OffsetDateTime now = OffsetDateTime.now();
+        MarketStatusDto dto = new MarketStatusDto(true, now.plusHours(16), now.minusMinutes(1));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(MarketStatusDto.class)))
+                .thenReturn(new ResponseEntity<>(dto, HttpStatus.OK))
+                .thenThrow(new RestClientException("down"));
+
+        svc.fetchMarketStatus();
+
+        // the close already passed, so the clock reports closed without upstream
+        assertThat(svc.getMarketStatus().isOpen()).isFalse();
+    }
+
     // ── findByPeriod ─────────────────────────────────────────────────────
 
     @Test
@@ -336,8 +748,9 @@ class DailyPriceServiceExtendedTest {
 
     @Test
     void findByPeriod_WithData_ReturnsSortedResults() {
-        Instant t1 = Instant.parse("2025-07-08T14:00:00Z");
-        Instant t2 = Instant.parse("2025-07-09T14:00:00Z");
+        // daily bars are stamped at midnight New York time
+        Instant t1 = Instant.parse("2025-07-08T04:00:00Z");
+        Instant t2 = Instant.parse("2025-07-09T04:00:00Z");
 
         BarDto bar1 = new BarDto();
         bar1.setTimestamp(t2);
@@ -373,4 +786,114 @@ class DailyPriceServiceExtendedTest {
 
         assertThat(result).isEmpty();
     }
+
+    @Test
+    void findByPeriod_OneMonth_SessionInProgress_AppendsLatestTrade() {
+        ReflectionTestUtils.setField(svc, "clock", Clock.fixed(Instant.parse("2025-07-10T15:00:00Z"), ZoneOffset.UTC));
+
+        BarDto bar = new BarDto();
+        bar.setTimestamp(Instant.parse("2025-07-09T04:00:00Z"));
+        bar.setClose(149.0);
+        BarDataDto body = new BarDataDto();
+        body.setBars(Map.of("AAPL", List.of(bar)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        TradeResponseDto trade = new TradeResponseDto();
+        trade.setPrice(151.0);
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(TradeResponseDto.class)))
+                .thenReturn(new ResponseEntity<>(trade, HttpStatus.OK));
+
+        List<PriceDataDto> result = svc.findByPeriod("AAPL", TimePeriod.ONE_MONTH);
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(1).getTimestamp()).isEqualTo(Instant.parse("2025-07-10T04:00:00Z"));
+        assertThat(result.get(1).getClosingPrice()).isEqualByComparingTo("151.0");
+    }
+
+    @Test
+    void findByPeriod_OneWeek_CoveredSessionsServedLocally() {
+        // window Thu Jul 3 .. Thu Jul 10; everything but today is stored
+        when(coverageRepo.findBySymbolAndTimeframeAndSessionDateBetween(
+                "AAPL", "5Min", LocalDate.of(2025, 7, 3), LocalDate.of(2025, 7, 10)))
+                .thenReturn(Stream.of(3, 7, 8, 9)
+                        .map(d -> new IntradayCoverage("AAPL", "5Min", LocalDate.of(2025, 7, d)))
+                        .toList());
+        when(intradayBarRepo.findByIdSymbolAndIdTimeframeAndIdTimestampGreaterThanEqualAndIdTimestampLessThanOrderByIdTimestampAsc(
+                eq("AAPL"), eq("5Min"), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(
+                        intradayBar("2025-07-08T14:00:00Z", 148),
+                        intradayBar("2025-07-09T14:00:00Z", 149)));
+
+        BarDto live = new BarDto();
+        live.setTimestamp(Instant.parse("2025-07-10T14:00:00Z"));
+        live.setClose(150.0);
+        BarDataDto body = new BarDataDto();
+        body.setBars(Map.of("AAPL", List.of(live)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        List<PriceDataDto> result = svc.findByPeriod("AAPL", TimePeriod.ONE_WEEK);
+
+        assertThat(result).extracting(PriceDataDto::getClosingPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(148), BigDecimal.valueOf(149), BigDecimal.valueOf(150));
+        // only today's session goes upstream, and it isn't stored while still open
+        verify(rest).exchange(contains("start_date=2025-07-10&end_date=2025-07-11"),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class));
+        verify(intradayBarRepo, never()).saveAll(anyList());
+    }
+
+    @Test
+    void findByPeriod_OneWeek_StoresCompletedSessions() {
+        BarDto yesterday = new BarDto();
+        yesterday.setTimestamp(Instant.parse("2025-07-09T14:00:00Z"));
+        yesterday.setClose(149.0);
+        BarDto today = new BarDto();
+        today.setTimestamp(Instant.parse("2025-07-10T14:00:00Z"));
+        today.setClose(150.0);
+        BarDataDto body = new BarDataDto();
+        body.setBars(Map.of("AAPL", List.of(yesterday, today)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+        List<PriceDataDto> result = svc.findByPeriod("AAPL", TimePeriod.ONE_WEEK);
+
+        assertThat(result).hasSize(2);
+        verify(intradayBarRepo).saveAll(argThat((List<IntradayBar> bars) -> bars.size() == 1));
+        verify(coverageRepo).saveAll(argThat((List<IntradayCoverage> sessions) ->
+                sessions.size() == 1 && sessions.get(0).getSessionDate().equals(LocalDate.of(2025, 7, 9))));
+    }
+
+    @Test
+    void findByPeriod_OneDay_RefreshRequestsOnlyTheTail() {
+        BarDto first = new BarDto();
+        first.setTimestamp(Instant.parse("2025-07-10T13:30:00Z"));
+        first.setClose(150.0);
+        BarDto second = new BarDto();
+        second.setTimestamp(Instant.parse("2025-07-10T13:35:00Z"));
+        second.setClose(151.0);
+        BarDataDto initial = new BarDataDto();
+        initial.setBars(Map.of("AAPL", List.of(first)));
+        BarDataDto tail = new BarDataDto();
+        tail.setBars(Map.of("AAPL", List.of(first, second)));
+        when(rest.exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class)))
+                .thenReturn(new ResponseEntity<>(initial, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(tail, HttpStatus.OK));
+
+        svc.findByPeriod("AAPL", TimePeriod.ONE_DAY);
+        List<PriceDataDto> result = svc.findByPeriod("AAPL", TimePeriod.ONE_DAY);
+
+        assertThat(result).hasSize(2);
+        verify(rest).exchange(contains("start_date=2025-07-10&end_date=2025-07-11"),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class));
+        verify(rest).exchange(contains("start_date=2025-07-10T13:30&end_date=2025-07-11"),
+                eq(HttpMethod.GET), any(HttpEntity.class), eq(BarDataDto.class));
+    }
+
+    private static IntradayBar intradayBar(String timestamp, double close) {
+        BigDecimal price = BigDecimal.valueOf(close);
+        return new IntradayBar(new IntradayBarId("AAPL", "5Min", Instant.parse(timestamp)),
+                price, price, price, price, 1000, 10, price);
+    }
 }
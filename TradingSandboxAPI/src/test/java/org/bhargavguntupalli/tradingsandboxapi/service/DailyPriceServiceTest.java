@@ -1,20 +1,35 @@
 package org.bhargavguntupalli.tradingsandboxapi.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.AssetCatalogDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.BarDataDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.BarDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.DailyPriceDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.StockSearchResultDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.StockSuggestionDto;
 import org.bhargavguntupalli.tradingsandboxapi.dto.StockValidationDto;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.CircuitBreakers;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradayBarStore;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.IntradaySeriesCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketClock;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.MarketDataExecutor;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.QuoteCache;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.SymbolCatalog;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.TradingCalendar;
+import org.bhargavguntupalli.tradingsandboxapi.marketdata.UpstreamBudget;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPrice;
 import org.bhargavguntupalli.tradingsandboxapi.models.DailyPriceId;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceGapRepository;
 import org.bhargavguntupalli.tradingsandboxapi.repositories.DailyPriceRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayBarRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.IntradayCoverageRepository;
 import org.bhargavguntupalli.tradingsandboxapi.services.impl.DailyPriceServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.*;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
@@ -31,13 +46,28 @@ import static org.mockito.Mockito.*;
 class DailyPriceServiceTest {
 
     @Mock DailyPriceRepository repo;
+    @Mock DailyPriceGapRepository gapRepo;
+    @Mock IntradayBarRepository intradayBarRepo;
+    @Mock IntradayCoverageRepository coverageRepo;
     @Mock RestTemplate rest;
 
-    @InjectMocks
     DailyPriceServiceImpl svc;
+    SymbolCatalog symbolCatalog = new SymbolCatalog(600_000);
 
     @BeforeEach
     void setup() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MarketClock marketClock = new MarketClock();
+        svc = new DailyPriceServiceImpl(repo, gapRepo, rest,
+                new QuoteCache(registry, marketClock, 100, 5_000, 600_000),
+                new MarketDataExecutor(registry, 4, 16),
+                marketClock,
+                new TradingCalendar(new ClassPathResource("calendar/nyse-calendar.csv")),
+                new IntradayBarStore(intradayBarRepo, coverageRepo),
+                new IntradaySeriesCache(0, 100),
+                new CircuitBreakers(registry, 5, 30_000),
+                new UpstreamBudget(registry, 1_000, 1_000, 1_000, 1_000),
+                symbolCatalog);
         // inject the @Value fields
         ReflectionTestUtils.setField(svc, "fastApiBaseUrl", "http://fake-api");
         ReflectionTestUtils.setField(svc, "fastApiAccessKey", "FAKEKEY");
@@ -159,6 +189,35 @@ class DailyPriceServiceTest {
         assertThat(result.getSuggestions()).isEmpty();
     }
 
+    @Test
+    void searchStocks_WhenCatalogLoaded_ServedWithoutUpstream() {
+        symbolCatalog.update(List.of(
+                new StockSuggestionDto("AAPL", "Apple Inc.", "NASDAQ"),
+                new StockSuggestionDto("AA", "Alcoa Corp", "NYSE"),
+                new StockSuggestionDto("MSFT", "Microsoft Corporation", "NASDAQ")));
+
+        StockSearchResultDto result = svc.searchStocks("aa", 10);
+
+        assertThat(result.getSuggestions()).extracting(StockSuggestionDto::getSymbol)
+                .containsExactly("AA", "AAPL");
+        verifyNoInteractions(rest);
+    }
+
+    @Test
+    void refreshSymbolCatalog_LoadsAssetsFromUpstream() {
+        AssetCatalogDto catalog = new AssetCatalogDto(List.of(
+                new StockSuggestionDto("AAPL", "Apple Inc.", "NASDAQ")));
+        when(rest.exchange(
+                eq("http://fake-api/assets"),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                eq(AssetCatalogDto.class)
+        )).thenReturn(new ResponseEntity<>(catalog, HttpStatus.OK));
+
+        assertThat(svc.refreshSymbolCatalog()).isEqualTo(1);
+        assertThat(symbolCatalog.contains("aapl")).isTrue();
+    }
+
     // ── validateSymbol tests ───────────────────────────────────────────────
 
     @Test
@@ -214,6 +273,35 @@ class DailyPriceServiceTest {
         assertThat(result.getError()).contains("INVALID");
     }
 
+    @Test
+    void validateSymbol_WhenListedInCatalog_AnsweredWithoutUpstream() {
+        symbolCatalog.update(List.of(new StockSuggestionDto("AAPL", "Apple Inc.", "NASDAQ")));
+
+        StockValidationDto result = svc.validateSymbol(" aapl ");
+
+        assertThat(result.isValid()).isTrue();
+        assertThat(result.getName()).isEqualTo("Apple Inc.");
+        verifyNoInteractions(rest);
+    }
+
+    @Test
+    void validateSymbol_WhenNotFound_RemembersUnknownSymbol() {
+        when(rest.exchange(
+                eq("http://fake-api/validate/AAPLE"),
+                eq(HttpMethod.GET),
+                any(HttpEntity.class),
+                eq(StockValidationDto.class)
+        )).thenThrow(org.springframework.web.client.HttpClientErrorException.create(
+                HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, new byte[0], null));
+
+        assertThat(svc.validateSymbol("AAPLE").isValid()).isFalse();
+        StockValidationDto again = svc.validateSymbol("aaple");
+
+        assertThat(again.isValid()).isFalse();
+        assertThat(again.getError()).contains("AAPLE");
+        verify(rest, times(1)).exchange(anyString(), eq(HttpMethod.GET), any(HttpEntity.class), eq(StockValidationDto.class));
+    }
+
     @Test
     void validateSymbol_WhenApiFails_ReturnsInvalid() {
         when(rest.exchange(
@@ -0,0 +1,621 @@
+package org.bhargavguntupalli.tradingsandboxapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketRequestDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.BasketResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.MarketStatusDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryCursor;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeHistoryPageDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeRequestDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResponseDto;
+import org.bhargavguntupalli.tradingsandboxapi.dto.TradeResultDto;
+import org.bhargavguntupalli.tradingsandboxapi.models.BasketMode;
+import org.bhargavguntupalli.tradingsandboxapi.models.Holding;
+import org.bhargavguntupalli.tradingsandboxapi.models.Order;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderStatus;
+import org.bhargavguntupalli.tradingsandboxapi.models.OrderType;
+import org.bhargavguntupalli.tradingsandboxapi.models.Trade;
+import org.bhargavguntupalli.tradingsandboxapi.models.TradeType;
+import org.bhargavguntupalli.tradingsandboxapi.models.User;
+import org.bhargavguntupalli.tradingsandboxapi.orders.ExecutionLanes;
+import org.bhargavguntupalli.tradingsandboxapi.orders.IdempotencyIndex;
+import org.bhargavguntupalli.tradingsandboxapi.orders.TradeJournal;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.HoldingRepository.Position;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.OrderRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.TradeRepository;
+import org.bhargavguntupalli.tradingsandboxapi.repositories.UserRepository;
+import org.bhargavguntupalli.tradingsandboxapi.services.DailyPriceService;
+import org.bhargavguntupalli.tradingsandboxapi.services.impl.TradingServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TradingServiceImplTest {
+
+    private final UserRepository userRepo = mock(UserRepository.class);
+    private final HoldingRepository holdingRepo = mock(HoldingRepository.class);
+    private final TradeRepository tradeRepo = mock(TradeRepository.class);
+    private final OrderRepository orderRepo = mock(OrderRepository.class);
+    private final DailyPriceService dailyPriceService = mock(DailyPriceService.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TradingServiceImpl svc;
+
+    @BeforeEach
+    void setUp() {
+        // the journal commits on the caller's thread, so each trade's work runs inline
+        svc = service(new TradeJournal(txManager, registry, 200, 2, 10_000, false));
+        when(dailyPriceService.getMarketStatus()).thenReturn(new MarketStatusDto(true, null, null));
+    }
+
+    private TradingServiceImpl service(TradeJournal journal) {
+        return new TradingServiceImpl(userRepo, holdingRepo, tradeRepo, orderRepo, dailyPriceService, events,
+                new ExecutionLanes(registry, 16, 1_000), journal, new IdempotencyIndex(registry, 100),
+                registry, txManager);
+    }
+
+    private static TradeRequestDto buy(String symbol, String quantity) {
+        return request(TradeType.BUY, symbol, quantity);
+    }
+
+    private static TradeRequestDto sell(String symbol, String quantity) {
+        return request(TradeType.SELL, symbol, quantity);
+    }
+
+    private static TradeRequestDto request(TradeType type, String symbol, String quantity) {
+        TradeRequestDto request = new TradeRequestDto();
+        request.setSymbol(symbol);
+        request.setQuantity(new BigDecimal(quantity));
+        request.setType(type);
+        return request;
+    }
+
+    private static BasketRequestDto basket(BasketMode mode, TradeRequestDto... trades) {
+        BasketRequestDto request = new BasketRequestDto();
+        request.setTrades(Arrays.asList(trades));
+        request.setMode(mode);
+        return request;
+    }
+
+    private static TradeResponseDto quote(double price) {
+        TradeResponseDto dto = new TradeResponseDto();
+        dto.setPrice(price);
+        return dto;
+    }
+
+    private static Position position(String quantity, String averageCost) {
+        return new Position() {
+            public BigDecimal getQuantity() { return new BigDecimal(quantity); }
+            public BigDecimal getAverageCost() { return new BigDecimal(averageCost); }
+        };
+    }
+
+    private static Trade trade(long id, String symbol, TradeType type, String quantity, String price) {
+        Trade t = new Trade();
+        ReflectionTestUtils.setField(t, "id", id);
+        t.setSymbol(symbol);
+        t.setType(type);
+        t.setQuantity(new BigDecimal(quantity));
+        t.setPricePerShare(new BigDecimal(price));
+        t.setTotalCost(new BigDecimal(quantity).multiply(new BigDecimal(price)));
+        t.setExecutedAt(LocalDateTime.of(2025, 7, 9, 10, 0));
+        return t;
+    }
+
+    /** Stubs alice's account for a basket: her cash, her positions and a quote for every symbol. */
+    private User stubAccount(String cash, Map<String, Double> prices, Holding... holdings) {
+        User alice = new User();
+        ReflectionTestUtils.setField(alice, "id", 1L);
+        alice.setUsername("alice");
+        alice.setCashBalance(new BigDecimal(cash));
+        for (Holding h : holdings) {
+            h.setUser(alice);
+        }
+        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(alice));
+        when(holdingRepo.findByUser(alice)).thenReturn(List.of(holdings));
+        // the plan has already checked every leg, so the conditional updates all go through
+        when(userRepo.debit(eq(1L), any())).thenReturn(1);
+        when(holdingRepo.removeShares(eq(1L), anyString(), any())).thenReturn(1);
+        for (Holding h : holdings) {
+            when(holdingRepo.addShares(eq(1L), eq(h.getSymbol()), any(), any())).thenReturn(1);
+        }
+        Map<String, TradeResponseDto> quotes = new HashMap<>();
+        prices.forEach((symbol, price) -> quotes.put(symbol, quote(price)));
+        when(dailyPriceService.getLatestTrades(any())).thenReturn(quotes);
+        return alice;
+    }
+
+    private static Holding holding(String symbol, String quantity, String averageCost) {
+        Holding h = new Holding();
+        h.setSymbol(symbol);
+        h.setQuantity(new BigDecimal(quantity));
+        h.setAverageCost(new BigDecimal(averageCost));
+        return h;
+    }
+
+    /** Stubs a user's conditional buy updates going through, leaving them $9,000 and 10 shares at $100. */
+    private void stubBuyUpdates(String username, long userId) {
+        when(userRepo.findIdByUsername(username)).thenReturn(Optional.of(userId));
+        when(userRepo.debit(eq(userId), any())).thenReturn(1);
+        when(holdingRepo.addShares(eq(userId), anyString(), any(), any())).thenReturn(1);
+        when(userRepo.findCashBalanceById(userId)).thenReturn(new BigDecimal("9000"));
+        when(holdingRepo.findPosition(eq(userId), anyString())).thenReturn(Optional.of(position("10", "100")));
+        when(userRepo.getReferenceById(userId)).thenReturn(new User());
+    }
+
+    /** Stubs one AAPL buy of 10 at $100 going through and being saved as trade 7. */
+    private void stubBuyGoesThrough() {
+        when(dailyPriceService.getLatestTrade("AAPL")).thenReturn(quote(100));
+        stubBuyUpdates("alice", 1);
+        when(tradeRepo.save(any(Trade.class))).thenAnswer(inv -> {
+            Trade t = inv.getArgument(0);
+            ReflectionTestUtils.setField(t, "id", 7L);
+            return t;
+        });
+    }
+
+    // ── idempotency ─────────────────────────────────────────────────────
+
+    @Test
+    void executeTrade_RetryWithSameKey_ReturnsOriginalResult() {
+        stubBuyGoesThrough();
+
+        TradeResultDto first = svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+        TradeResultDto retry = svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+
+        assertThat(first.getTradeId()).isEqualTo(7L);
+        assertThat(first.getRemainingCashBalance()).isEqualByComparingTo("9000");
+        assertThat(retry).isSameAs(first);
+        // the retry neither quotes nor trades again
+        verify(dailyPriceService, times(1)).getMarketStatus();
+        verify(dailyPriceService, times(1)).getLatestTrade("AAPL");
+        verify(tradeRepo, times(1)).save(any(Trade.class));
+        assertThat(registry.counter("trade.idempotent.replays").count()).isEqualTo(1);
+    }
+
+    @Test
+    void executeTrade_KeyOnlyInDatabase_ReturnsStoredTrade() {
+        when(tradeRepo.findByUserUsernameAndIdempotencyKey("alice", "key-1"))
+                .thenReturn(Optional.of(trade(7, "AAPL", TradeType.BUY, "10", "100")));
+
+        TradeResultDto result = svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+
+        assertThat(result.getTradeId()).isEqualTo(7L);
+        assertThat(result.getSymbol()).isEqualTo("AAPL");
+        assertThat(result.getType()).isEqualTo("BUY");
+        verify(dailyPriceService, never()).getMarketStatus();
+        verify(tradeRepo, never()).save(any());
+    }
+
+    @Test
+    void executeTrade_KeysAreScopedToTheUser() {
+        stubBuyGoesThrough();
+        stubBuyUpdates("bob", 2);
+
+        svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+        svc.executeTrade("bob", buy("AAPL", "10"), "key-1");
+
+        verify(tradeRepo, times(2)).save(any(Trade.class));
+    }
+
+    @Test
+    void executeTrade_ConcurrentDuplicate_GetsStoredResultAfterUniqueViolation() {
+        stubBuyGoesThrough();
+        // both checks miss, then the other node's trade is there once the unique key rejects ours
+        when(tradeRepo.findByUserUsernameAndIdempotencyKey("alice", "key-1"))
+                .thenReturn(Optional.empty(), Optional.empty(),
+                        Optional.of(trade(5, "AAPL", TradeType.BUY, "10", "100")));
+        when(tradeRepo.save(any(Trade.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_trades_user_idempotency_key"));
+
+        TradeResultDto result = svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+        TradeResultDto retry = svc.executeTrade("alice", buy("AAPL", "10"), "key-1");
+
+        assertThat(result.getTradeId()).isEqualTo(5L);
+        assertThat(retry).isSameAs(result);
+        verify(tradeRepo, times(1)).save(any(Trade.class));
+    }
+
+    @Test
+    void executeTrade_UniqueViolationWithoutStoredTrade_IsRethrown() {
+        stubBuyGoesThrough();
+        when(tradeRepo.save(any(Trade.class))).thenThrow(new DataIntegrityViolationException("other"));
+
+        assertThatThrownBy(() -> svc.executeTrade("alice", buy("AAPL", "10"), "key-1"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void executeTrade_WithoutKey_TradesEveryTime() {
+        stubBuyGoesThrough();
+
+        svc.executeTrade("alice", buy("AAPL", "10"), null);
+        svc.executeTrade("alice", buy("AAPL", "10"), null);
+
+        verify(tradeRepo, times(2)).save(any(Trade.class));
+        verify(tradeRepo, never()).findByUserUsernameAndIdempotencyKey(any(), any());
+        verify(holdingRepo, times(2)).addShares(eq(1L), eq("AAPL"), any(), any());
+    }
+
+    // ── basket ──────────────────────────────────────────────────────────
+
+    @Test
+    void executeBasket_ReturnsEveryTradeAndTheFinalCash() {
+        stubAccount("10000", Map.of("AAPL", 100.0, "MSFT", 400.0), holding("MSFT", "5", "350"));
+
+        BasketResultDto result = svc.executeBasket("alice", basket(null,
+                buy("aapl", "10"), sell("MSFT", "2")));
+
+        assertThat(result.getMode()).isEqualTo("ALL_OR_NOTHING");
+        assertThat(result.getExecuted()).hasSize(2);
+        assertThat(result.getExecuted().get(0)).satisfies(t -> {
+            assertThat(t.getSymbol()).isEqualTo("AAPL");
+            assertThat(t.getType()).isEqualTo("BUY");
+            assertThat(t.getQuantity()).isEqualByComparingTo("10");
+            assertThat(t.getPricePerShare()).isEqualByComparingTo("100");
+            assertThat(t.getTotalCost()).isEqualByComparingTo("1000");
+            assertThat(t.getRemainingCashBalance()).isEqualByComparingTo("9000");
+        });
+        assertThat(result.getExecuted().get(1)).satisfies(t -> {
+            assertThat(t.getSymbol()).isEqualTo("MSFT");
+            assertThat(t.getType()).isEqualTo("SELL");
+            assertThat(t.getRemainingCashBalance()).isEqualByComparingTo("9800");
+        });
+        assertThat(result.getRejected()).isEmpty();
+        assertThat(result.getRemainingCashBalance()).isEqualByComparingTo("9800");
+        // one batched quote fetch and one write of the trade rows for the whole basket
+        verify(dailyPriceService, times(1)).getLatestTrades(any());
+        verify(tradeRepo, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void executeBasket_AllOrNothing_InsufficientCash_WritesNothing() {
+        User alice = stubAccount("1000", Map.of("AAPL", 100.0, "MSFT", 100.0));
+
+        assertThatThrownBy(() -> svc.executeBasket("alice", basket(BasketMode.ALL_OR_NOTHING,
+                buy("AAPL", "5"), buy("MSFT", "10"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("trade 2 (MSFT)")
+                .hasMessageContaining("Insufficient funds");
+
+        // the first leg fit, but nothing of it is written and the transaction rolls back
+        verify(userRepo, never()).debit(any(), any());
+        verify(holdingRepo, never()).addShares(any(), anyString(), any(), any());
+        verify(tradeRepo, never()).saveAll(anyList());
+        verify(events, never()).publishEvent(any());
+        verify(txManager).rollback(any());
+        verify(txManager, never()).commit(any());
+        assertThat(alice.getCashBalance()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void executeBasket_AllOrNothing_InsufficientShares_WritesNothing() {
+        Holding aapl = holding("AAPL", "5", "90");
+        User alice = stubAccount("1000", Map.of("AAPL", 100.0, "MSFT", 100.0), aapl);
+
+        assertThatThrownBy(() -> svc.executeBasket("alice", basket(BasketMode.ALL_OR_NOTHING,
+                buy("MSFT", "1"), sell("AAPL", "10"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("trade 2 (AAPL)")
+                .hasMessageContaining("Insufficient shares");
+
+        verify(userRepo, never()).debit(any(), any());
+        verify(holdingRepo, never()).removeShares(any(), anyString(), any());
+        verify(tradeRepo, never()).saveAll(anyList());
+        verify(txManager).rollback(any());
+        assertThat(aapl.getQuantity()).isEqualByComparingTo("5");
+        assertThat(alice.getCashBalance()).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    void executeBasket_BestEffort_ReportsRejectedLegsAndKeepsTheRest() {
+        stubAccount("1000", Map.of("AAPL", 100.0));
+
+        BasketResultDto result = svc.executeBasket("alice", basket(BasketMode.BEST_EFFORT,
+                buy("AAPL", "5"), sell("MSFT", "1"), buy("AAPL", "6")));
+
+        assertThat(result.getMode()).isEqualTo("BEST_EFFORT");
+        assertThat(result.getExecuted()).extracting(TradeResultDto::getQuantity)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("5"));
+        assertThat(result.getRejected()).satisfiesExactly(
+                r -> {
+                    assertThat(r.getIndex()).isEqualTo(1);
+                    assertThat(r.getSymbol()).isEqualTo("MSFT");
+                    assertThat(r.getReason()).startsWith("Unable to fetch current price");
+                },
+                r -> {
+                    assertThat(r.getIndex()).isEqualTo(2);
+                    assertThat(r.getReason()).startsWith("Insufficient funds");
+                });
+        assertThat(result.getRemainingCashBalance()).isEqualByComparingTo("500");
+        verify(userRepo).debit(1L, new BigDecimal("500.0000"));
+        verify(holdingRepo).addShares(1L, "AAPL", new BigDecimal("5"), new BigDecimal("500.0000"));
+        // she had no AAPL, so the position is opened at the leg's price
+        verify(holdingRepo).save(argThat(h -> h.getSymbol().equals("AAPL")
+                && h.getQuantity().compareTo(new BigDecimal("5")) == 0
+                && h.getAverageCost().compareTo(new BigDecimal("100")) == 0));
+    }
+
+    @Test
+    void executeBasket_SameSymbolTwice_OpensThenSellsFromThePosition() {
+        stubAccount("10000", Map.of("AAPL", 100.0));
+
+        BasketResultDto result = svc.executeBasket("alice", basket(BasketMode.ALL_OR_NOTHING,
+                buy("AAPL", "10"), sell("AAPL", "4")));
+
+        assertThat(result.getExecuted()).hasSize(2);
+        assertThat(result.getRemainingCashBalance()).isEqualByComparingTo("9400");
+        // each leg goes through the same conditional updates as a single trade, in order
+        InOrder inOrder = inOrder(userRepo, holdingRepo);
+        inOrder.verify(userRepo).debit(1L, new BigDecimal("1000.0000"));
+        inOrder.verify(holdingRepo).save(any(Holding.class));
+        inOrder.verify(holdingRepo).removeShares(1L, "AAPL", new BigDecimal("4"));
+        inOrder.verify(userRepo).credit(1L, new BigDecimal("400.0000"));
+        verify(holdingRepo, never()).deleteIfEmpty(any(), anyString());
+    }
+
+    @Test
+    void executeBasket_SameSymbolTwice_ReweightsAnExistingPosition() {
+        stubAccount("10000", Map.of("AAPL", 100.0), holding("AAPL", "10", "80"));
+
+        BasketResultDto result = svc.executeBasket("alice", basket(BasketMode.ALL_OR_NOTHING,
+                buy("AAPL", "10"), sell("AAPL", "5")));
+
+        assertThat(result.getExecuted()).extracting(TradeResultDto::getRemainingCashBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("9000"), new BigDecimal("9500"));
+        // the update re-weights the open position rather than opening another
+        InOrder inOrder = inOrder(holdingRepo);
+        inOrder.verify(holdingRepo).addShares(1L, "AAPL", new BigDecimal("10"), new BigDecimal("1000.0000"));
+        inOrder.verify(holdingRepo).removeShares(1L, "AAPL", new BigDecimal("5"));
+        verify(holdingRepo, never()).save(any(Holding.class));
+    }
+
+    @Test
+    void executeBasket_SameSymbolTwice_ClosingOutDeletesThePosition() {
+        stubAccount("10000", Map.of("AAPL", 100.0), holding("AAPL", "10", "80"));
+
+        BasketResultDto result = svc.executeBasket("alice", basket(BasketMode.ALL_OR_NOTHING,
+                sell("AAPL", "4"), sell("AAPL", "6")));
+
+        assertThat(result.getRemainingCashBalance()).isEqualByComparingTo("11000");
+        verify(holdingRepo, times(2)).removeShares(eq(1L), eq("AAPL"), any());
+        verify(holdingRepo).deleteIfEmpty(1L, "AAPL");
+        verify(holdingRepo, never()).addShares(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void executeBasket_LegRefusedByItsUpdate_RollsBackTheBasket() {
+        stubAccount("10000", Map.of("AAPL", 100.0));
+        // another node spent the cash after the plan read it
+        when(userRepo.debit(eq(1L), any())).thenReturn(0);
+        when(userRepo.findCashBalanceById(1L)).thenReturn(new BigDecimal("50"));
+
+        assertThatThrownBy(() -> svc.executeBasket("alice", basket(BasketMode.BEST_EFFORT, buy("AAPL", "1"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Insufficient funds");
+
+        verify(holdingRepo, never()).addShares(any(), anyString(), any(), any());
+        verify(tradeRepo, never()).saveAll(anyList());
+        verify(txManager).rollback(any());
+    }
+
+    // ── single trades ───────────────────────────────────────────────────
+
+    @Test
+    void executeTrade_SellClosingOut_DeletesThePosition() {
+        when(dailyPriceService.getLatestTrade("AAPL")).thenReturn(quote(100));
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(holdingRepo.removeShares(1L, "AAPL", new BigDecimal("10"))).thenReturn(1);
+        when(userRepo.findCashBalanceById(1L)).thenReturn(new BigDecimal("11000"));
+        when(holdingRepo.findPosition(1L, "AAPL")).thenReturn(Optional.of(position("0", "80")));
+
+        TradeResultDto result = svc.executeTrade("alice", sell("AAPL", "10"), null);
+
+        assertThat(result.getRemainingCashBalance()).isEqualByComparingTo("11000");
+        verify(userRepo).credit(1L, new BigDecimal("1000.0000"));
+        verify(holdingRepo).deleteIfEmpty(1L, "AAPL");
+    }
+
+    @Test
+    void executeTrade_SellMoreThanHeld_WritesNothing() {
+        when(dailyPriceService.getLatestTrade("AAPL")).thenReturn(quote(100));
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(holdingRepo.findPosition(1L, "AAPL")).thenReturn(Optional.of(position("5", "80")));
+
+        assertThatThrownBy(() -> svc.executeTrade("alice", sell("AAPL", "10"), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Insufficient shares. You own 5.00 shares of AAPL");
+
+        verify(userRepo, never()).credit(any(), any());
+        verify(tradeRepo, never()).save(any());
+    }
+
+    @Test
+    void executeTrade_BuyWithoutPosition_OpensOne() {
+        when(dailyPriceService.getLatestTrade("AAPL")).thenReturn(quote(100));
+        stubBuyUpdates("alice", 1);
+        when(holdingRepo.addShares(eq(1L), eq("AAPL"), any(), any())).thenReturn(0);
+
+        svc.executeTrade("alice", buy("AAPL", "10"), null);
+
+        verify(holdingRepo).save(argThat(h -> h.getSymbol().equals("AAPL")
+                && h.getQuantity().compareTo(BigDecimal.TEN) == 0));
+    }
+
+    // ── triggered fills ─────────────────────────────────────────────────
+
+    private static Order limitBuy(long id, String username, String symbol) {
+        User user = new User();
+        user.setUsername(username);
+        Order o = new Order();
+        ReflectionTestUtils.setField(o, "id", id);
+        o.setUser(user);
+        o.setSymbol(symbol);
+        o.setSide(TradeType.BUY);
+        o.setOrderType(OrderType.LIMIT);
+        o.setQuantity(BigDecimal.ONE);
+        o.setLimitPrice(new BigDecimal("200"));
+        o.setStatus(OrderStatus.OPEN);
+        return o;
+    }
+
+    /** Stubs three crossed limit buys, from two accounts, filling; MSFT's trade row fails if asked. */
+    private void stubThreeFills(boolean msftFails) {
+        when(orderRepo.findWithUserByIdIn(any())).thenReturn(List.of(
+                limitBuy(1, "alice", "AAPL"), limitBuy(2, "bob", "AAPL"), limitBuy(3, "alice", "MSFT")));
+        when(orderRepo.close(any(), any(), any(), any())).thenReturn(1);
+        stubBuyUpdates("alice", 1);
+        stubBuyUpdates("bob", 2);
+        when(tradeRepo.save(any(Trade.class))).thenAnswer(inv -> {
+            Trade t = inv.getArgument(0);
+            if (msftFails && t.getSymbol().equals("MSFT")) {
+                throw new IllegalStateException("trades insert failed");
+            }
+            ReflectionTestUtils.setField(t, "id", 10L);
+            return t;
+        });
+    }
+
+    @Test
+    void fillTriggeredOrders_BatchSharesOneJournalCommit() {
+        PlatformTransactionManager journalTx = mock(PlatformTransactionManager.class);
+        when(journalTx.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        // the writer only commits once all three fills are queued
+        TradeJournal journal = new TradeJournal(journalTx, registry, 3, 5_000, 10_000, true);
+        try {
+            svc = service(journal);
+            stubThreeFills(false);
+
+            List<Order> resting = svc.fillTriggeredOrders(List.of(1L, 2L, 3L),
+                    Map.of("AAPL", new BigDecimal("100"), "MSFT", new BigDecimal("100")));
+
+            assertThat(resting).isEmpty();
+            verify(journalTx, times(1)).commit(any());
+            verify(orderRepo, times(3)).recordTrade(anyLong(), eq(10L));
+            assertThat(registry.counter("trade.executed", "source", "order").count()).isEqualTo(3);
+        } finally {
+            journal.destroy();
+        }
+    }
+
+    @Test
+    void fillTriggeredOrders_FailedFillDoesNotHoldBackTheOthers() {
+        PlatformTransactionManager journalTx = mock(PlatformTransactionManager.class);
+        when(journalTx.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        TradeJournal journal = new TradeJournal(journalTx, registry, 3, 5_000, 10_000, true);
+        try {
+            svc = service(journal);
+            stubThreeFills(true);
+
+            assertThatThrownBy(() -> svc.fillTriggeredOrders(List.of(1L, 2L, 3L),
+                    Map.of("AAPL", new BigDecimal("100"), "MSFT", new BigDecimal("100"))))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("trades insert failed");
+
+            // the shared commit sank, so each fill was retried alone and only MSFT's failed
+            verify(journalTx, times(2)).commit(any());
+            verify(orderRepo, never()).recordTrade(eq(3L), anyLong());
+            assertThat(registry.counter("trade.executed", "source", "order").count()).isEqualTo(2);
+        } finally {
+            journal.destroy();
+        }
+    }
+
+    // ── history ─────────────────────────────────────────────────────────
+
+    /** Rows as the history query returns them: newest first, ids descending, all in the same second. */
+    private static List<TradeHistoryDto> historyRows(long newestId, int count) {
+        LocalDateTime at = LocalDateTime.of(2025, 7, 9, 10, 0);
+        return LongStream.range(0, count)
+                .mapToObj(i -> new TradeHistoryDto(newestId - i, "AAPL", TradeType.BUY,
+                        BigDecimal.ONE, BigDecimal.TEN, BigDecimal.TEN, at))
+                .toList();
+    }
+
+    @Test
+    void getTradeHistory_MoreThanLimit_ReturnsLimitAndCursorAtLastRow() {
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        // the query is asked for one row past the limit
+        when(tradeRepo.findHistory(1L, PageRequest.of(0, 3))).thenReturn(historyRows(10, 3));
+
+        TradeHistoryPageDto page = svc.getTradeHistory("alice", 2, null);
+
+        assertThat(page.trades()).extracting(TradeHistoryDto::getId).containsExactly(10L, 9L);
+        assertThat(page.next()).isEqualTo(new TradeHistoryCursor(LocalDateTime.of(2025, 7, 9, 10, 0), 9));
+    }
+
+    @Test
+    void getTradeHistory_ExactlyLimit_IsTheLastPage() {
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(tradeRepo.findHistory(1L, PageRequest.of(0, 3))).thenReturn(historyRows(10, 2));
+
+        TradeHistoryPageDto page = svc.getTradeHistory("alice", 2, null);
+
+        assertThat(page.trades()).hasSize(2);
+        assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void getTradeHistory_WithCursor_SeeksPastIt() {
+        LocalDateTime at = LocalDateTime.of(2025, 7, 9, 10, 0);
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(tradeRepo.findHistoryBefore(1L, at, 9L, PageRequest.of(0, 3))).thenReturn(historyRows(8, 3));
+
+        TradeHistoryPageDto page = svc.getTradeHistory("alice", 2, new TradeHistoryCursor(at, 9));
+
+        assertThat(page.trades()).extracting(TradeHistoryDto::getId).containsExactly(8L, 7L);
+        assertThat(page.next().id()).isEqualTo(7L);
+        verify(tradeRepo, never()).findHistory(anyLong(), any());
+    }
+
+    @Test
+    void getTradeHistory_WithoutLimit_ReadsEveryRow() {
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(tradeRepo.findHistory(eq(1L), argThat(Pageable::isUnpaged))).thenReturn(historyRows(60, 60));
+
+        assertThat(svc.getTradeHistory("alice")).hasSize(60);
+    }
+
+    @Test
+    void getTradeHistory_UnknownUser_Throws() {
+        assertThatThrownBy(() -> svc.getTradeHistory("ghost", 50, null))
+                .isInstanceOf(UsernameNotFoundException.class);
+    }
+}
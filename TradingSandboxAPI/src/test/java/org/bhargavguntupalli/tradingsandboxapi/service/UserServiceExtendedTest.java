@@ -255,21 +255,25 @@ class UserServiceExtendedTest {
     @Test
     void creditBalance_AddsToBalance() {
         User user = createTestUser("alice");
-        user.setCashBalance(BigDecimal.valueOf(1000));
-        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(user));
-        when(userRepo.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        user.setCashBalance(BigDecimal.valueOf(1500));
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepo.credit(1L, BigDecimal.valueOf(500))).thenReturn(1);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
 
         UserDto result = svc.creditBalance("alice", BigDecimal.valueOf(500));
 
         assertThat(result.getCashBalance()).isEqualByComparingTo(BigDecimal.valueOf(1500));
+        // the balance moves in the update itself, never through a loaded entity
+        verify(userRepo, never()).save(any(User.class));
     }
 
     @Test
     void creditBalance_NonExistingUser_Throws() {
-        when(userRepo.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepo.findIdByUsername("nonexistent")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> svc.creditBalance("nonexistent", BigDecimal.TEN))
                 .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepo, never()).credit(any(), any());
     }
 
     // ── debitBalance ─────────────────────────────────────────────────────
@@ -277,20 +281,21 @@ class UserServiceExtendedTest {
     @Test
     void debitBalance_SufficientFunds_Deducts() {
         User user = createTestUser("alice");
-        user.setCashBalance(BigDecimal.valueOf(1000));
-        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(user));
-        when(userRepo.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        user.setCashBalance(BigDecimal.valueOf(750));
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepo.debit(1L, BigDecimal.valueOf(250))).thenReturn(1);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
 
         UserDto result = svc.debitBalance("alice", BigDecimal.valueOf(250));
 
         assertThat(result.getCashBalance()).isEqualByComparingTo(BigDecimal.valueOf(750));
+        verify(userRepo, never()).save(any(User.class));
     }
 
     @Test
     void debitBalance_InsufficientFunds_Throws() {
-        User user = createTestUser("alice");
-        user.setCashBalance(BigDecimal.valueOf(100));
-        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepo.debit(1L, BigDecimal.valueOf(200))).thenReturn(0);
 
         assertThatThrownBy(() -> svc.debitBalance("alice", BigDecimal.valueOf(200)))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -300,9 +305,10 @@ class UserServiceExtendedTest {
     @Test
     void debitBalance_ExactBalance_Succeeds() {
         User user = createTestUser("alice");
-        user.setCashBalance(BigDecimal.valueOf(100));
-        when(userRepo.findByUsername("alice")).thenReturn(Optional.of(user));
-        when(userRepo.save(any(User.class))).thenAnswer(inv -> inv.getArgument(0));
+        user.setCashBalance(BigDecimal.ZERO);
+        when(userRepo.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        when(userRepo.debit(1L, BigDecimal.valueOf(100))).thenReturn(1);
+        when(userRepo.findById(1L)).thenReturn(Optional.of(user));
 
         UserDto result = svc.debitBalance("alice", BigDecimal.valueOf(100));
 
@@ -311,10 +317,11 @@ class UserServiceExtendedTest {
 
     @Test
     void debitBalance_NonExistingUser_Throws() {
-        when(userRepo.findByUsername("nonexistent")).thenReturn(Optional.empty());
+        when(userRepo.findIdByUsername("nonexistent")).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> svc.debitBalance("nonexistent", BigDecimal.TEN))
                 .isInstanceOf(UsernameNotFoundException.class);
+        verify(userRepo, never()).debit(any(), any());
     }
 
     // ── toggleTheme ──────────────────────────────────────────────────────
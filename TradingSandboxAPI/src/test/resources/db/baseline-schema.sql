@@ -0,0 +1,31 @@
+-- The schema as production had it before schema-updates.sql existed, with a row in
+-- each table that later gains columns, so the updates are checked against live data.
+CREATE SEQUENCE email_verification_tokens_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE holdings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE trades_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE roles (id BIGINT GENERATED BY DEFAULT AS IDENTITY, name VARCHAR(20) NOT NULL UNIQUE, PRIMARY KEY (id));
+CREATE TABLE users (cash_balance NUMERIC(19,4) NOT NULL, email_verified BOOLEAN NOT NULL, id BIGINT NOT NULL,
+    role_id BIGINT NOT NULL REFERENCES roles, email VARCHAR(255) NOT NULL UNIQUE, first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL, password VARCHAR(255) NOT NULL, theme_preference VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL UNIQUE, PRIMARY KEY (id));
+CREATE TABLE email_verification_tokens (used BOOLEAN NOT NULL, expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    id BIGINT NOT NULL, user_id BIGINT NOT NULL REFERENCES users, token VARCHAR(255) NOT NULL UNIQUE, PRIMARY KEY (id));
+CREATE TABLE holdings (average_cost NUMERIC(19,4) NOT NULL, quantity NUMERIC(19,2) NOT NULL, id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users, symbol VARCHAR(10) NOT NULL, PRIMARY KEY (id), UNIQUE (user_id, symbol));
+CREATE TABLE trades (price_per_share NUMERIC(19,4) NOT NULL, quantity NUMERIC(19,2) NOT NULL,
+    total_cost NUMERIC(19,4) NOT NULL, type VARCHAR(4) NOT NULL, executed_at TIMESTAMP(6) NOT NULL, id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL REFERENCES users, symbol VARCHAR(10) NOT NULL, PRIMARY KEY (id));
+CREATE INDEX idx_trades_user_date ON trades (user_id, executed_at DESC);
+CREATE TABLE daily_prices (closing_price NUMERIC(19,4) NOT NULL, date DATE NOT NULL, symbol VARCHAR(255) NOT NULL,
+    PRIMARY KEY (date, symbol));
+CREATE INDEX idx_symbol_date ON daily_prices (symbol, date);
+
+INSERT INTO roles (id, name) VALUES (1, 'ROLE_USER');
+INSERT INTO users (cash_balance, email_verified, id, role_id, email, first_name, last_name, password, theme_preference, username)
+    VALUES (100000, TRUE, 1, 1, 'alice@example.com', 'Alice', 'Smith', 'hash', 'LIGHT', 'alice');
+INSERT INTO holdings (average_cost, quantity, id, user_id, symbol) VALUES (100, 10, 1, 1, 'AAPL');
+INSERT INTO trades (price_per_share, quantity, total_cost, type, executed_at, id, user_id, symbol)
+    VALUES (100, 10, 1000, 'BUY', TIMESTAMP '2025-07-09 10:00:00', 1, 1, 'AAPL');
+INSERT INTO daily_prices (closing_price, date, symbol) VALUES (150, DATE '2025-07-09', 'AAPL');